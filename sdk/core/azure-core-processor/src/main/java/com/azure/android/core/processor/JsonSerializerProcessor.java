@@ -0,0 +1,204 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating a streaming JSON serializer and deserializer for each model and headers class of a
+ * module, so {@code JacksonAdapter} does not introspect those classes at runtime.
+ * <p>
+ * Model classes are the classes declaring fields annotated with {@code JsonProperty} or {@code HeaderCollection}, or
+ * annotated with {@code JsonFlatten}. For a class {@code Outer.Model}, the processor generates
+ * {@code Outer_Model_JsonSerializer} and {@code Outer_Model_JsonDeserializer} in the package of the class, and lists
+ * them in a {@code GeneratedJsonSerializers} class registered in {@code META-INF/services}. That class is generated in
+ * the common package of the models, unless the {@value #PROVIDER_OPTION} option gives its qualified name, which is
+ * required when two modules of an application would otherwise generate the same class.
+ * <p>
+ * Classes using features that the generated code does not support are reported with a note, and keep being
+ * introspected by Jackson.
+ */
+public final class JsonSerializerProcessor extends AbstractProcessor {
+    /**
+     * The option giving the qualified name of the generated class registering the serializers.
+     */
+    public static final String PROVIDER_OPTION = "azure.serializers.provider";
+
+    private static final String PROVIDER_SIMPLE_NAME = "GeneratedJsonSerializers";
+
+    private final Set<String> processedModels = new HashSet<>();
+    private final List<ModelClass> generatedModels = new ArrayList<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private boolean providerWritten;
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(ModelClass.JSON_PROPERTY, ModelClass.HEADER_COLLECTION,
+            ModelClass.JSON_FLATTEN));
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(PROVIDER_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final Set<TypeElement> models = new LinkedHashSet<>();
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    models.add((TypeElement) element);
+                } else if (element.getEnclosingElement() instanceof TypeElement) {
+                    models.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        boolean foundModels = false;
+
+        for (TypeElement model : models) {
+            if (processedModels.add(model.getQualifiedName().toString())) {
+                foundModels = true;
+                generate(model);
+            }
+        }
+
+        // The provider lists the models of all rounds, it is written once a round finds no new model.
+        if ((!foundModels || roundEnv.processingOver()) && !generatedModels.isEmpty() && !providerWritten) {
+            providerWritten = true;
+            writeProvider();
+        }
+
+        // Other processors may also handle JsonProperty.
+        return false;
+    }
+
+    private void generate(TypeElement element) {
+        final ModelClass model;
+
+        try {
+            model = ModelClass.analyze(element, elements, types);
+        } catch (UnsupportedModelException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Not generating JSON serializers for "
+                + element.getQualifiedName() + ": " + e.getMessage() + ".", element);
+
+            return;
+        }
+
+        final String prefix = model.packageName.isEmpty() ? "" : model.packageName + ".";
+
+        try {
+            writeSource(prefix + model.generatedName + SourceWriter.SERIALIZER_SUFFIX, SourceWriter.serializer(model),
+                element);
+            writeSource(prefix + model.generatedName + SourceWriter.DESERIALIZER_SUFFIX,
+                SourceWriter.deserializer(model), element);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write the JSON serializers of "
+                + element.getQualifiedName() + ": " + e.getMessage(), element);
+
+            return;
+        }
+
+        generatedModels.add(model);
+        originatingElements.add(element);
+    }
+
+    private void writeProvider() {
+        String providerName = processingEnv.getOptions().get(PROVIDER_OPTION);
+
+        if (providerName == null || providerName.isEmpty()) {
+            final String packageName = commonPackage();
+
+            providerName = packageName.isEmpty() ? PROVIDER_SIMPLE_NAME : packageName + "." + PROVIDER_SIMPLE_NAME;
+        }
+
+        final int lastDot = providerName.lastIndexOf('.');
+        final Element[] originating = originatingElements.toArray(new Element[0]);
+
+        try {
+            writeSource(providerName, SourceWriter.serializers(lastDot < 0 ? "" : providerName.substring(0, lastDot),
+                providerName.substring(lastDot + 1), generatedModels), originating);
+
+            final FileObject services = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + SourceWriter.SERIALIZERS_INTERFACE, originating);
+
+            try (Writer writer = services.openWriter()) {
+                writer.write(providerName + "\n");
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + providerName + ": " + e.getMessage());
+        }
+    }
+
+    private void writeSource(String qualifiedName, String source, Element... originatingElements)
+        throws IOException {
+        try (Writer writer = filer.createSourceFile(qualifiedName, originatingElements).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    /**
+     * Gets the longest package containing all the generated models.
+     */
+    private String commonPackage() {
+        String common = null;
+
+        for (ModelClass model : generatedModels) {
+            if (common == null) {
+                common = model.packageName;
+            }
+
+            while (!common.isEmpty() && !model.packageName.equals(common)
+                && !model.packageName.startsWith(common + ".")) {
+                final int lastDot = common.lastIndexOf('.');
+
+                common = lastDot < 0 ? "" : common.substring(0, lastDot);
+            }
+        }
+
+        return common == null ? "" : common;
+    }
+}
@@ -0,0 +1,481 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * A model or headers class, with the properties its generated serializer and deserializer read and write.
+ * <p>
+ * The properties follow the configuration of {@code JacksonAdapter}: every non-static, non-transient field is a
+ * property, named by its {@code JsonProperty} annotation or else by the field, while getters and setters are not
+ * detected. Classes using other Jackson features are left to Jackson, and reported with a note.
+ */
+final class ModelClass {
+    static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    static final String HEADER_COLLECTION = "com.azure.android.core.annotation.HeaderCollection";
+    static final String JSON_FLATTEN = "com.azure.android.core.annotation.JsonFlatten";
+
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JACKSON_ANNOTATION_PACKAGE = "com.fasterxml.jackson.annotation";
+    private static final String JACKSON_DATABIND_ANNOTATION_PACKAGE = "com.fasterxml.jackson.databind.annotation";
+
+    final TypeElement element;
+    final String packageName;
+    final String qualifiedName;
+    final String generatedName;
+    final List<Property> properties;
+    final Node root;
+
+    private ModelClass(TypeElement element, String packageName, List<Property> properties, Node root) {
+        this.element = element;
+        this.packageName = packageName;
+        this.qualifiedName = element.getQualifiedName().toString();
+        this.properties = properties;
+        this.root = root;
+
+        // Nested classes are named after their enclosing classes, as in Outer_Inner_JsonSerializer.
+        final StringBuilder name = new StringBuilder(element.getSimpleName());
+
+        for (Element enclosing = element.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+
+        this.generatedName = name.toString();
+    }
+
+    /**
+     * Gets the properties read by the deserializer, which excludes the header collections.
+     *
+     * @return The properties read from JSON objects.
+     */
+    List<Property> readProperties() {
+        final List<Property> readProperties = new ArrayList<>();
+
+        for (Property property : properties) {
+            if (property.headerCollectionPrefix == null) {
+                readProperties.add(property);
+            }
+        }
+
+        return readProperties;
+    }
+
+    /**
+     * Gets the header collections, filled by the deserializer from the properties starting with their prefix.
+     *
+     * @return The header collection properties.
+     */
+    List<Property> headerCollections() {
+        final List<Property> headerCollections = new ArrayList<>();
+
+        for (Property property : properties) {
+            if (property.headerCollectionPrefix != null) {
+                headerCollections.add(property);
+            }
+        }
+
+        return headerCollections;
+    }
+
+    /**
+     * Analyzes a model class.
+     *
+     * @param element  The class.
+     * @param elements The element utilities.
+     * @param types    The type utilities.
+     * @return The model class.
+     * @throws UnsupportedModelException If the class uses features that the generated code does not support.
+     */
+    static ModelClass analyze(TypeElement element, Elements elements, Types types) throws UnsupportedModelException {
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedModelException("not a concrete class");
+        }
+
+        if (!element.getTypeParameters().isEmpty()) {
+            throw new UnsupportedModelException("generic class");
+        }
+
+        if (!types.isSameType(element.getSuperclass(), elements.getTypeElement("java.lang.Object").asType())) {
+            throw new UnsupportedModelException("the class extends " + element.getSuperclass());
+        }
+
+        checkAccessible(element);
+        checkConstructor(element);
+        checkAnnotations(element, Collections.<String>emptySet());
+
+        final boolean flatten = hasAnnotation(element, JSON_FLATTEN);
+        final List<Property> properties = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        final Set<String> lowerCaseNames = new HashSet<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                || isIgnored(field)) {
+                continue;
+            }
+
+            if (modifiers.contains(Modifier.FINAL)) {
+                throw new UnsupportedModelException("final field " + field.getSimpleName());
+            }
+
+            checkAnnotations(field, new HashSet<>(Arrays.asList(JSON_PROPERTY, JSON_IGNORE,
+                HEADER_COLLECTION)));
+
+            final Property property = new Property(field, propertyName(field), flatten);
+
+            checkType(field.asType(), field);
+
+            if (hasAnnotation(field, HEADER_COLLECTION)) {
+                property.headerCollectionPrefix = headerCollectionPrefix(field, elements, types);
+            }
+
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                property.getter = findAccessor(element, field, types, true);
+                property.setter = findAccessor(element, field, types, false);
+            }
+
+            // Case-insensitive mappers match names in lower case, which must not make two properties ambiguous.
+            if (!names.add(property.name) || !lowerCaseNames.add(property.name.toLowerCase(Locale.ROOT))) {
+                throw new UnsupportedModelException("duplicate property " + property.name);
+            }
+
+            properties.add(property);
+        }
+
+        final Node root = new Node(null);
+
+        for (Property property : properties) {
+            root.add(property, 0);
+        }
+
+        return new ModelClass(element, elements.getPackageOf(element).getQualifiedName().toString(), properties,
+            root);
+    }
+
+    private static void checkAccessible(TypeElement element) throws UnsupportedModelException {
+        for (Element current = element; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            final TypeElement type = (TypeElement) current;
+
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedModelException("private class " + type.getQualifiedName());
+            }
+
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))) {
+                throw new UnsupportedModelException("not a top-level or static nested class");
+            }
+        }
+    }
+
+    private static void checkConstructor(TypeElement element) throws UnsupportedModelException {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return;
+            }
+        }
+
+        throw new UnsupportedModelException("no accessible constructor without parameters");
+    }
+
+    /**
+     * Rejects the Jackson annotations that are not supported, which customize the serialization of a class or field.
+     * XML annotations are accepted since the generated code is only used for JSON.
+     */
+    private static void checkAnnotations(Element element, Set<String> supported) throws UnsupportedModelException {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            final String name = annotationType.getQualifiedName().toString();
+
+            if (supported.contains(name)) {
+                if (name.equals(JSON_PROPERTY)) {
+                    for (ExecutableElement attribute : annotation.getElementValues().keySet()) {
+                        final String attributeName = attribute.getSimpleName().toString();
+
+                        if (!attributeName.equals("value") && !attributeName.equals("required")) {
+                            throw new UnsupportedModelException("@JsonProperty(" + attributeName + ") on "
+                                + element.getSimpleName());
+                        }
+                    }
+                }
+
+                continue;
+            }
+
+            final String packageName = name.substring(0, name.lastIndexOf('.'));
+
+            if (packageName.equals(JACKSON_ANNOTATION_PACKAGE)
+                || packageName.equals(JACKSON_DATABIND_ANNOTATION_PACKAGE)) {
+                throw new UnsupportedModelException("@" + annotationType.getSimpleName() + " on "
+                    + element.getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Checks that a type can be written in the generated code, which is in the package of the model.
+     */
+    private static void checkType(TypeMirror type, VariableElement field) throws UnsupportedModelException {
+        if (type.getKind().isPrimitive()) {
+            return;
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            checkType(((ArrayType) type).getComponentType(), field);
+
+            return;
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new UnsupportedModelException("field " + field.getSimpleName() + " of type " + type);
+        }
+
+        for (Element current = ((DeclaredType) type).asElement(); current instanceof TypeElement;
+             current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedModelException("field " + field.getSimpleName() + " of private type "
+                    + type);
+            }
+        }
+
+        for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+            checkType(typeArgument, field);
+        }
+    }
+
+    private static boolean isIgnored(VariableElement field) {
+        final AnnotationMirror ignore = findAnnotation(field, JSON_IGNORE);
+
+        if (ignore == null) {
+            return false;
+        }
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> attribute
+            : ignore.getElementValues().entrySet()) {
+            if (attribute.getKey().getSimpleName().contentEquals("value")) {
+                return Boolean.TRUE.equals(attribute.getValue().getValue());
+            }
+        }
+
+        return true;
+    }
+
+    private static String propertyName(VariableElement field) {
+        final String name = stringAttribute(findAnnotation(field, JSON_PROPERTY));
+
+        return name == null || name.isEmpty() ? field.getSimpleName().toString() : name;
+    }
+
+    private static String headerCollectionPrefix(VariableElement field, Elements elements, Types types)
+        throws UnsupportedModelException {
+        final TypeElement hashMap = elements.getTypeElement("java.util.HashMap");
+        final TypeMirror string = elements.getTypeElement("java.lang.String").asType();
+        final TypeMirror stringMap = types.getDeclaredType(hashMap, string, string);
+
+        if (!types.isAssignable(stringMap, field.asType())) {
+            throw new UnsupportedModelException("header collection " + field.getSimpleName()
+                + " is not a Map<String, String>");
+        }
+
+        final String prefix = stringAttribute(findAnnotation(field, HEADER_COLLECTION));
+
+        if (prefix == null || prefix.isEmpty()) {
+            throw new UnsupportedModelException("header collection " + field.getSimpleName() + " has no prefix");
+        }
+
+        return prefix;
+    }
+
+    /**
+     * Finds the getter or setter of a private field, such as {@code getName()} or {@code setName(String)}.
+     */
+    private static String findAccessor(TypeElement element, VariableElement field, Types types, boolean getter)
+        throws UnsupportedModelException {
+        final String fieldName = field.getSimpleName().toString();
+        final String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        final boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+
+        for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+            final Set<Modifier> modifiers = method.getModifiers();
+            final String name = method.getSimpleName().toString();
+
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            if (getter) {
+                if ((name.equals("get" + capitalized) || (isBoolean && name.equals("is" + capitalized)))
+                    && method.getParameters().isEmpty()
+                    && types.isSameType(method.getReturnType(), field.asType())) {
+                    return name;
+                }
+            } else if (name.equals("set" + capitalized) && method.getParameters().size() == 1
+                && types.isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                return name;
+            }
+        }
+
+        throw new UnsupportedModelException("private field " + fieldName + " has no " + (getter ? "getter"
+            : "setter"));
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName) != null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    private static String stringAttribute(AnnotationMirror annotation) {
+        if (annotation == null) {
+            return null;
+        }
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> attribute
+            : annotation.getElementValues().entrySet()) {
+            if (attribute.getKey().getSimpleName().contentEquals("value")) {
+                return (String) attribute.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * A property of a model, backed by a field.
+     */
+    static final class Property {
+        final VariableElement field;
+        final String name;
+        final List<String> path;
+        String getter;
+        String setter;
+        String headerCollectionPrefix;
+
+        Property(VariableElement field, String name, boolean flatten) {
+            this.field = field;
+            this.name = name;
+            this.path = flatten ? splitPath(name) : Collections.singletonList(name);
+        }
+
+        TypeMirror type() {
+            return field.asType();
+        }
+
+        /**
+         * Gets the name of the property in the JSON object holding it.
+         */
+        String leafName() {
+            return path.get(path.size() - 1);
+        }
+
+        /**
+         * Splits the name of a property of a {@code JsonFlatten} class on its dots, except the escaped ones.
+         */
+        private static List<String> splitPath(String name) {
+            final List<String> path = new ArrayList<>();
+            final StringBuilder segment = new StringBuilder();
+
+            for (int i = 0; i < name.length(); i++) {
+                final char c = name.charAt(i);
+
+                if (c == '\\' && i + 1 < name.length() && name.charAt(i + 1) == '.') {
+                    segment.append('.');
+                    i++;
+                } else if (c == '.') {
+                    path.add(segment.toString());
+                    segment.setLength(0);
+                } else {
+                    segment.append(c);
+                }
+            }
+
+            path.add(segment.toString());
+
+            return path;
+        }
+    }
+
+    /**
+     * A JSON object of a model, which is the model itself or an object nested by {@code JsonFlatten}.
+     */
+    static final class Node {
+        final String name;
+        final List<Object> children = new ArrayList<>();
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a property to this node, or to the nested node of its path at the given depth.
+         */
+        void add(Property property, int depth) throws UnsupportedModelException {
+            final String segment = property.path.get(depth);
+            Node node = null;
+
+            for (Object child : children) {
+                if (child instanceof Node && ((Node) child).name.equals(segment)) {
+                    node = (Node) child;
+                } else if (child instanceof Property && ((Property) child).path.get(depth).equals(segment)) {
+                    throw new UnsupportedModelException("property " + property.name + " conflicts with property "
+                        + ((Property) child).name);
+                }
+            }
+
+            if (depth == property.path.size() - 1) {
+                if (node != null) {
+                    throw new UnsupportedModelException("property " + property.name + " conflicts with a nested "
+                        + "object");
+                }
+
+                children.add(property);
+
+                return;
+            }
+
+            if (node == null) {
+                node = new Node(segment);
+                children.add(node);
+            }
+
+            node.add(property, depth + 1);
+        }
+    }
+}
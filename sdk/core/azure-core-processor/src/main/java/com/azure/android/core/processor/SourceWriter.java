@@ -0,0 +1,668 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Writes the sources of the generated serializers, deserializers and of the class registering them.
+ * <p>
+ * Types of the models and of their fields are written with their qualified names, so the generated code does not
+ * depend on the imports of the model sources.
+ */
+final class SourceWriter {
+    static final String SERIALIZER_PACKAGE = "com.azure.android.core.internal.util.serializer";
+    static final String SERIALIZERS_INTERFACE = SERIALIZER_PACKAGE + ".GeneratedSerializers";
+    static final String SERIALIZER_SUFFIX = "_JsonSerializer";
+    static final String DESERIALIZER_SUFFIX = "_JsonDeserializer";
+
+    private static final String HEADER = "// Generated by the azure-core-processor annotation processor, do not edit.";
+
+    private final StringBuilder source = new StringBuilder();
+
+    private SourceWriter() {
+    }
+
+    /**
+     * Writes the serializer of a model.
+     *
+     * @param model The model.
+     * @return The source of the serializer.
+     */
+    static String serializer(ModelClass model) {
+        final SourceWriter writer = new SourceWriter();
+        final String className = model.generatedName + SERIALIZER_SUFFIX;
+
+        writer.header(model.packageName)
+            .imports(model.packageName, "GeneratedJsonSerializer")
+            .line("import com.fasterxml.jackson.core.JsonGenerator;")
+            .line("import com.fasterxml.jackson.databind.SerializerProvider;")
+            .line("")
+            .line("import java.io.IOException;")
+            .line("")
+            .line("/**")
+            .line(" * Serializer of {@link " + model.qualifiedName + "}.")
+            .line(" */")
+            .line("public final class " + className + " extends GeneratedJsonSerializer<" + model.qualifiedName
+                + "> {")
+            .line("    private static final long serialVersionUID = 1L;")
+            .line("")
+            .line("    public " + className + "() {")
+            .line("        super(" + model.qualifiedName + ".class);")
+            .line("    }")
+            .line("")
+            .line("    @Override")
+            .line("    protected void serializeProperties(" + model.qualifiedName + " value, JsonGenerator generator,")
+            .line("        SerializerProvider provider) throws IOException {");
+
+        for (int i = 0; i < model.properties.size(); i++) {
+            final ModelClass.Property property = model.properties.get(i);
+
+            writer.line("        final " + typeName(property.type()) + " value" + i + " = value."
+                + (property.getter == null ? property.field.getSimpleName() : property.getter + "()") + ";");
+        }
+
+        if (!model.properties.isEmpty()) {
+            writer.line("");
+        }
+
+        writer.writeNode(model, model.root, "        ")
+            .line("    }")
+            .line("}");
+
+        return writer.source.toString();
+    }
+
+    /**
+     * Writes the deserializer of a model.
+     *
+     * @param model The model.
+     * @return The source of the deserializer.
+     */
+    static String deserializer(ModelClass model) {
+        final SourceWriter writer = new SourceWriter();
+        final String className = model.generatedName + DESERIALIZER_SUFFIX;
+        final List<ModelClass.Property> readProperties = model.readProperties();
+        final List<ModelClass.Property> headerCollections = model.headerCollections();
+        final List<ModelClass.Node> nodes = new ArrayList<>();
+
+        collectNodes(model.root, nodes);
+
+        writer.header(model.packageName)
+            .imports(model.packageName, "GeneratedJsonDeserializer")
+            .line("import com.fasterxml.jackson.core.JsonParser;")
+            .line("import com.fasterxml.jackson.core.JsonToken;")
+            .line("import com.fasterxml.jackson.databind.DeserializationContext;")
+            .line("import com.fasterxml.jackson.databind.JavaType;")
+            .line("import com.fasterxml.jackson.databind.MapperFeature;")
+            .line("import com.fasterxml.jackson.databind.type.TypeFactory;")
+            .line("")
+            .line("import java.io.IOException;")
+            .line("")
+            .line("/**")
+            .line(" * Deserializer of {@link " + model.qualifiedName + "}.")
+            .line(" */")
+            .line("public final class " + className + " extends GeneratedJsonDeserializer<" + model.qualifiedName
+                + "> {")
+            .line("    private static final long serialVersionUID = 1L;")
+            .line("")
+            .line("    public " + className + "() {")
+            .line("        super(" + model.qualifiedName + ".class, " + readProperties.size() + ");")
+            .line("    }")
+            .line("")
+            .line("    @Override")
+            .line("    protected GeneratedJsonDeserializer<" + model.qualifiedName + "> newInstance() {")
+            .line("        return new " + className + "();")
+            .line("    }")
+            .line("")
+            .line("    @Override")
+            .line("    protected JavaType constructType(int index, TypeFactory typeFactory) {")
+            .line("        switch (index) {");
+
+        for (int i = 0; i < readProperties.size(); i++) {
+            writer.line("            case " + i + ":")
+                .line("                return " + javaType(readProperties.get(i).type()) + ";");
+        }
+
+        writer.line("            default:")
+            .line("                throw new java.lang.IndexOutOfBoundsException(java.lang.String.valueOf(index));")
+            .line("        }")
+            .line("    }")
+            .line("")
+            .line("    @Override")
+            .line("    @java.lang.SuppressWarnings(\"unchecked\")")
+            .line("    protected " + model.qualifiedName + " deserializeProperties(JsonParser parser,")
+            .line("        DeserializationContext context) throws IOException {")
+            .line("        final " + model.qualifiedName + " value = new " + model.qualifiedName + "();")
+            .line("        final boolean ignoreCase =")
+            .line("            context.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES);");
+
+        for (int i = 0; i < headerCollections.size(); i++) {
+            writer.line("        final java.util.HashMap<java.lang.String, java.lang.String> headerCollection" + i
+                + " = new java.util.HashMap<>();");
+        }
+
+        writer.line("")
+            .line("        for (JsonToken token = parser.getCurrentToken(); token == JsonToken.FIELD_NAME;")
+            .line("             token = parser.nextToken()) {")
+            .line("            final java.lang.String name = parser.getCurrentName();")
+            .line("")
+            .line("            parser.nextToken();")
+            .line("");
+
+        for (int i = 0; i < headerCollections.size(); i++) {
+            final String prefix = headerCollections.get(i).headerCollectionPrefix;
+
+            writer.line("            if (name.regionMatches(true, 0, " + literal(prefix) + ", 0, " + prefix.length()
+                + ")) {")
+                .line("                headerCollection" + i + ".put(name.substring(" + prefix.length()
+                    + "), parser.getValueAsString());")
+                .line("")
+                .line("                continue;")
+                .line("            }")
+                .line("");
+        }
+
+        writer.readSwitch(model.root, nodes, readProperties, "            ")
+            .line("        }")
+            .line("");
+
+        for (int i = 0; i < headerCollections.size(); i++) {
+            writer.line("        " + assignment(headerCollections.get(i), "headerCollection" + i));
+        }
+
+        if (!headerCollections.isEmpty()) {
+            writer.line("");
+        }
+
+        writer.line("        return value;")
+            .line("    }");
+
+        for (int i = 1; i < nodes.size(); i++) {
+            writer.line("")
+                .line("    @java.lang.SuppressWarnings(\"unchecked\")")
+                .line("    private void readObject" + i + "(JsonParser parser, DeserializationContext context,")
+                .line("        " + model.qualifiedName + " value, boolean ignoreCase) throws IOException {")
+                .line("        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {")
+                .line("            parser.skipChildren();")
+                .line("")
+                .line("            return;")
+                .line("        }")
+                .line("")
+                .line("        for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME;")
+                .line("             token = parser.nextToken()) {")
+                .line("            final java.lang.String name = parser.getCurrentName();")
+                .line("")
+                .line("            parser.nextToken();")
+                .line("")
+                .readSwitch(nodes.get(i), nodes, readProperties, "            ")
+                .line("        }")
+                .line("    }");
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            writer.indexOf(nodes.get(i), i, nodes, readProperties);
+        }
+
+        writer.line("}");
+
+        return writer.source.toString();
+    }
+
+    /**
+     * Writes the class registering the generated serializers and deserializers.
+     *
+     * @param packageName The package of the class.
+     * @param simpleName  The simple name of the class.
+     * @param models      The models with generated serializers and deserializers.
+     * @return The source of the class.
+     */
+    static String serializers(String packageName, String simpleName, List<ModelClass> models) {
+        final SourceWriter writer = new SourceWriter();
+
+        writer.header(packageName)
+            .line("import " + SERIALIZER_PACKAGE + ".GeneratedJsonDeserializer;")
+            .line("import " + SERIALIZER_PACKAGE + ".GeneratedJsonSerializer;")
+            .line("import " + SERIALIZERS_INTERFACE + ";")
+            .line("")
+            .line("import java.util.Arrays;")
+            .line("import java.util.List;")
+            .line("")
+            .line("/**")
+            .line(" * The generated serializers and deserializers of this module, loaded as a service.")
+            .line(" */")
+            .line("public final class " + simpleName + " implements GeneratedSerializers {")
+            .line("    @Override")
+            .line("    public List<GeneratedJsonSerializer<?>> getSerializers() {")
+            .line("        return Arrays.<GeneratedJsonSerializer<?>>asList(");
+
+        writer.instances(models, SERIALIZER_SUFFIX)
+            .line("    }")
+            .line("")
+            .line("    @Override")
+            .line("    public List<GeneratedJsonDeserializer<?>> getDeserializers() {")
+            .line("        return Arrays.<GeneratedJsonDeserializer<?>>asList(");
+
+        writer.instances(models, DESERIALIZER_SUFFIX)
+            .line("    }")
+            .line("}");
+
+        return writer.source.toString();
+    }
+
+    private SourceWriter header(String packageName) {
+        line(HEADER).line("");
+
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";").line("");
+        }
+
+        return this;
+    }
+
+    /**
+     * Imports a class of the serializer package, unless the generated class is in that package.
+     */
+    private SourceWriter imports(String packageName, String simpleName) {
+        if (packageName.equals(SERIALIZER_PACKAGE)) {
+            return this;
+        }
+
+        return line("import " + SERIALIZER_PACKAGE + "." + simpleName + ";");
+    }
+
+    private SourceWriter line(String line) {
+        source.append(line).append('\n');
+
+        return this;
+    }
+
+    private SourceWriter instances(List<ModelClass> models, String suffix) {
+        for (int i = 0; i < models.size(); i++) {
+            final ModelClass model = models.get(i);
+            final String prefix = model.packageName.isEmpty() ? "" : model.packageName + ".";
+
+            line("            new " + prefix + model.generatedName + suffix + "()"
+                + (i == models.size() - 1 ? ");" : ","));
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the properties of a JSON object. Nested objects are only written if one of their properties is.
+     */
+    private SourceWriter writeNode(ModelClass model, ModelClass.Node node, String indent) {
+        for (Object child : node.children) {
+            if (child instanceof ModelClass.Property) {
+                final ModelClass.Property property = (ModelClass.Property) child;
+                final String value = "value" + model.properties.indexOf(property);
+
+                if (property.type().getKind().isPrimitive()) {
+                    line(indent + writeStatement(property, value));
+                } else {
+                    line(indent + "if (" + value + " != null) {")
+                        .line(indent + "    " + writeStatement(property, value))
+                        .line(indent + "}");
+                }
+
+                line("");
+            } else {
+                final ModelClass.Node nested = (ModelClass.Node) child;
+                final String condition = presence(model, nested);
+                final String nestedIndent = condition == null ? indent : indent + "    ";
+
+                if (condition != null) {
+                    line(indent + "if (" + condition + ") {");
+                }
+
+                line(nestedIndent + "generator.writeObjectFieldStart(" + literal(nested.name) + ");")
+                    .line("")
+                    .writeNode(model, nested, nestedIndent)
+                    .line("")
+                    .line(nestedIndent + "generator.writeEndObject();");
+
+                if (condition != null) {
+                    line(indent + "}");
+                }
+
+                line("");
+            }
+        }
+
+        // Drop the blank line following the last property.
+        if (!node.children.isEmpty()) {
+            source.setLength(source.length() - 1);
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the condition under which a nested object has a property to write, {@code null} if it always has one.
+     */
+    private static String presence(ModelClass model, ModelClass.Node node) {
+        final List<String> conditions = new ArrayList<>();
+
+        for (ModelClass.Property property : leaves(node, new ArrayList<ModelClass.Property>())) {
+            if (property.type().getKind().isPrimitive()) {
+                return null;
+            }
+
+            conditions.add("value" + model.properties.indexOf(property) + " != null");
+        }
+
+        final StringBuilder condition = new StringBuilder();
+
+        for (String propertyCondition : conditions) {
+            if (condition.length() > 0) {
+                condition.append(" || ");
+            }
+
+            condition.append(propertyCondition);
+        }
+
+        return condition.toString();
+    }
+
+    private static List<ModelClass.Property> leaves(ModelClass.Node node, List<ModelClass.Property> leaves) {
+        for (Object child : node.children) {
+            if (child instanceof ModelClass.Property) {
+                leaves.add((ModelClass.Property) child);
+            } else {
+                leaves((ModelClass.Node) child, leaves);
+            }
+        }
+
+        return leaves;
+    }
+
+    private static String writeStatement(ModelClass.Property property, String value) {
+        final String name = literal(property.leafName());
+
+        switch (unboxedKind(property.type())) {
+            case BOOLEAN:
+                return "generator.writeBooleanField(" + name + ", " + value + ");";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "generator.writeNumberField(" + name + ", " + value + ");";
+            case CHAR:
+                return "generator.writeStringField(" + name + ", java.lang.String.valueOf(" + value + "));";
+            default:
+                if (isString(property.type())) {
+                    return "generator.writeStringField(" + name + ", " + value + ");";
+                }
+
+                return "provider.defaultSerializeField(" + name + ", " + value + ", generator);";
+        }
+    }
+
+    /**
+     * Writes the dispatch of a property read from a JSON object to its field, or to a nested object.
+     */
+    private SourceWriter readSwitch(ModelClass.Node node, List<ModelClass.Node> nodes,
+                                    List<ModelClass.Property> readProperties, String indent) {
+        final int nodeIndex = nodes.indexOf(node);
+
+        line(indent + "switch (indexOf" + nodeIndex + "(name, ignoreCase)) {");
+
+        for (Object child : node.children) {
+            if (child instanceof ModelClass.Property) {
+                final ModelClass.Property property = (ModelClass.Property) child;
+                final int index = readProperties.indexOf(property);
+
+                if (index < 0) {
+                    // Header collections are filled from prefixed names instead.
+                    continue;
+                }
+
+                final String read = isString(property.type())
+                    ? "readString(parser, context, " + index + ")"
+                    : "(" + boxedTypeName(property.type()) + ") readValue(parser, context, " + index + ")";
+
+                line(indent + "    case " + index + ":")
+                    .line(indent + "        " + assignment(property, read))
+                    .line(indent + "        break;");
+            } else {
+                final int nestedIndex = nodes.indexOf(child);
+
+                line(indent + "    case " + (readProperties.size() + nestedIndex) + ":")
+                    .line(indent + "        readObject" + nestedIndex + "(parser, context, value, ignoreCase);")
+                    .line(indent + "        break;");
+            }
+        }
+
+        return line(indent + "    default:")
+            .line(indent + "        handleUnknownProperty(parser, context, value, name);")
+            .line(indent + "}");
+    }
+
+    /**
+     * Writes the lookup of the properties of a JSON object by name, returning the index of the property or of the
+     * nested object, or {@code -1} for an unknown name.
+     */
+    private SourceWriter indexOf(ModelClass.Node node, int nodeIndex, List<ModelClass.Node> nodes,
+                                 List<ModelClass.Property> readProperties) {
+        final List<String> names = new ArrayList<>();
+        final List<Integer> indexes = new ArrayList<>();
+
+        for (Object child : node.children) {
+            if (child instanceof ModelClass.Property) {
+                final int index = readProperties.indexOf(child);
+
+                if (index >= 0) {
+                    names.add(((ModelClass.Property) child).leafName());
+                    indexes.add(index);
+                }
+            } else {
+                names.add(((ModelClass.Node) child).name);
+                indexes.add(readProperties.size() + nodes.indexOf(child));
+            }
+        }
+
+        line("")
+            .line("    private static int indexOf" + nodeIndex + "(java.lang.String name, boolean ignoreCase) {");
+
+        if (names.isEmpty()) {
+            return line("        return -1;")
+                .line("    }");
+        }
+
+        line("        switch (name) {");
+
+        for (int i = 0; i < names.size(); i++) {
+            line("            case " + literal(names.get(i)) + ":")
+                .line("                return " + indexes.get(i) + ";");
+        }
+
+        line("            default:")
+            .line("                break;")
+            .line("        }")
+            .line("")
+            .line("        if (!ignoreCase) {")
+            .line("            return -1;")
+            .line("        }")
+            .line("")
+            .line("        switch (name.toLowerCase(java.util.Locale.ROOT)) {");
+
+        for (int i = 0; i < names.size(); i++) {
+            line("            case " + literal(names.get(i).toLowerCase(Locale.ROOT)) + ":")
+                .line("                return " + indexes.get(i) + ";");
+        }
+
+        return line("            default:")
+            .line("                return -1;")
+            .line("        }")
+            .line("    }");
+    }
+
+    private static void collectNodes(ModelClass.Node node, List<ModelClass.Node> nodes) {
+        nodes.add(node);
+
+        for (Object child : node.children) {
+            if (child instanceof ModelClass.Node) {
+                collectNodes((ModelClass.Node) child, nodes);
+            }
+        }
+    }
+
+    private static String assignment(ModelClass.Property property, String value) {
+        if (property.setter != null) {
+            return "value." + property.setter + "(" + value + ");";
+        }
+
+        return "value." + property.field.getSimpleName() + " = " + value + ";";
+    }
+
+    /**
+     * Writes the construction of the {@code JavaType} of a field, from class literals rather than reflection.
+     */
+    private static String javaType(TypeMirror type) {
+        if (!hasTypeArguments(type)) {
+            return "typeFactory.constructType(" + typeName(type) + ".class)";
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "typeFactory.constructArrayType(" + javaType(((ArrayType) type).getComponentType()) + ")";
+        }
+
+        final DeclaredType declaredType = (DeclaredType) type;
+        final StringBuilder javaType = new StringBuilder("typeFactory.constructParametricType(")
+            .append(((TypeElement) declaredType.asElement()).getQualifiedName())
+            .append(".class");
+
+        for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+            javaType.append(", ").append(javaType(typeArgument));
+        }
+
+        return javaType.append(')').toString();
+    }
+
+    private static boolean hasTypeArguments(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return hasTypeArguments(((ArrayType) type).getComponentType());
+        }
+
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * Writes a type with qualified names, without the type annotations that {@code TypeMirror.toString()} includes.
+     */
+    private static String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+
+        final DeclaredType declaredType = (DeclaredType) type;
+        final StringBuilder name = new StringBuilder(((TypeElement) declaredType.asElement()).getQualifiedName());
+
+        if (!declaredType.getTypeArguments().isEmpty()) {
+            name.append('<');
+
+            for (int i = 0; i < declaredType.getTypeArguments().size(); i++) {
+                name.append(i == 0 ? "" : ", ").append(typeName(declaredType.getTypeArguments().get(i)));
+            }
+
+            name.append('>');
+        }
+
+        return name.toString();
+    }
+
+    /**
+     * Writes a type, with the wrapper class of primitive types.
+     */
+    private static String boxedTypeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "java.lang.Boolean";
+            case BYTE:
+                return "java.lang.Byte";
+            case SHORT:
+                return "java.lang.Short";
+            case INT:
+                return "java.lang.Integer";
+            case LONG:
+                return "java.lang.Long";
+            case FLOAT:
+                return "java.lang.Float";
+            case DOUBLE:
+                return "java.lang.Double";
+            case CHAR:
+                return "java.lang.Character";
+            default:
+                return typeName(type);
+        }
+    }
+
+    private static TypeKind unboxedKind(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() != TypeKind.DECLARED) {
+            return type.getKind();
+        }
+
+        switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+            case "java.lang.Boolean":
+                return TypeKind.BOOLEAN;
+            case "java.lang.Byte":
+                return TypeKind.BYTE;
+            case "java.lang.Short":
+                return TypeKind.SHORT;
+            case "java.lang.Integer":
+                return TypeKind.INT;
+            case "java.lang.Long":
+                return TypeKind.LONG;
+            case "java.lang.Float":
+                return TypeKind.FLOAT;
+            case "java.lang.Double":
+                return TypeKind.DOUBLE;
+            case "java.lang.Character":
+                return TypeKind.CHAR;
+            default:
+                return TypeKind.DECLARED;
+        }
+    }
+
+    private static boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+            && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    /**
+     * Writes a string literal.
+     */
+    static String literal(String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
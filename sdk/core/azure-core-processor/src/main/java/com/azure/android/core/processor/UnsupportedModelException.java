@@ -0,0 +1,21 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.processor;
+
+/**
+ * Thrown when a model class uses a feature that the generated serializers do not support, in which case the class is
+ * left to Jackson.
+ */
+final class UnsupportedModelException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates an exception.
+     *
+     * @param reason The unsupported feature.
+     */
+    UnsupportedModelException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,182 @@
+package com.azure.android.core.processor;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+public class JsonSerializerProcessorTest {
+    private static final String HEADER_COLLECTION = "package com.azure.android.core.annotation;\n"
+        + "public @interface HeaderCollection { String value(); }\n";
+    private static final String JSON_FLATTEN = "package com.azure.android.core.annotation;\n"
+        + "public @interface JsonFlatten { }\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @Test
+    public void generatesPairsAndProvider() throws IOException {
+        File output = process(Collections.<String>emptyList(),
+            "package com.example.models;\n"
+                + "import com.fasterxml.jackson.annotation.JsonProperty;\n"
+                + "public class BlobItem {\n"
+                + "    @JsonProperty(\"Name\") String name;\n"
+                + "    @JsonProperty(\"Tags\") java.util.List<java.util.Map<String, Integer>> tags;\n"
+                + "    public static class Properties { @JsonProperty(\"Etag\") String etag; }\n"
+                + "}\n",
+            "package com.example.models.headers;\n"
+                + "import com.azure.android.core.annotation.HeaderCollection;\n"
+                + "public class BlobHeaders {\n"
+                + "    @HeaderCollection(\"x-ms-meta-\") private java.util.Map<String, String> metadata;\n"
+                + "    void setMetadata(java.util.Map<String, String> metadata) { this.metadata = metadata; }\n"
+                + "    java.util.Map<String, String> getMetadata() { return metadata; }\n"
+                + "}\n");
+
+        assertGenerated(output, "com/example/models/BlobItem_JsonSerializer.java");
+        assertGenerated(output, "com/example/models/BlobItem_JsonDeserializer.java");
+        assertGenerated(output, "com/example/models/BlobItem_Properties_JsonSerializer.java");
+        assertGenerated(output, "com/example/models/headers/BlobHeaders_JsonDeserializer.java");
+
+        String deserializer = read(output, "com/example/models/BlobItem_JsonDeserializer.java");
+
+        Assert.assertTrue(deserializer, deserializer.contains("typeFactory.constructParametricType("
+            + "java.util.List.class, typeFactory.constructParametricType(java.util.Map.class, "
+            + "typeFactory.constructType(java.lang.String.class), "
+            + "typeFactory.constructType(java.lang.Integer.class)))"));
+        Assert.assertTrue(read(output, "com/example/models/headers/BlobHeaders_JsonDeserializer.java")
+            .contains("value.setMetadata(headerCollection0);"));
+
+        String provider = read(output, "com/example/models/GeneratedJsonSerializers.java");
+
+        Assert.assertTrue(provider, provider.contains("new com.example.models.headers.BlobHeaders_JsonSerializer()"));
+        Assert.assertEquals("com.example.models.GeneratedJsonSerializers\n",
+            read(output, "META-INF/services/com.azure.android.core.internal.util.serializer.GeneratedSerializers"));
+    }
+
+    @Test
+    public void providerNameCanBeConfigured() throws IOException {
+        File output = process(Collections.singletonList("-A" + JsonSerializerProcessor.PROVIDER_OPTION
+                + "=com.example.BlobSerializers"),
+            "package com.example.models;\n"
+                + "public class Container { @com.fasterxml.jackson.annotation.JsonProperty(\"Name\") String name; }\n");
+
+        assertGenerated(output, "com/example/BlobSerializers.java");
+        Assert.assertEquals("com.example.BlobSerializers\n",
+            read(output, "META-INF/services/com.azure.android.core.internal.util.serializer.GeneratedSerializers"));
+    }
+
+    @Test
+    public void flattenedPropertiesAreNested() throws IOException {
+        File output = process(Collections.<String>emptyList(),
+            "package com.example.models;\n"
+                + "import com.fasterxml.jackson.annotation.JsonProperty;\n"
+                + "@com.azure.android.core.annotation.JsonFlatten\n"
+                + "public class Resource {\n"
+                + "    @JsonProperty(\"properties.size\") int size;\n"
+                + "    @JsonProperty(\"odata\\\\.type\") String type;\n"
+                + "}\n");
+        String serializer = read(output, "com/example/models/Resource_JsonSerializer.java");
+
+        Assert.assertTrue(serializer, serializer.contains("generator.writeObjectFieldStart(\"properties\");"));
+        Assert.assertTrue(serializer, serializer.contains("generator.writeNumberField(\"size\", value0);"));
+        Assert.assertTrue(serializer, serializer.contains("generator.writeStringField(\"odata.type\", value1);"));
+    }
+
+    @Test
+    public void unsupportedClassesAreLeftToJackson() throws IOException {
+        File output = process(Collections.<String>emptyList(),
+            "package com.example.models;\n"
+                + "import com.fasterxml.jackson.annotation.JsonProperty;\n"
+                + "import com.fasterxml.jackson.annotation.JsonInclude;\n"
+                + "@JsonInclude(JsonInclude.Include.ALWAYS)\n"
+                + "public class Included { @JsonProperty(\"Name\") String name; }\n",
+            "package com.example.models;\n"
+                + "import com.fasterxml.jackson.annotation.JsonProperty;\n"
+                + "public class Hidden { @JsonProperty(\"Name\") private String name; }\n",
+            "package com.example.models;\n"
+                + "public class Generic<T> { @com.fasterxml.jackson.annotation.JsonProperty(\"Value\") T value; }\n");
+        List<String> notes = new ArrayList<>();
+
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            Assert.assertNotEquals(diagnostic.toString(), Diagnostic.Kind.ERROR, diagnostic.getKind());
+
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+                notes.add(diagnostic.getMessage(null));
+            }
+        }
+
+        Assert.assertTrue(notes.toString(), notes.contains("Not generating JSON serializers for "
+            + "com.example.models.Included: @JsonInclude on Included."));
+        Assert.assertTrue(notes.toString(), notes.contains("Not generating JSON serializers for "
+            + "com.example.models.Hidden: private field name has no getter."));
+        Assert.assertTrue(notes.toString(), notes.contains("Not generating JSON serializers for "
+            + "com.example.models.Generic: generic class."));
+        Assert.assertFalse(new File(output, "com/example/models/GeneratedJsonSerializers.java").exists());
+    }
+
+    private File process(List<String> options, String... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final File output = temporaryFolder.newFolder();
+        final List<JavaFileObject> compilationUnits = new ArrayList<>();
+        final List<String> arguments = new ArrayList<>(Arrays.asList("-proc:only", "-s", output.getPath(), "-d",
+            output.getPath(), "-classpath", System.getProperty("java.class.path")));
+
+        arguments.addAll(options);
+        compilationUnits.add(source(HEADER_COLLECTION));
+        compilationUnits.add(source(JSON_FLATTEN));
+
+        for (String source : sources) {
+            compilationUnits.add(source(source));
+        }
+
+        final JavaCompiler.CompilationTask task =
+            compiler.getTask(null, null, diagnostics, arguments, null, compilationUnits);
+
+        task.setProcessors(Collections.singletonList(new JsonSerializerProcessor()));
+        task.call();
+
+        return output;
+    }
+
+    private static JavaFileObject source(String source) {
+        final String packageName = source.substring("package ".length(), source.indexOf(';'));
+        final int classIndex = Math.max(source.indexOf("class "), source.indexOf("@interface "));
+        final String afterKeyword = source.substring(source.indexOf(' ', classIndex) + 1);
+        final String simpleName = afterKeyword.split("[ <{]")[0];
+        final URI uri = URI.create("string:///" + packageName.replace('.', '/') + "/" + simpleName + ".java");
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static void assertGenerated(File output, String path) {
+        Assert.assertTrue(path, new File(output, path).isFile());
+    }
+
+    private static String read(File output, String path) throws IOException {
+        return new String(Files.readAllBytes(new File(output, path).toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,6 @@
+# The serializers generated by azure-core-processor are loaded with ServiceLoader, which instantiates the class listed in
+# META-INF/services reflectively.
+-keep class * implements com.azure.android.core.internal.util.serializer.GeneratedSerializers {
+    public <init>();
+}
+-keepnames interface com.azure.android.core.internal.util.serializer.GeneratedSerializers
@@ -0,0 +1,49 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * A page of the items of a list operation, with the continuation token to retrieve the next page.
+ *
+ * @param <T> The type of the items.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String continuationToken;
+
+    /**
+     * Creates a Page.
+     *
+     * @param items             The items of the page.
+     * @param continuationToken The token to retrieve the next page, {@code null} or empty if this is the last page,
+     *                          e.g. the NextMarker of a Storage listing.
+     */
+    public Page(List<T> items, @Nullable String continuationToken) {
+        this.items = items;
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Gets the items of the page.
+     *
+     * @return The items.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the token to retrieve the next page.
+     *
+     * @return The continuation token, {@code null} or empty if this is the last page.
+     */
+    @Nullable
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+}
@@ -0,0 +1,294 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * Iterable over the items of a list operation whose pages are chained by continuation tokens, such as the NextMarker
+ * of Storage listings.
+ * <p>
+ * Pages are only retrieved as the items are iterated. Optionally, up to {@code prefetchPages} pages following the one
+ * being consumed are retrieved in the background, hiding the latency of each round trip while the current page is
+ * consumed. At most {@code prefetchPages} pages are held ahead of the consumer, whatever the number of pages.
+ * <p>
+ * Each call to {@link #iterator()} or {@link #iterableByPage()} starts over from the first page. Errors retrieving a
+ * page are thrown by the iterator as a {@link RuntimeException}, caused by the original {@link IOException} if any.
+ * Iterators are {@link CloseableIterator}s: closing an iterator that is abandoned before its last page stops
+ * retrieving pages ahead.
+ *
+ * @param <T> The type of the items.
+ */
+public class PagedIterable<T> implements Iterable<T> {
+    private final PageRetriever<T> pageRetriever;
+    private final int prefetchPages;
+    private final Executor executor;
+
+    /**
+     * Creates a {@link PagedIterable} retrieving each page when the previous one has been consumed.
+     *
+     * @param pageRetriever The function retrieving a page.
+     */
+    public PagedIterable(@NonNull PageRetriever<T> pageRetriever) {
+        this(pageRetriever, 0, null);
+    }
+
+    /**
+     * Creates a {@link PagedIterable} retrieving pages ahead of the one being consumed.
+     *
+     * @param pageRetriever The function retrieving a page.
+     * @param prefetchPages The number of pages to retrieve ahead of the one being consumed, {@code 0} to retrieve each
+     *                      page when the previous one has been consumed.
+     * @param executor      The executor retrieving pages ahead, required if {@code prefetchPages} is not {@code 0}.
+     */
+    public PagedIterable(@NonNull PageRetriever<T> pageRetriever, int prefetchPages, @Nullable Executor executor) {
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages must not be negative.");
+        }
+
+        if (prefetchPages > 0 && executor == null) {
+            throw new IllegalArgumentException("An executor is required to prefetch pages.");
+        }
+
+        this.pageRetriever = pageRetriever;
+        this.prefetchPages = prefetchPages;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets an iterable over the pages, as they are retrieved. Its iterators are {@link CloseableIterator}s.
+     *
+     * @return The iterable over the pages.
+     */
+    public Iterable<Page<T>> iterableByPage() {
+        return () -> new PageIterator<>(pageRetriever, prefetchPages, executor);
+    }
+
+    @NonNull
+    @Override
+    public CloseableIterator<T> iterator() {
+        return new ItemIterator<>(new PageIterator<>(pageRetriever, prefetchPages, executor));
+    }
+
+    /**
+     * Iterator that can be closed to stop retrieving pages when it is abandoned before the last page.
+     *
+     * @param <E> The type of the elements.
+     */
+    public interface CloseableIterator<E> extends Iterator<E>, Closeable {
+        /**
+         * Stops retrieving pages. Pages being retrieved are discarded, and the iterator has no more elements.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Retrieves a page of a list operation.
+     *
+     * @param <T> The type of the items.
+     */
+    public interface PageRetriever<T> {
+        /**
+         * Retrieves a page, typically by executing a Retrofit call.
+         *
+         * @param continuationToken The continuation token of the previous page, {@code null} for the first page.
+         * @return The page.
+         * @throws IOException If the page cannot be retrieved.
+         */
+        Page<T> getPage(@Nullable String continuationToken) throws IOException;
+    }
+
+    private static final class ItemIterator<T> implements CloseableIterator<T> {
+        private final PageIterator<T> pages;
+        private Iterator<T> items = Collections.<T>emptyList().iterator();
+
+        ItemIterator(PageIterator<T> pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // Pages can be empty while more pages follow.
+            while (!items.hasNext() && pages.hasNext()) {
+                items = pages.next().getItems().iterator();
+            }
+
+            return items.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return items.next();
+        }
+
+        @Override
+        public void close() {
+            items = Collections.<T>emptyList().iterator();
+            pages.close();
+        }
+    }
+
+    private static final class PageIterator<T> implements CloseableIterator<Page<T>> {
+        private final PageRetriever<T> pageRetriever;
+        private final int prefetchPages;
+        private final Executor executor;
+        private final ArrayDeque<Page<T>> readyPages = new ArrayDeque<>();
+        private String continuationToken;
+        private boolean lastPageRetrieved;
+        private boolean retrieving;
+        private boolean closed;
+        private Throwable failure;
+
+        PageIterator(PageRetriever<T> pageRetriever, int prefetchPages, Executor executor) {
+            this.pageRetriever = pageRetriever;
+            this.prefetchPages = prefetchPages;
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+
+            if (prefetchPages == 0) {
+                if (readyPages.isEmpty() && !lastPageRetrieved && failure == null) {
+                    retrieve();
+                }
+            } else {
+                retrieveAhead();
+
+                boolean interrupted = false;
+
+                while (readyPages.isEmpty() && failure == null && retrieving && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (!readyPages.isEmpty()) {
+                return true;
+            }
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+
+            if (failure != null) {
+                throw failure instanceof RuntimeException
+                    ? (RuntimeException) failure
+                    : new RuntimeException(failure);
+            }
+
+            return false;
+        }
+
+        @Override
+        public synchronized Page<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Page<T> page = readyPages.poll();
+
+            if (prefetchPages > 0) {
+                retrieveAhead();
+            }
+
+            return page;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            readyPages.clear();
+            notifyAll();
+        }
+
+        /**
+         * Starts retrieving the next page in the background if fewer than {@code prefetchPages} pages are ready.
+         * Pages are retrieved one after the other since each needs the continuation token of the previous one.
+         */
+        private void retrieveAhead() {
+            if (closed || retrieving || lastPageRetrieved || failure != null || readyPages.size() >= prefetchPages) {
+                return;
+            }
+
+            retrieving = true;
+
+            try {
+                executor.execute(this::retrieve);
+            } catch (RuntimeException e) {
+                retrieving = false;
+                failure = e;
+            }
+        }
+
+        private void retrieve() {
+            final String token;
+
+            synchronized (this) {
+                token = continuationToken;
+            }
+
+            Page<T> page = null;
+            Throwable error = null;
+
+            // Any outcome, including an Error, is recorded so a consumer waiting for this page is always woken up.
+            try {
+                page = pageRetriever.getPage(token);
+
+                if (page == null) {
+                    error = new NullPointerException("The page retriever returned no page.");
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                retrieving = false;
+
+                // Once the iterator is closed, the page or error is discarded.
+                if (!closed && error != null) {
+                    failure = error;
+                } else if (!closed) {
+                    final String nextToken = page.getContinuationToken();
+
+                    readyPages.add(page);
+                    continuationToken = nextToken;
+                    lastPageRetrieved = nextToken == null || nextToken.isEmpty();
+                }
+
+                try {
+                    if (prefetchPages > 0) {
+                        retrieveAhead();
+                    }
+                } finally {
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,443 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * Scheduler running asynchronous calls in order of their {@link RequestPriority} instead of the FIFO order of the
+ * OkHttp {@link okhttp3.Dispatcher}.
+ * <p>
+ * At most {@code maxRequests} calls run at the same time, of which {@code reservedInteractiveRequests} slots can only
+ * be used by {@link RequestPriority#INTERACTIVE} calls, so a burst of background transfers cannot delay user-facing
+ * calls. At most {@code maxRequestsPerHost} of them go to the same host, calls to a busy host wait while calls to
+ * other hosts, including lower priority ones, run. Calls scheduled here are executed synchronously on the scheduler's
+ * threads, so they are not subject to the dispatcher's limits. Synchronous calls made through {@link Call#execute()}
+ * are not scheduled.
+ * <p>
+ * The time calls spend queued is recorded per priority class and can be read through {@link #getQueueTimeStats}.
+ */
+public final class PriorityRequestScheduler {
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final int reservedInteractiveRequests;
+    private final ExecutorService executorService;
+    private final Deque<PrioritizedCall>[] readyCalls;
+    private final Map<String, Integer> runningCallsPerHost = new HashMap<>();
+    private final QueueTimeStats[] queueTimeStats;
+    private int runningCalls;
+    private boolean isShutdown;
+
+    /**
+     * Creates a {@link PriorityRequestScheduler} running at most 64 calls at the same time, 5 per host, 4 of which
+     * are reserved for interactive calls.
+     */
+    public PriorityRequestScheduler() {
+        this(64, 4);
+    }
+
+    /**
+     * Creates a {@link PriorityRequestScheduler} running at most 5 calls to the same host at the same time, as the
+     * OkHttp {@link okhttp3.Dispatcher} does by default.
+     *
+     * @param maxRequests                 The maximum number of calls running at the same time.
+     * @param reservedInteractiveRequests The number of running calls reserved for interactive calls.
+     */
+    public PriorityRequestScheduler(int maxRequests, int reservedInteractiveRequests) {
+        this(maxRequests, 5, reservedInteractiveRequests);
+    }
+
+    /**
+     * Creates a {@link PriorityRequestScheduler}.
+     *
+     * @param maxRequests                 The maximum number of calls running at the same time.
+     * @param maxRequestsPerHost          The maximum number of calls to the same host running at the same time.
+     * @param reservedInteractiveRequests The number of running calls reserved for interactive calls.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityRequestScheduler(int maxRequests, int maxRequestsPerHost, int reservedInteractiveRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests must be at least 1.");
+        }
+
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost must be at least 1.");
+        }
+
+        if (reservedInteractiveRequests < 0 || reservedInteractiveRequests >= maxRequests) {
+            throw new IllegalArgumentException("reservedInteractiveRequests must be between 0 and maxRequests - 1.");
+        }
+
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.reservedInteractiveRequests = reservedInteractiveRequests;
+        this.executorService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new SchedulerThreadFactory());
+        this.readyCalls = new Deque[PRIORITIES.length];
+        this.queueTimeStats = new QueueTimeStats[PRIORITIES.length];
+
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            this.readyCalls[i] = new ArrayDeque<>();
+            this.queueTimeStats[i] = new QueueTimeStats();
+        }
+    }
+
+    /**
+     * Creates a {@link Call.Factory} whose calls are created by the given client and enqueued on this scheduler.
+     *
+     * @param httpClient The client creating the underlying calls.
+     * @return The call factory.
+     */
+    public Call.Factory callFactory(@NonNull OkHttpClient httpClient) {
+        return request -> new PrioritizedCall(this, httpClient.newCall(request));
+    }
+
+    /**
+     * Gets the queue time statistics of a priority class.
+     *
+     * @param priority The priority class.
+     * @return A snapshot of the queue time statistics.
+     */
+    public synchronized QueueTimeStats getQueueTimeStats(@NonNull RequestPriority priority) {
+        return queueTimeStats[priority.ordinal()].copy();
+    }
+
+    /**
+     * Gets the number of calls waiting to run.
+     *
+     * @return The number of queued calls.
+     */
+    public synchronized int queuedCallsCount() {
+        int count = 0;
+
+        for (Deque<PrioritizedCall> calls : readyCalls) {
+            count += calls.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the number of calls currently running.
+     *
+     * @return The number of running calls.
+     */
+    public synchronized int runningCallsCount() {
+        return runningCalls;
+    }
+
+    /**
+     * Stops the scheduler's threads once the running calls complete. Calls still queued, or enqueued afterwards, are
+     * not run and fail with an {@link IOException}.
+     */
+    public void shutdown() {
+        final List<PrioritizedCall> queuedCalls = new ArrayList<>();
+
+        synchronized (this) {
+            isShutdown = true;
+
+            for (Deque<PrioritizedCall> calls : readyCalls) {
+                queuedCalls.addAll(calls);
+                calls.clear();
+            }
+        }
+
+        executorService.shutdown();
+
+        for (PrioritizedCall call : queuedCalls) {
+            call.callback.onFailure(call, new IOException("Scheduler was shut down."));
+        }
+    }
+
+    private void enqueue(PrioritizedCall call) {
+        final boolean rejected;
+
+        synchronized (this) {
+            rejected = isShutdown;
+
+            if (!rejected) {
+                call.enqueuedNanos = System.nanoTime();
+                readyCalls[call.priority.ordinal()].add(call);
+            }
+        }
+
+        if (rejected) {
+            call.callback.onFailure(call, new IOException("Scheduler was shut down."));
+        } else {
+            promoteAndExecute();
+        }
+    }
+
+    private void finished(PrioritizedCall call) {
+        synchronized (this) {
+            release(call);
+        }
+
+        promoteAndExecute();
+    }
+
+    private void release(PrioritizedCall call) {
+        final int hostCalls = runningCallsPerHost.get(call.host);
+
+        runningCalls--;
+
+        if (hostCalls == 1) {
+            runningCallsPerHost.remove(call.host);
+        } else {
+            runningCallsPerHost.put(call.host, hostCalls - 1);
+        }
+    }
+
+    private synchronized boolean remove(PrioritizedCall call) {
+        return readyCalls[call.priority.ordinal()].remove(call);
+    }
+
+    private void promoteAndExecute() {
+        while (true) {
+            final PrioritizedCall next;
+
+            synchronized (this) {
+                next = pollNext();
+
+                if (next == null) {
+                    return;
+                }
+
+                final Integer hostCalls = runningCallsPerHost.get(next.host);
+
+                runningCalls++;
+                runningCallsPerHost.put(next.host, hostCalls == null ? 1 : hostCalls + 1);
+                queueTimeStats[next.priority.ordinal()].record(System.nanoTime() - next.enqueuedNanos);
+            }
+
+            try {
+                executorService.execute(next::run);
+            } catch (RuntimeException e) {
+                // Calls rejected once the scheduler is shut down are failed one by one in this loop, rather than
+                // through finished(), which would recurse once per queued call.
+                synchronized (this) {
+                    release(next);
+                }
+
+                next.callback.onFailure(next, new IOException("Scheduler rejected the call.", e));
+            }
+        }
+    }
+
+    private PrioritizedCall pollNext() {
+        if (runningCalls >= maxRequests) {
+            return null;
+        }
+
+        for (RequestPriority priority : PRIORITIES) {
+            if (priority != RequestPriority.INTERACTIVE && runningCalls >= maxRequests - reservedInteractiveRequests) {
+                return null;
+            }
+
+            final Iterator<PrioritizedCall> calls = readyCalls[priority.ordinal()].iterator();
+
+            while (calls.hasNext()) {
+                final PrioritizedCall call = calls.next();
+                final Integer hostCalls = runningCallsPerHost.get(call.host);
+
+                if (hostCalls == null || hostCalls < maxRequestsPerHost) {
+                    calls.remove();
+
+                    return call;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Statistics of the time calls of a priority class spent queued before running.
+     */
+    public static final class QueueTimeStats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(long queueNanos) {
+            count++;
+            totalNanos += queueNanos;
+            maxNanos = Math.max(maxNanos, queueNanos);
+        }
+
+        private QueueTimeStats copy() {
+            QueueTimeStats copy = new QueueTimeStats();
+
+            copy.count = count;
+            copy.totalNanos = totalNanos;
+            copy.maxNanos = maxNanos;
+
+            return copy;
+        }
+
+        /**
+         * Gets the number of calls that left the queue.
+         *
+         * @return The number of calls.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the average time calls spent queued.
+         *
+         * @param unit The unit of the returned time.
+         * @return The average queue time.
+         */
+        public long getAverageQueueTime(@NonNull TimeUnit unit) {
+            return count == 0 ? 0 : unit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Gets the longest time a call spent queued.
+         *
+         * @param unit The unit of the returned time.
+         * @return The maximum queue time.
+         */
+        public long getMaxQueueTime(@NonNull TimeUnit unit) {
+            return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Call enqueued on the scheduler and executed synchronously on one of its threads.
+     */
+    private static final class PrioritizedCall implements Call {
+        private final PriorityRequestScheduler scheduler;
+        private final Call delegate;
+        private final RequestPriority priority;
+        private final String host;
+        private Callback callback;
+        private long enqueuedNanos;
+
+        PrioritizedCall(PriorityRequestScheduler scheduler, Call delegate) {
+            RequestPriority tagged = delegate.request().tag(RequestPriority.class);
+
+            this.scheduler = scheduler;
+            this.delegate = delegate;
+            this.priority = tagged == null ? RequestPriority.NORMAL : tagged;
+            this.host = delegate.request().url().host();
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            return delegate.execute();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback responseCallback) {
+            synchronized (this) {
+                if (callback != null) {
+                    throw new IllegalStateException("Already Executed");
+                }
+
+                callback = responseCallback;
+            }
+
+            scheduler.enqueue(this);
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+
+            if (scheduler.remove(this)) {
+                callback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            synchronized (this) {
+                return callback != null || delegate.isExecuted();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+
+        @NonNull
+        @Override
+        @SuppressWarnings("MethodDoesntCallSuperMethod")
+        public Call clone() {
+            return new PrioritizedCall(scheduler, delegate.clone());
+        }
+
+        private void run() {
+            try {
+                final Response response;
+
+                try {
+                    response = delegate.execute();
+                } catch (IOException e) {
+                    callback.onFailure(this, e);
+
+                    return;
+                }
+
+                try {
+                    callback.onResponse(this, response);
+                } catch (IOException ignored) {
+                    // Ignored, the response has already been delivered.
+                }
+            } finally {
+                scheduler.finished(this);
+            }
+        }
+    }
+
+    private static final class SchedulerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(runnable, "PriorityRequestScheduler-" + threadCount.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+/**
+ * Priority class of a request, used by {@link PriorityRequestScheduler} to decide which queued call runs next.
+ * <p>
+ * The priority is attached to a request as a tag, either with {@code Request.Builder#tag(RequestPriority.class,
+ * priority)} or by declaring a Retrofit {@code @Tag RequestPriority} parameter on an API method. Requests without a
+ * priority tag are scheduled as {@link #NORMAL}.
+ */
+public enum RequestPriority {
+    /**
+     * User-facing requests, e.g. metadata calls a screen is waiting on. Served first and allowed to use the capacity
+     * reserved for interactive traffic.
+     */
+    INTERACTIVE,
+
+    /**
+     * Default priority.
+     */
+    NORMAL,
+
+    /**
+     * Bulk or deferrable requests, e.g. background blob transfers. Served only when no higher priority call is
+     * waiting.
+     */
+    BACKGROUND
+}
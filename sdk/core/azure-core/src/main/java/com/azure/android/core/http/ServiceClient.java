@@ -5,12 +5,23 @@ package com.azure.android.core.http;
 
 import androidx.annotation.NonNull;
 
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerFormat;
+import com.azure.android.core.util.ModelAccessors;
 
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.ZoneId;
+
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.ConnectionPool;
@@ -18,12 +29,15 @@ import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import okio.AsyncTimeout;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Type that stores information used to create REST API Client instances that share common resources such as an HTTP
  * connection pool, callback executor, etc.
@@ -77,6 +91,72 @@ public class ServiceClient {
         return this.builder.serializerAdapter;
     }
 
+    /**
+     * Does in the background the work otherwise paid by the first API calls: prepares the serialization of the given
+     * model types and loads the time-zone rules. No request is sent.
+     * <p>
+     * Warming up is best-effort, failures are ignored and only mean the first API calls do the work themselves.
+     *
+     * @param types The model types used early on, such as the types of request and response bodies.
+     * @return A future completed once warming up is done.
+     */
+    public Future<?> prewarm(@NonNull Collection<? extends Type> types) {
+        return prewarm(types, false);
+    }
+
+    /**
+     * Does in the background the work otherwise paid by the first API calls: prepares the serialization of the given
+     * model types, loads the time-zone rules and, if {@code preconnect} is {@code true}, opens a connection to the
+     * base URL, which is kept in the connection pool.
+     * <p>
+     * Warming up is best-effort, failures are ignored and only mean the first API calls do the work themselves.
+     * <p>
+     * The connection is opened with a HEAD request to the base URL, sent without the interceptors of this client and
+     * therefore without credentials. Services requiring authorization answer it with an error, typically "403
+     * Forbidden", which shows up as a failed request in their logs and metrics. Only preconnect when that is
+     * acceptable.
+     *
+     * @param types      The model types used early on, such as the types of request and response bodies.
+     * @param preconnect Whether to open a connection to the base URL with an unauthenticated HEAD request.
+     * @return A future completed once warming up is done.
+     */
+    public Future<?> prewarm(@NonNull Collection<? extends Type> types, boolean preconnect) {
+        final List<Type> typesToWarmUp = new ArrayList<>(types);
+
+        return this.httpClient.dispatcher().executorService().submit(() -> {
+            final SerializerAdapter serializerAdapter = this.builder.serializerAdapter;
+
+            for (Type type : typesToWarmUp) {
+                serializerAdapter.warmUp(type, this.builder.serializerFormat);
+            }
+
+            try {
+                ZoneId.systemDefault().getRules();
+            } catch (DateTimeException ignored) {
+                // No time-zone rules provider has been registered yet.
+            }
+
+            if (!preconnect) {
+                return;
+            }
+
+            // The client built for it shares the connection pool, so the connection is reused by API calls.
+            final OkHttpClient.Builder preconnectClientBuilder = this.httpClient.newBuilder();
+
+            preconnectClientBuilder.interceptors().clear();
+            preconnectClientBuilder.networkInterceptors().clear();
+
+            final Request request = new Request.Builder().head().url(this.retrofit.baseUrl()).build();
+
+            try {
+                // The response itself is irrelevant, a HEAD response has no body to read.
+                preconnectClientBuilder.build().newCall(request).execute().close();
+            } catch (IOException ignored) {
+                // The first API call connects instead.
+            }
+        });
+    }
+
     /**
      * @return A new builder with configurations copied from this {@link ServiceClient}.
      */
@@ -110,10 +190,13 @@ public class ServiceClient {
         private ConnectionPool connectionPool;
         private Dispatcher dispatcher;
         private Interceptor credentialsInterceptor;
+        private PriorityRequestScheduler requestScheduler;
         private OkHttpClient.Builder httpClientBuilder;
         private Retrofit.Builder retrofitBuilder;
         private SerializerFormat serializerFormat;
         private SerializerAdapter serializerAdapter;
+        private ModelAccessors modelAccessors;
+        private List<Type> warmUpTypes;
         private String baseUrl;
 
         /**
@@ -150,7 +233,9 @@ public class ServiceClient {
 
             this.baseUrl = serviceClient.getBaseUrl();
             this.serializerAdapter = serviceClient.builder.serializerAdapter;
+            this.modelAccessors = serviceClient.builder.modelAccessors;
             this.serializerFormat = serviceClient.builder.serializerFormat;
+            this.requestScheduler = serviceClient.builder.requestScheduler;
 
             if (serviceClient.retrofit.callbackExecutor() != null) {
                 this.setCallbackExecutor(serviceClient.retrofit.callbackExecutor());
@@ -198,6 +283,50 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Set the adapter serializing request content and deserializing response content for any API Client created
+         * through the configured Retrofit. By default, the shared Jackson adapter supporting JSON and XML is used.
+         * <p>
+         * The configured Retrofit is accessed using {@link ServiceClient#getRetrofit()}.
+         *
+         * @param serializerAdapter The serializer adapter, which must support the serialization format.
+         * @return Builder with serializer adapter applied.
+         */
+        public Builder setSerializerAdapter(@NonNull SerializerAdapter serializerAdapter) {
+            this.serializerAdapter = serializerAdapter;
+
+            return this;
+        }
+
+        /**
+         * Set the accessors through which the default Jackson adapter reads and writes the fields of model classes,
+         * instead of reflection. The accessors are not used by an adapter set with
+         * {@link #setSerializerAdapter(SerializerAdapter)}.
+         *
+         * @param modelAccessors The accessors of model fields.
+         * @return Builder with model accessors applied.
+         */
+        public Builder setModelAccessors(@NonNull ModelAccessors modelAccessors) {
+            this.modelAccessors = modelAccessors;
+
+            return this;
+        }
+
+        /**
+         * Set the model types whose serialization is prepared when building the {@link ServiceClient}, so that the
+         * first API calls using them do not pay for the introspection of the types.
+         * <p>
+         * Preparing the types takes time when building, it is only worth it for types used early on.
+         *
+         * @param types The model types, such as the types of request and response bodies.
+         * @return Builder with warm-up types applied.
+         */
+        public Builder setWarmUpTypes(@NonNull Collection<? extends Type> types) {
+            this.warmUpTypes = new ArrayList<>(types);
+
+            return this;
+        }
+
         /**
          * Add an interceptor that gets called for authentication when invoking APIs using any API Client created
          * through the configured Retrofit.
@@ -302,6 +431,21 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Sets the scheduler that runs asynchronous calls made by any API Client created through the configured
+         * Retrofit in order of their {@link RequestPriority}, instead of in the FIFO order of the dispatcher.
+         * <p>
+         * The configured Retrofit is accessed using {@link ServiceClient#getRetrofit()}.
+         *
+         * @param requestScheduler The request scheduler.
+         * @return Builder with request scheduler applied.
+         */
+        public Builder setRequestScheduler(@NonNull PriorityRequestScheduler requestScheduler) {
+            this.requestScheduler = requestScheduler;
+
+            return this;
+        }
+
         /**
          * Set the executor to run the callback to notify the result of APIs invoked on an API Client created through
          * the configured Retrofit.
@@ -347,17 +491,30 @@ public class ServiceClient {
             }
 
             if (this.serializerAdapter == null) {
-                this.serializerAdapter = SerializerAdapter.createDefault();
+                this.serializerAdapter = this.modelAccessors == null
+                    ? SerializerAdapter.createDefault()
+                    : new JacksonAdapter(this.modelAccessors);
+            }
+
+            if (this.warmUpTypes != null) {
+                for (Type type : this.warmUpTypes) {
+                    this.serializerAdapter.warmUp(type, this.serializerFormat);
+                }
             }
 
             Converter.Factory converterFactory
                 = wrapSerializerInRetrofitConverter(this.serializerAdapter, this.serializerFormat);
 
+            if (this.requestScheduler != null) {
+                this.retrofitBuilder.callFactory(this.requestScheduler.callFactory(httpClient));
+            } else {
+                this.retrofitBuilder.client(httpClient);
+            }
+
             return new ServiceClient(
                 httpClient,
                 this.retrofitBuilder
                     .baseUrl(this.baseUrl)
-                    .client(httpClient)
                     .addConverterFactory(converterFactory)
                     .build(),
                 this);
@@ -388,8 +545,17 @@ public class ServiceClient {
                 public Converter<ResponseBody, ?> responseBodyConverter(Type type,
                                                                         Annotation[] annotations,
                                                                         Retrofit retrofit) {
-                    return (Converter<ResponseBody, Object>) body ->
-                        serializer.deserialize(body.string(), type, serializerFormat);
+                    return (Converter<ResponseBody, Object>) body -> {
+                        final MediaType contentType = body.contentType();
+                        final Charset charset = contentType == null ? null : contentType.charset();
+
+                        // UTF-8 content is deserialized while it is read, other charsets need decoding first.
+                        if (charset == null || UTF_8.equals(charset)) {
+                            return serializer.deserialize(body.source(), type, serializerFormat);
+                        }
+
+                        return serializer.deserialize(body.string(), type, serializerFormat);
+                    };
                 }
             };
         }
@@ -5,12 +5,9 @@ package com.azure.android.core.http.interceptor;
 
 import androidx.annotation.NonNull;
 
-import org.threeten.bp.OffsetDateTime;
-import org.threeten.bp.ZoneId;
-import org.threeten.bp.format.DateTimeFormatter;
+import com.azure.android.core.internal.util.DateTimeRfc1123Codec;
 
 import java.io.IOException;
-import java.util.Locale;
 
 import okhttp3.Interceptor;
 import okhttp3.Response;
@@ -21,17 +18,13 @@ import okhttp3.Response;
  */
 public class AddDateInterceptor implements Interceptor {
     private static final String DATE_HEADER = "Date";
-    private static final DateTimeFormatter httpDateTimeFormatter = DateTimeFormatter
-        .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'")
-        .withZone(ZoneId.of("UTC"))
-        .withLocale(Locale.US);
 
     @NonNull
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
         return chain.proceed(chain.request()
             .newBuilder()
-            .header(DATE_HEADER, httpDateTimeFormatter.format(OffsetDateTime.now()))
+            .header(DATE_HEADER, DateTimeRfc1123Codec.formatNow())
             .build());
     }
 }
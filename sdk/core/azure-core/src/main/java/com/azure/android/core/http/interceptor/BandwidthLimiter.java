@@ -0,0 +1,120 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting the number of bytes per second transferred by the HTTP bodies it is applied to.
+ * <p>
+ * A single instance can be shared by any number of concurrent calls, in which case they split the configured bandwidth
+ * between them. The limit can be changed at any time, including while transfers are in progress.
+ */
+public final class BandwidthLimiter {
+    /**
+     * Largest number of bytes that is accounted for at once, which bounds how long a single transfer step can block
+     * and how far a change in the limit can lag behind.
+     */
+    static final int MAX_CHUNK_SIZE = 8 * 1024;
+
+    private long bytesPerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a {@link BandwidthLimiter}.
+     *
+     * @param bytesPerSecond The maximum number of bytes per second, or a value of {@code 0} or less for no limit.
+     */
+    public BandwidthLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = Math.max(bytesPerSecond, 0);
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Gets the maximum number of bytes per second.
+     *
+     * @return The maximum number of bytes per second, or a value of {@code 0} or less if there is no limit.
+     */
+    public synchronized long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of bytes per second. Transfers waiting on this limiter pick up the new value
+     * immediately.
+     *
+     * @param bytesPerSecond The maximum number of bytes per second, or a value of {@code 0} or less for no limit.
+     */
+    public synchronized void setBytesPerSecond(long bytesPerSecond) {
+        refill(System.nanoTime());
+
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = Math.min(tokens, Math.max(bytesPerSecond, 0));
+
+        notifyAll();
+    }
+
+    /**
+     * Blocks until {@code byteCount} bytes can be transferred without exceeding the limit.
+     *
+     * @param byteCount The number of bytes about to be transferred, at most {@link #MAX_CHUNK_SIZE}.
+     * @throws InterruptedIOException If the thread is interrupted while waiting.
+     */
+    synchronized void acquire(long byteCount) throws InterruptedIOException {
+        while (bytesPerSecond > 0) {
+            refill(System.nanoTime());
+
+            // Only wait for as many tokens as the bucket can hold, the remainder is paid back as debt.
+            final double needed = Math.min(byteCount, bytesPerSecond);
+
+            if (tokens >= needed) {
+                tokens -= byteCount;
+
+                return;
+            }
+
+            final long waitNanos =
+                Math.max(1, (long) ((needed - tokens) * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond));
+
+            try {
+                wait(TimeUnit.NANOSECONDS.toMillis(waitNanos), (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted while waiting for bandwidth.");
+            }
+        }
+    }
+
+    /**
+     * Takes the tokens of {@code byteCount} bytes transferred without waiting, e.g. by interactive calls, so that
+     * calls waiting on this limiter only use the bandwidth left over. The debt is bounded by one second of bandwidth,
+     * so waiting calls are never blocked for more than about two seconds.
+     *
+     * @param byteCount The number of bytes transferred.
+     */
+    synchronized void record(long byteCount) {
+        if (bytesPerSecond <= 0) {
+            return;
+        }
+
+        refill(System.nanoTime());
+
+        tokens = Math.max(tokens - byteCount, Math.min(tokens, -bytesPerSecond));
+    }
+
+    private void refill(long nowNanos) {
+        final long elapsedNanos = nowNanos - lastRefillNanos;
+
+        lastRefillNanos = nowNanos;
+
+        if (bytesPerSecond > 0 && elapsedNanos > 0) {
+            tokens = Math.min(bytesPerSecond,
+                tokens + (double) elapsedNanos * bytesPerSecond / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
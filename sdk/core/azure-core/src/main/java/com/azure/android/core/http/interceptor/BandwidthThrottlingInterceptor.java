@@ -0,0 +1,242 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.http.RequestPriority;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
+
+/**
+ * Pipeline interceptor that caps the bandwidth used by request and response bodies, e.g. to limit background transfers
+ * on metered networks.
+ * <p>
+ * The interceptor either applies one {@link BandwidthLimiter} to every call going through it, so all calls of a
+ * {@code ServiceClient} share the configured bandwidth, or keeps a separate limiter for each host. Limits can be
+ * changed at runtime through the limiters. When limiting per host, the limiters of the {@value #MAX_HOSTS} most
+ * recently used hosts are kept.
+ * <p>
+ * Calls whose request is tagged {@link RequestPriority#INTERACTIVE} are never delayed, but the bytes they transfer are
+ * taken from the limiter. Other calls wait for the bandwidth left over, so bulk transfers slow down while foreground
+ * requests are running and use the whole bandwidth otherwise.
+ */
+public class BandwidthThrottlingInterceptor implements Interceptor {
+    /**
+     * Maximum number of hosts whose limiter is kept when limiting per host.
+     */
+    static final int MAX_HOSTS = 64;
+
+    private final BandwidthLimiter limiter;
+    private final Map<String, BandwidthLimiter> limitersByHost;
+    private long bytesPerSecondPerHost;
+
+    /**
+     * Creates a {@link BandwidthThrottlingInterceptor} where all calls share the given limiter.
+     *
+     * @param limiter The limiter to apply to every call.
+     */
+    public BandwidthThrottlingInterceptor(@NonNull BandwidthLimiter limiter) {
+        this.limiter = limiter;
+        this.limitersByHost = null;
+    }
+
+    private BandwidthThrottlingInterceptor(long bytesPerSecondPerHost) {
+        this.limiter = null;
+        // Evicts the least recently used host, whose calls in progress keep using the evicted limiter.
+        this.limitersByHost = new LinkedHashMap<String, BandwidthLimiter>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BandwidthLimiter> eldest) {
+                return size() > MAX_HOSTS;
+            }
+        };
+        this.bytesPerSecondPerHost = bytesPerSecondPerHost;
+    }
+
+    /**
+     * Creates a {@link BandwidthThrottlingInterceptor} that limits the bandwidth of each host separately.
+     *
+     * @param bytesPerSecond The maximum number of bytes per second for each host, or a value of {@code 0} or less for
+     *                       no limit.
+     * @return The interceptor.
+     */
+    public static BandwidthThrottlingInterceptor perHost(long bytesPerSecond) {
+        return new BandwidthThrottlingInterceptor(bytesPerSecond);
+    }
+
+    /**
+     * Gets the limiter applied to calls to the given host.
+     *
+     * @param host The host.
+     * @return The limiter for the host.
+     */
+    public BandwidthLimiter getLimiter(@NonNull String host) {
+        if (limiter != null) {
+            return limiter;
+        }
+
+        // Creating the limiter and setting the rate of all limiters under the same lock ensures that no limiter is
+        // created with a rate being replaced.
+        synchronized (limitersByHost) {
+            BandwidthLimiter hostLimiter = limitersByHost.get(host);
+
+            if (hostLimiter == null) {
+                hostLimiter = new BandwidthLimiter(bytesPerSecondPerHost);
+                limitersByHost.put(host, hostLimiter);
+            }
+
+            return hostLimiter;
+        }
+    }
+
+    /**
+     * Sets the maximum number of bytes per second for calls going through this interceptor. When limiting per host,
+     * the value applies to every host.
+     *
+     * @param bytesPerSecond The maximum number of bytes per second, or a value of {@code 0} or less for no limit.
+     */
+    public void setBytesPerSecond(long bytesPerSecond) {
+        if (limiter != null) {
+            limiter.setBytesPerSecond(bytesPerSecond);
+
+            return;
+        }
+
+        synchronized (limitersByHost) {
+            bytesPerSecondPerHost = bytesPerSecond;
+
+            for (BandwidthLimiter hostLimiter : limitersByHost.values()) {
+                hostLimiter.setBytesPerSecond(bytesPerSecond);
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        final BandwidthLimiter callLimiter = getLimiter(request.url().host());
+        final boolean interactive = request.tag(RequestPriority.class) == RequestPriority.INTERACTIVE;
+        final RequestBody requestBody = request.body();
+
+        if (requestBody != null) {
+            request = request.newBuilder()
+                .method(request.method(), new ThrottledRequestBody(requestBody, callLimiter, interactive))
+                .build();
+        }
+
+        Response response = chain.proceed(request);
+        final ResponseBody responseBody = response.body();
+
+        if (responseBody == null) {
+            return response;
+        }
+
+        return response.newBuilder()
+            .body(ResponseBody.create(responseBody.contentType(), responseBody.contentLength(),
+                Okio.buffer(new ThrottledSource(responseBody.source(), callLimiter, interactive))))
+            .build();
+    }
+
+    /**
+     * Request body writing the content of another request body at the rate allowed by a limiter.
+     */
+    private static final class ThrottledRequestBody extends RequestBody {
+        private final RequestBody delegate;
+        private final BandwidthLimiter limiter;
+        private final boolean interactive;
+
+        ThrottledRequestBody(RequestBody delegate, BandwidthLimiter limiter, boolean interactive) {
+            this.delegate = delegate;
+            this.limiter = limiter;
+            this.interactive = interactive;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            BufferedSink throttledSink = Okio.buffer(new ThrottledSink(sink, limiter, interactive));
+
+            delegate.writeTo(throttledSink);
+            throttledSink.emit();
+        }
+    }
+
+    private static final class ThrottledSink extends ForwardingSink {
+        private final BandwidthLimiter limiter;
+        private final boolean interactive;
+
+        ThrottledSink(Sink delegate, BandwidthLimiter limiter, boolean interactive) {
+            super(delegate);
+            this.limiter = limiter;
+            this.interactive = interactive;
+        }
+
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            while (byteCount > 0) {
+                final long chunkSize = Math.min(byteCount, BandwidthLimiter.MAX_CHUNK_SIZE);
+
+                if (interactive) {
+                    limiter.record(chunkSize);
+                } else {
+                    limiter.acquire(chunkSize);
+                }
+
+                super.write(source, chunkSize);
+
+                byteCount -= chunkSize;
+            }
+        }
+    }
+
+    private static final class ThrottledSource extends ForwardingSource {
+        private final BandwidthLimiter limiter;
+        private final boolean interactive;
+
+        ThrottledSource(Source delegate, BandwidthLimiter limiter, boolean interactive) {
+            super(delegate);
+            this.limiter = limiter;
+            this.interactive = interactive;
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            final long read = super.read(sink, Math.min(byteCount, BandwidthLimiter.MAX_CHUNK_SIZE));
+
+            if (read > 0 && interactive) {
+                limiter.record(read);
+            } else if (read > 0) {
+                limiter.acquire(read);
+            }
+
+            return read;
+        }
+    }
+}
@@ -5,7 +5,7 @@ package com.azure.android.core.http.interceptor;
 
 import androidx.annotation.NonNull;
 
-import com.azure.android.core.util.CoreUtils;
+import com.azure.android.core.util.CharacterReplacer;
 import com.azure.android.core.util.logging.ClientLogger;
 
 import java.io.IOException;
@@ -27,6 +27,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * Pipeline interceptor that logs HTTP requests as cURL commands.
  */
 public class CurlLoggingInterceptor implements Interceptor {
+    private static final CharacterReplacer BODY_REPLACER = createBodyReplacer();
+
     private final ClientLogger logger;
     private boolean compressed;
     private StringBuilder curlCommand;
@@ -100,6 +102,15 @@ public class CurlLoggingInterceptor implements Interceptor {
         }
     }
 
+    private static CharacterReplacer createBodyReplacer() {
+        Map<Character, CharSequence> toReplace = new HashMap<>();
+
+        toReplace.put('\n', "\\n");
+        toReplace.put('\"', "\\\"");
+
+        return new CharacterReplacer(toReplace);
+    }
+
     /**
      * Adds HTTP headers into the StringBuilder that is generating the cURL command.
      *
@@ -116,13 +127,9 @@ public class CurlLoggingInterceptor implements Interceptor {
 
             if (charset != null) {
                 String requestBodyString = buffer.readString(charset);
-                Map<Character, CharSequence> toReplace = new HashMap<>();
-
-                toReplace.put('\n', "\\n");
-                toReplace.put('\"', "\\\"");
 
                 curlCommand.append(" --data $'")
-                    .append(CoreUtils.replace(requestBodyString, toReplace))
+                    .append(BODY_REPLACER.replace(requestBodyString))
                     .append("'");
 
                 if (compressed) {
@@ -0,0 +1,370 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Headers;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+
+/**
+ * Size-bounded, least recently used store of responses validated with their ETag or Last-Modified header, used by
+ * {@link ETagCacheInterceptor}.
+ * <p>
+ * Entries are kept in memory and, optionally, written through to a directory on disk so they survive the process.
+ * A single instance can be shared by several interceptors and clients.
+ * <p>
+ * Entries are grouped by URL: each URL can have several variants, e.g. for different methods, service versions or
+ * ranges, all of which are removed together when the resource changes.
+ */
+public final class ETagCache {
+    private static final int DISK_FORMAT_VERSION = 3;
+
+    private final long maxMemoryBytes;
+    private final File directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, Entry> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Object diskLock = new Object();
+    private long memoryBytes;
+
+    /**
+     * Creates an in-memory {@link ETagCache}.
+     *
+     * @param maxMemoryBytes The maximum number of bytes of response content held in memory.
+     */
+    public ETagCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null, 0);
+    }
+
+    /**
+     * Creates an {@link ETagCache} with a disk tier.
+     *
+     * @param maxMemoryBytes The maximum number of bytes of response content held in memory.
+     * @param directory      The directory where entries are stored, or {@code null} to keep entries in memory only.
+     * @param maxDiskBytes   The maximum number of bytes used in {@code directory}.
+     */
+    public ETagCache(long maxMemoryBytes, @Nullable File directory, long maxDiskBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * Gets the maximum size of the content of a single response that can be cached. The content is copied in memory
+     * while it is read, so this is bounded by the memory limit even when the disk tier is larger.
+     *
+     * @return The maximum number of bytes of a cacheable response.
+     */
+    long maxEntryBytes() {
+        return maxMemoryBytes;
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void evictAll() {
+        synchronized (this) {
+            memoryEntries.clear();
+            memoryBytes = 0;
+        }
+
+        if (directory == null) {
+            return;
+        }
+
+        synchronized (diskLock) {
+            File[] files = directory.listFiles();
+
+            if (files != null) {
+                for (File file : files) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    @Nullable
+    Entry get(String url, String variant) {
+        final String key = keyOf(url, variant);
+
+        synchronized (this) {
+            Entry entry = memoryEntries.get(key);
+
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        Entry entry = readFromDisk(key, url, variant);
+
+        if (entry != null) {
+            putInMemory(key, entry);
+        }
+
+        return entry;
+    }
+
+    void put(String url, String variant, Entry entry) {
+        final String key = keyOf(url, variant);
+
+        putInMemory(key, entry);
+        writeToDisk(key, entry, url, variant);
+    }
+
+    void remove(String url, String variant) {
+        final String key = keyOf(url, variant);
+
+        synchronized (this) {
+            Entry entry = memoryEntries.remove(key);
+
+            if (entry != null) {
+                memoryBytes -= entry.size();
+            }
+        }
+
+        if (directory != null) {
+            synchronized (diskLock) {
+                //noinspection ResultOfMethodCallIgnored
+                fileFor(url, variant).delete();
+            }
+        }
+    }
+
+    /**
+     * Removes all variants cached for a URL.
+     */
+    void removeAll(String url) {
+        final String keyPrefix = keyOf(url, "");
+
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> iterator = memoryEntries.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> entry = iterator.next();
+
+                if (entry.getKey().startsWith(keyPrefix)) {
+                    memoryBytes -= entry.getValue().size();
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (directory == null) {
+            return;
+        }
+
+        synchronized (diskLock) {
+            final String filePrefix = fileNamePrefix(url);
+            final File[] files = directory.listFiles();
+
+            if (files != null) {
+                for (File file : files) {
+                    if (file.getName().startsWith(filePrefix)) {
+                        //noinspection ResultOfMethodCallIgnored
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    private static String keyOf(String url, String variant) {
+        return url + ' ' + variant;
+    }
+
+    private synchronized void putInMemory(String key, Entry entry) {
+        Entry previous = entry.size() > maxMemoryBytes ? memoryEntries.remove(key) : memoryEntries.put(key, entry);
+
+        if (previous != null) {
+            memoryBytes -= previous.size();
+        }
+
+        if (entry.size() > maxMemoryBytes) {
+            return;
+        }
+
+        memoryBytes += entry.size();
+
+        Iterator<Entry> iterator = memoryEntries.values().iterator();
+
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            memoryBytes -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Files are named after the hashes of the URL and of the variant, so all variants of a URL can be found by name.
+     */
+    private File fileFor(String url, String variant) {
+        return new File(directory, fileNamePrefix(url) + ByteString.encodeUtf8(variant).md5().hex());
+    }
+
+    private static String fileNamePrefix(String url) {
+        return ByteString.encodeUtf8(url).md5().hex() + '-';
+    }
+
+    /**
+     * Files identify their entry by the hash of its key, since URLs can carry credentials such as SAS tokens.
+     */
+    private static String hashOf(String key) {
+        return ByteString.encodeUtf8(key).sha256().hex();
+    }
+
+    @Nullable
+    private Entry readFromDisk(String key, String url, String variant) {
+        if (directory == null) {
+            return null;
+        }
+
+        synchronized (diskLock) {
+            return readFromDisk(key, fileFor(url, variant));
+        }
+    }
+
+    @Nullable
+    private Entry readFromDisk(String key, File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+            if (source.readInt() != DISK_FORMAT_VERSION || !hashOf(key).equals(source.readUtf8LineStrict())) {
+                return null;
+            }
+
+            final int code = source.readInt();
+            final String message = source.readUtf8LineStrict();
+            final int headerCount = source.readInt();
+            final Headers.Builder headers = new Headers.Builder();
+
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(source.readUtf8LineStrict(), source.readUtf8LineStrict());
+            }
+
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+
+            return new Entry(code, message, headers.build(), source.readByteString());
+        } catch (IOException | IllegalArgumentException e) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry, String url, String variant) {
+        if (directory == null || entry.size() > maxDiskBytes) {
+            return;
+        }
+
+        synchronized (diskLock) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+
+            writeToDisk(key, entry, fileFor(url, variant));
+            trimDisk();
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry, File file) {
+        try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+            sink.writeInt(DISK_FORMAT_VERSION);
+            sink.writeUtf8(hashOf(key)).writeByte('\n');
+            sink.writeInt(entry.code);
+            sink.writeUtf8(entry.message).writeByte('\n');
+            sink.writeInt(entry.headers.size());
+
+            for (int i = 0; i < entry.headers.size(); i++) {
+                sink.writeUtf8(entry.headers.name(i)).writeByte('\n');
+                sink.writeUtf8(entry.headers.value(i)).writeByte('\n');
+            }
+
+            sink.write(entry.content);
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private void trimDisk() {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        long diskBytes = 0;
+
+        for (File file : files) {
+            diskBytes += file.length();
+        }
+
+        if (diskBytes <= maxDiskBytes) {
+            return;
+        }
+
+        List<File> oldestFirst = new ArrayList<>(Arrays.asList(files));
+
+        Collections.sort(oldestFirst, (left, right) -> Long.compare(left.lastModified(), right.lastModified()));
+
+        for (File file : oldestFirst) {
+            if (diskBytes <= maxDiskBytes) {
+                break;
+            }
+
+            diskBytes -= file.length();
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    static final class Entry {
+        final int code;
+        final String message;
+        final Headers headers;
+        final ByteString content;
+
+        Entry(int code, @NonNull String message, @NonNull Headers headers, @NonNull ByteString content) {
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.content = content;
+        }
+
+        long size() {
+            return content.size() + headers.byteCount();
+        }
+
+        @Nullable
+        String eTag() {
+            return headers.get("ETag");
+        }
+
+        @Nullable
+        String lastModified() {
+            return headers.get("Last-Modified");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ByteString;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Pipeline interceptor that revalidates read requests with the ETag or Last-Modified value of a previously cached
+ * response, so unchanged resources cost one round trip without transferring the response body.
+ * <p>
+ * Successful GET and HEAD responses carrying an ETag or Last-Modified header are stored in an {@link ETagCache}. When
+ * the same resource is requested again, "If-None-Match" (or "If-Modified-Since") is added to the request and a
+ * "304 Not Modified" response is answered with the cached status, headers and content, updated with the headers of
+ * the 304 response. The content of a response is copied into the cache while it is read, and the response is cached
+ * once its content has been read to the end, so responses keep streaming. Responses are cached separately for each
+ * method, service version, accepted content type and range, so the cache never answers with a representation other
+ * than the one requested. Requests that already carry conditional headers are passed through untouched, and any
+ * successful write to a URL evicts the cached responses for it.
+ */
+public class ETagCacheInterceptor implements Interceptor {
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    private static final String CACHE_CONTROL_HEADER = "Cache-Control";
+    private static final String[] BYPASS_HEADERS = {
+        IF_NONE_MATCH_HEADER, IF_MODIFIED_SINCE_HEADER, "If-Match", "If-Unmodified-Since"
+    };
+    private static final String[] VARIANT_HEADERS = { "x-ms-version", "Accept", "Range", "x-ms-range" };
+
+    private final ETagCache cache;
+
+    /**
+     * Creates an {@link ETagCacheInterceptor} storing responses in the given cache.
+     *
+     * @param cache The cache, which can be shared with other interceptors.
+     */
+    public ETagCacheInterceptor(@NonNull ETagCache cache) {
+        this.cache = cache;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        final String method = request.method();
+
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            Response response = chain.proceed(request);
+
+            if (response.isSuccessful()) {
+                cache.removeAll(request.url().toString());
+            }
+
+            return response;
+        }
+
+        for (String headerName : BYPASS_HEADERS) {
+            if (request.header(headerName) != null) {
+                return chain.proceed(request);
+            }
+        }
+
+        final String url = request.url().toString();
+        final String variant = variantOf(request);
+        final ETagCache.Entry entry = cache.get(url, variant);
+
+        if (entry != null) {
+            final String eTag = entry.eTag();
+
+            request = request.newBuilder()
+                .header(eTag != null ? IF_NONE_MATCH_HEADER : IF_MODIFIED_SINCE_HEADER,
+                    eTag != null ? quote(eTag) : entry.lastModified())
+                .build();
+        }
+
+        final Response response = chain.proceed(request);
+
+        if (entry != null && response.code() == 304) {
+            response.close();
+
+            return fromCache(response, entry);
+        }
+
+        if (response.code() != 200 && response.code() != 206) {
+            return response;
+        }
+
+        return store(url, variant, response);
+    }
+
+    private Response store(String url, String variant, Response response) throws IOException {
+        final ResponseBody body = response.body();
+        final String cacheControl = response.header(CACHE_CONTROL_HEADER);
+
+        if (body == null
+            || (response.header(ETAG_HEADER) == null && response.header(LAST_MODIFIED_HEADER) == null)
+            || (cacheControl != null && cacheControl.contains("no-store"))) {
+            cache.remove(url, variant);
+
+            return response;
+        }
+
+        // A HEAD response has no content, its Content-Length is the one of the resource.
+        if ("HEAD".equals(response.request().method())) {
+            cache.put(url, variant, new ETagCache.Entry(response.code(), response.message(), response.headers(),
+                ByteString.EMPTY));
+
+            return response;
+        }
+
+        final long maxEntryBytes = cache.maxEntryBytes();
+
+        if (body.contentLength() > maxEntryBytes) {
+            return response;
+        }
+
+        // The content is copied into the cache while the caller reads it, so the response still streams.
+        final CachingSource cachingSource = new CachingSource(body.source(), url, variant, response, maxEntryBytes);
+
+        return response.newBuilder()
+            .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(cachingSource)))
+            .build();
+    }
+
+    private static Response fromCache(Response notModified, ETagCache.Entry entry) {
+        final Headers.Builder headers = entry.headers.newBuilder();
+        final Headers updatedHeaders = notModified.headers();
+
+        for (int i = 0; i < updatedHeaders.size(); i++) {
+            final String name = updatedHeaders.name(i);
+
+            if (!"Content-Length".equalsIgnoreCase(name) && !"Content-Type".equalsIgnoreCase(name)) {
+                headers.set(name, updatedHeaders.value(i));
+            }
+        }
+
+        final String contentType = entry.headers.get("Content-Type");
+
+        return notModified.newBuilder()
+            .code(entry.code)
+            .message(entry.message)
+            .headers(headers.build())
+            .body(ResponseBody.create(contentType == null ? null : MediaType.parse(contentType), entry.content))
+            .build();
+    }
+
+    /**
+     * Copies the content of a response as it is read, and caches the response once the content has been read to the
+     * end. Content larger than the maximum size of an entry is not copied further.
+     */
+    private final class CachingSource extends ForwardingSource {
+        private final String url;
+        private final String variant;
+        private final Response response;
+        private final long maxEntryBytes;
+        private final Buffer content = new Buffer();
+        private boolean caching = true;
+
+        CachingSource(Source delegate, String url, String variant, Response response, long maxEntryBytes) {
+            super(delegate);
+
+            this.url = url;
+            this.variant = variant;
+            this.response = response;
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            final long read;
+
+            try {
+                read = super.read(sink, byteCount);
+            } catch (IOException e) {
+                stopCaching();
+
+                throw e;
+            }
+
+            if (!caching) {
+                return read;
+            }
+
+            if (read == -1) {
+                caching = false;
+                cache.put(url, variant, new ETagCache.Entry(response.code(), response.message(), response.headers(),
+                    content.readByteString()));
+            } else if (read > maxEntryBytes - content.size()) {
+                stopCaching();
+            } else {
+                sink.copyTo(content, sink.size() - read, read);
+            }
+
+            return read;
+        }
+
+        private void stopCaching() {
+            caching = false;
+            content.clear();
+        }
+    }
+
+    private static String variantOf(Request request) {
+        final StringBuilder variant = new StringBuilder(request.method());
+
+        for (String headerName : VARIANT_HEADERS) {
+            final String value = request.header(headerName);
+
+            if (value != null) {
+                variant.append(' ').append(headerName).append('=').append(value);
+            }
+        }
+
+        return variant.toString();
+    }
+
+    /**
+     * The ETag may have been stripped of its quotes by another interceptor, while "If-None-Match" requires the quoted
+     * form.
+     */
+    private static String quote(String eTag) {
+        if (eTag.startsWith("\"") || eTag.startsWith("W/")) {
+            return eTag;
+        }
+
+        return "\"" + eTag + "\"";
+    }
+}
@@ -0,0 +1,240 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okio.BufferedSink;
+
+/**
+ * Internal table-driven Base64 encoder and decoder, for the standard alphabet with padding and the URL alphabet without
+ * padding.
+ * <p>
+ * It encodes from a byte range straight into a destination array or an okio {@link BufferedSink}, and decodes from a
+ * byte range or a {@link CharSequence}, without going through intermediate strings. Unlike {@code android.util.Base64}
+ * it also runs on the JVM.
+ * <p>
+ * As with {@code android.util.Base64}, decoding skips characters outside of the alphabet, such as line breaks. Both the
+ * standard and the URL alphabet are accepted, with or without padding.
+ */
+public final class Base64Codec {
+    private static final byte[] STANDARD_ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    private static final byte[] URL_ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    private static final int[] DECODE_TABLE = new int[128];
+    private static final int SKIP = -1;
+    private static final int PADDING = -2;
+    private static final int SINK_CHUNK_SIZE = 3 * 1024;
+
+    static {
+        Arrays.fill(DECODE_TABLE, SKIP);
+
+        for (int i = 0; i < STANDARD_ALPHABET.length; i++) {
+            DECODE_TABLE[STANDARD_ALPHABET[i]] = i;
+            DECODE_TABLE[URL_ALPHABET[i]] = i;
+        }
+
+        DECODE_TABLE['='] = PADDING;
+    }
+
+    private Base64Codec() {
+    }
+
+    /**
+     * Gets the length of the encoded form of a byte range.
+     *
+     * @param length The number of bytes to encode.
+     * @param url    Whether the URL alphabet without padding is used.
+     * @return The number of encoded bytes.
+     */
+    public static int encodedLength(int length, boolean url) {
+        final int groups = length / 3;
+        final int remainder = length - groups * 3;
+
+        if (remainder == 0) {
+            return groups * 4;
+        }
+
+        return groups * 4 + (url ? remainder + 1 : 4);
+    }
+
+    /**
+     * Encodes a byte range.
+     *
+     * @param src    The bytes to encode.
+     * @param offset The index of the first byte to encode.
+     * @param length The number of bytes to encode.
+     * @param url    Whether the URL alphabet without padding is used.
+     * @return The encoded bytes.
+     */
+    public static byte[] encode(byte[] src, int offset, int length, boolean url) {
+        final byte[] encoded = new byte[encodedLength(length, url)];
+
+        encode(src, offset, length, encoded, 0, url);
+
+        return encoded;
+    }
+
+    /**
+     * Encodes a byte range into an array.
+     *
+     * @param src       The bytes to encode.
+     * @param offset    The index of the first byte to encode.
+     * @param length    The number of bytes to encode.
+     * @param dst       The array the encoded bytes are written to, at least {@link #encodedLength(int, boolean)}
+     *                  bytes must be available from {@code dstOffset}.
+     * @param dstOffset The index in {@code dst} of the first encoded byte.
+     * @param url       Whether the URL alphabet without padding is used.
+     * @return The number of encoded bytes.
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset, boolean url) {
+        final byte[] alphabet = url ? URL_ALPHABET : STANDARD_ALPHABET;
+        final int end = offset + length;
+        final int groupsEnd = offset + length / 3 * 3;
+        int position = dstOffset;
+        int i = offset;
+
+        while (i < groupsEnd) {
+            final int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+
+            dst[position++] = alphabet[bits >>> 18];
+            dst[position++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[position++] = alphabet[(bits >>> 6) & 0x3f];
+            dst[position++] = alphabet[bits & 0x3f];
+        }
+
+        if (i < end) {
+            final int bits = (src[i] & 0xff) << 16 | (i + 1 < end ? (src[i + 1] & 0xff) << 8 : 0);
+
+            dst[position++] = alphabet[bits >>> 18];
+            dst[position++] = alphabet[(bits >>> 12) & 0x3f];
+
+            if (i + 1 < end) {
+                dst[position++] = alphabet[(bits >>> 6) & 0x3f];
+            } else if (!url) {
+                dst[position++] = '=';
+            }
+
+            if (!url) {
+                dst[position++] = '=';
+            }
+        }
+
+        return position - dstOffset;
+    }
+
+    /**
+     * Encodes a byte range into a sink, using a fixed size buffer whatever the number of bytes encoded.
+     *
+     * @param src    The bytes to encode.
+     * @param offset The index of the first byte to encode.
+     * @param length The number of bytes to encode.
+     * @param sink   The sink the encoded bytes are written to.
+     * @param url    Whether the URL alphabet without padding is used.
+     * @throws IOException If writing to the sink fails.
+     */
+    public static void encode(byte[] src, int offset, int length, BufferedSink sink, boolean url) throws IOException {
+        final byte[] chunk = new byte[encodedLength(Math.min(length, SINK_CHUNK_SIZE), url)];
+        final int end = offset + length;
+
+        // Chunks are a multiple of 3 bytes so only the last one can be padded.
+        for (int i = offset; i < end; i += SINK_CHUNK_SIZE) {
+            sink.write(chunk, 0, encode(src, i, Math.min(SINK_CHUNK_SIZE, end - i), chunk, 0, url));
+        }
+    }
+
+    /**
+     * Decodes a Base64 encoded byte range.
+     *
+     * @param src    The bytes to decode.
+     * @param offset The index of the first byte to decode.
+     * @param length The number of bytes to decode.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the padding is incorrect.
+     */
+    public static byte[] decode(byte[] src, int offset, int length) {
+        final Decoder decoder = new Decoder(length);
+
+        for (int i = offset; i < offset + length; i++) {
+            decoder.next(src[i] & 0xff);
+        }
+
+        return decoder.finish();
+    }
+
+    /**
+     * Decodes a Base64 encoded string.
+     *
+     * @param src The string to decode.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the padding is incorrect.
+     */
+    public static byte[] decode(CharSequence src) {
+        final int length = src.length();
+        final Decoder decoder = new Decoder(length);
+
+        for (int i = 0; i < length; i++) {
+            decoder.next(src.charAt(i));
+        }
+
+        return decoder.finish();
+    }
+
+    /**
+     * Decoding state, fed one character at a time.
+     */
+    private static final class Decoder {
+        private final byte[] decoded;
+        private int position;
+        private int bits;
+        private int sextets;
+        private int padding;
+
+        Decoder(int encodedLength) {
+            // An upper bound of the decoded length, computed without overflowing.
+            this.decoded = new byte[encodedLength / 4 * 3 + (encodedLength % 4) * 3 / 4];
+        }
+
+        void next(int character) {
+            final int value = character < DECODE_TABLE.length ? DECODE_TABLE[character] : SKIP;
+
+            if (value >= 0) {
+                if (padding > 0) {
+                    throw new IllegalArgumentException("bad base-64");
+                }
+
+                bits = bits << 6 | value;
+
+                if (++sextets == 4) {
+                    decoded[position++] = (byte) (bits >>> 16);
+                    decoded[position++] = (byte) (bits >>> 8);
+                    decoded[position++] = (byte) bits;
+                    bits = 0;
+                    sextets = 0;
+                }
+            } else if (value == PADDING) {
+                if (sextets < 2 || sextets + ++padding > 4) {
+                    throw new IllegalArgumentException("bad base-64");
+                }
+            }
+        }
+
+        byte[] finish() {
+            if (sextets == 1 || (padding > 0 && sextets + padding != 4)) {
+                throw new IllegalArgumentException("bad base-64");
+            }
+
+            if (sextets == 2) {
+                decoded[position++] = (byte) (bits >>> 4);
+            } else if (sextets == 3) {
+                decoded[position++] = (byte) (bits >>> 10);
+                decoded[position++] = (byte) (bits >>> 2);
+            }
+
+            return position == decoded.length ? decoded : Arrays.copyOf(decoded, position);
+        }
+    }
+}
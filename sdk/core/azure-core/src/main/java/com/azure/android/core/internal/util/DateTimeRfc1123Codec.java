@@ -0,0 +1,238 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.Locale;
+
+/**
+ * Internal codec for the fixed-width RFC 1123 date format used by HTTP headers such as "Date" and "Last-Modified",
+ * e.g. {@code Tue, 15 Nov 1994 08:12:31 GMT}.
+ * <p>
+ * Day and month names are looked up in tables and digits are read and written directly as chars. Values outside of
+ * that exact shape are handed to the general {@link DateTimeFormatter}, so the results and error messages are the same
+ * as before.
+ */
+public final class DateTimeRfc1123Codec {
+    /**
+     * The length of a formatted date, {@code EEE, dd MMM yyyy HH:mm:ss GMT}.
+     */
+    public static final int LENGTH = 29;
+
+    private static final DateTimeFormatter RFC1123_DATE_TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'").withZone(ZoneId.of("UTC")).withLocale(Locale.US);
+    private static final String[] DAYS_OF_WEEK = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[LENGTH];
+        }
+    };
+
+    private DateTimeRfc1123Codec() {
+    }
+
+    /**
+     * Parses a date in RFC 1123 format.
+     *
+     * @param text The text to parse.
+     * @return The parsed date, in UTC when the text uses the {@code GMT} zone.
+     * @throws org.threeten.bp.format.DateTimeParseException If the text is not a valid RFC 1123 date.
+     */
+    public static OffsetDateTime parse(String text) {
+        final OffsetDateTime dateTime = parseFixedWidth(text);
+
+        if (dateTime != null) {
+            return dateTime;
+        }
+
+        return OffsetDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    /**
+     * Formats a date in RFC 1123 format, converted to GMT.
+     *
+     * @param dateTime The date to format.
+     * @return The formatted date.
+     */
+    public static String format(OffsetDateTime dateTime) {
+        final char[] buffer = BUFFER.get();
+        final int length = format(dateTime.toEpochSecond(), buffer, 0);
+
+        return length < 0 ? RFC1123_DATE_TIME_FORMATTER.format(dateTime) : new String(buffer, 0, length);
+    }
+
+    /**
+     * Formats the current time in RFC 1123 format.
+     *
+     * @return The formatted date.
+     */
+    public static String formatNow() {
+        final char[] buffer = BUFFER.get();
+        final int length = format(System.currentTimeMillis() / 1000, buffer, 0);
+
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Formats a date in RFC 1123 format, converted to GMT, into a char array.
+     *
+     * @param dateTime The date to format.
+     * @param buffer   The array the date is written to.
+     * @param offset   The index in {@code buffer} of the first char written, at least {@link #LENGTH} chars must be
+     *                 available from it.
+     * @return The number of chars written, or {@code -1} if the year is outside of 1 to 9999 and can only be formatted
+     * through {@link #format(OffsetDateTime)}.
+     */
+    public static int format(OffsetDateTime dateTime, char[] buffer, int offset) {
+        return format(dateTime.toEpochSecond(), buffer, offset);
+    }
+
+    private static int format(long epochSecond, char[] buffer, int offset) {
+        final long epochDay = floorDiv(epochSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) (epochSecond - epochDay * SECONDS_PER_DAY);
+
+        // Civil date from the day count, shifting the year to start in March so the leap day comes last.
+        final long shiftedDay = epochDay + 719_468;
+        final long era = floorDiv(shiftedDay, 146_097);
+        final int dayOfEra = (int) (shiftedDay - era * 146_097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        final long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+
+        if (year < 1 || year > 9999) {
+            return -1;
+        }
+
+        // 1970-01-01 was a Thursday.
+        final int dayOfWeek = (int) floorMod(epochDay + 3, 7);
+        int position = offset;
+
+        position = writeName(DAYS_OF_WEEK[dayOfWeek], buffer, position);
+        buffer[position++] = ',';
+        buffer[position++] = ' ';
+        position = writeDigits(day, 2, buffer, position);
+        buffer[position++] = ' ';
+        position = writeName(MONTHS[month - 1], buffer, position);
+        buffer[position++] = ' ';
+        position = writeDigits((int) year, 4, buffer, position);
+        buffer[position++] = ' ';
+        position = writeDigits(secondOfDay / 3600, 2, buffer, position);
+        buffer[position++] = ':';
+        position = writeDigits(secondOfDay / 60 % 60, 2, buffer, position);
+        buffer[position++] = ':';
+        position = writeDigits(secondOfDay % 60, 2, buffer, position);
+        buffer[position++] = ' ';
+        buffer[position++] = 'G';
+        buffer[position++] = 'M';
+        buffer[position++] = 'T';
+
+        return position - offset;
+    }
+
+    /**
+     * Parses the exact {@code EEE, dd MMM yyyy HH:mm:ss GMT} shape.
+     *
+     * @return The parsed date, or {@code null} if the text has any other shape or an invalid field.
+     */
+    private static OffsetDateTime parseFixedWidth(String text) {
+        if (text.length() != LENGTH
+            || text.charAt(3) != ','
+            || text.charAt(4) != ' '
+            || text.charAt(7) != ' '
+            || text.charAt(11) != ' '
+            || text.charAt(16) != ' '
+            || text.charAt(19) != ':'
+            || text.charAt(22) != ':'
+            || !text.endsWith(" GMT")) {
+            return null;
+        }
+
+        final int dayOfWeek = indexOfName(DAYS_OF_WEEK, text, 0);
+        final int month = indexOfName(MONTHS, text, 8) + 1;
+        final int day = readDigits(text, 5, 2);
+        final int year = readDigits(text, 12, 4);
+        final int hour = readDigits(text, 17, 2);
+        final int minute = readDigits(text, 20, 2);
+        final int second = readDigits(text, 23, 2);
+
+        if ((dayOfWeek | (month - 1) | day | year | hour | minute | second) < 0) {
+            return null;
+        }
+
+        final OffsetDateTime dateTime;
+
+        try {
+            dateTime = OffsetDateTime.of(year, month, day, hour, minute, second, 0, ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            return null;
+        }
+
+        // A day of week not matching the date is an error the formatter reports.
+        return dateTime.getDayOfWeek().ordinal() == dayOfWeek ? dateTime : null;
+    }
+
+    private static int indexOfName(String[] names, String text, int start) {
+        for (int i = 0; i < names.length; i++) {
+            if (text.regionMatches(start, names[i], 0, 3)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int readDigits(String text, int start, int count) {
+        int value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            final int digit = text.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static int writeName(String name, char[] buffer, int position) {
+        name.getChars(0, 3, buffer, position);
+
+        return position + 3;
+    }
+
+    private static int writeDigits(int value, int count, char[] buffer, int position) {
+        for (int i = position + count - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return position + count;
+    }
+
+    private static long floorDiv(long x, long y) {
+        final long quotient = x / y;
+
+        return (x % y != 0 && (x ^ y) < 0) ? quotient - 1 : quotient;
+    }
+
+    private static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
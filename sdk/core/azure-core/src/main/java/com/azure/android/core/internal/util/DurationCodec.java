@@ -0,0 +1,331 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import org.threeten.bp.Duration;
+
+/**
+ * Internal codec for ISO 8601 durations in the {@code PnDTnHnMn.nS} form used by Azure services, e.g.
+ * {@code P1DT2H30M}, {@code PT0.5S} or {@code -PT15M}.
+ * <p>
+ * Durations are written into a char array without intermediate strings and the common form is parsed by reading the
+ * digits directly. Formatting keeps nanosecond precision, so every {@link Duration} round-trips exactly through
+ * {@link #format(Duration)} and {@link #parse(String)}. Any other form accepted by {@link Duration#parse(CharSequence)}
+ * is handed to it.
+ */
+public final class DurationCodec {
+    /**
+     * The maximum length of a formatted duration.
+     */
+    public static final int MAX_LENGTH = 48;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    private static final int MAX_DAY_DIGITS = 12;
+    private static final int MAX_TIME_DIGITS = 15;
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[MAX_LENGTH];
+        }
+    };
+
+    private DurationCodec() {
+    }
+
+    /**
+     * Formats a duration with a days component.
+     *
+     * @param duration The duration to format.
+     * @return The formatted duration.
+     */
+    public static String format(Duration duration) {
+        final char[] buffer = BUFFER.get();
+
+        return new String(buffer, 0, format(duration, buffer, 0));
+    }
+
+    /**
+     * Formats a duration with a days component into a char array.
+     *
+     * @param duration The duration to format.
+     * @param buffer   The array the duration is written to.
+     * @param offset   The index in {@code buffer} of the first char written, at least {@link #MAX_LENGTH} chars must
+     *                 be available from it.
+     * @return The number of chars written.
+     */
+    public static int format(Duration duration, char[] buffer, int offset) {
+        long seconds = duration.getSeconds();
+        int nanos = duration.getNano();
+        int position = offset;
+
+        if (seconds == 0 && nanos == 0) {
+            buffer[position++] = 'P';
+            buffer[position++] = 'T';
+            buffer[position++] = '0';
+            buffer[position++] = 'S';
+
+            return position - offset;
+        }
+
+        if (seconds == Long.MIN_VALUE && nanos == 0) {
+            // Its magnitude does not fit the seconds of a Duration, so it can only be written with negative components.
+            final String text = duration.toString();
+
+            text.getChars(0, text.length(), buffer, position);
+
+            return text.length();
+        }
+
+        long days;
+        int secondOfDay;
+
+        if (seconds >= 0) {
+            days = seconds / SECONDS_PER_DAY;
+            secondOfDay = (int) (seconds - days * SECONDS_PER_DAY);
+        } else {
+            buffer[position++] = '-';
+
+            // The nanos of a Duration are always positive. Negate one second less than the seconds so Long.MIN_VALUE
+            // does not overflow, and add that second back either to the nanos or to the second of the day.
+            seconds = -(seconds + 1);
+
+            if (nanos > 0) {
+                nanos = NANOS_PER_SECOND - nanos;
+            }
+
+            days = seconds / SECONDS_PER_DAY;
+            secondOfDay = (int) (seconds - days * SECONDS_PER_DAY) + (nanos == 0 ? 1 : 0);
+
+            if (secondOfDay == SECONDS_PER_DAY) {
+                days++;
+                secondOfDay = 0;
+            }
+        }
+
+        final int hours = secondOfDay / 3600;
+        final int minutes = secondOfDay / 60 % 60;
+        final int secondOfMinute = secondOfDay % 60;
+
+        buffer[position++] = 'P';
+
+        if (days > 0) {
+            position = writeNumber(days, buffer, position);
+            buffer[position++] = 'D';
+        }
+
+        if (secondOfDay == 0 && nanos == 0) {
+            return position - offset;
+        }
+
+        buffer[position++] = 'T';
+
+        if (hours > 0) {
+            position = writeNumber(hours, buffer, position);
+            buffer[position++] = 'H';
+        }
+
+        if (minutes > 0) {
+            position = writeNumber(minutes, buffer, position);
+            buffer[position++] = 'M';
+        }
+
+        if (secondOfMinute > 0 || nanos > 0) {
+            position = writeNumber(secondOfMinute, buffer, position);
+
+            if (nanos > 0) {
+                buffer[position++] = '.';
+
+                int digits = 9;
+
+                // Remove trailing zeros.
+                while (nanos % 10 == 0) {
+                    nanos /= 10;
+                    digits--;
+                }
+
+                for (int i = position + digits - 1; i >= position; i--) {
+                    buffer[i] = (char) ('0' + nanos % 10);
+                    nanos /= 10;
+                }
+
+                position += digits;
+            }
+
+            buffer[position++] = 'S';
+        }
+
+        return position - offset;
+    }
+
+    /**
+     * Parses an ISO 8601 duration.
+     *
+     * @param text The text to parse.
+     * @return The parsed duration.
+     * @throws org.threeten.bp.format.DateTimeParseException If the text is not a valid duration.
+     */
+    public static Duration parse(String text) {
+        final Duration duration = parseCommonForm(text);
+
+        return duration != null ? duration : Duration.parse(text);
+    }
+
+    /**
+     * Parses the {@code [-]P[nD][T[nH][nM][n[.f]S]]} form with unsigned components small enough not to overflow.
+     *
+     * @return The parsed duration, or {@code null} if the text has any other form.
+     */
+    private static Duration parseCommonForm(String text) {
+        final int length = text.length();
+        int position = 0;
+        final boolean negative = length > 0 && text.charAt(0) == '-';
+
+        if (negative) {
+            position++;
+        }
+
+        if (position >= length || text.charAt(position++) != 'P') {
+            return null;
+        }
+
+        long seconds = 0;
+        int nanos = 0;
+        int components = 0;
+        long value = readNumber(text, position, MAX_DAY_DIGITS);
+
+        if (value == -2) {
+            return null;
+        }
+
+        if (value >= 0) {
+            position = skipDigits(text, position);
+
+            if (position >= length || text.charAt(position++) != 'D') {
+                return null;
+            }
+
+            seconds = value * SECONDS_PER_DAY;
+            components++;
+        }
+
+        if (position < length) {
+            if (text.charAt(position++) != 'T' || position == length) {
+                return null;
+            }
+
+            // Hours, minutes and seconds, each optional but in that order.
+            char previousDesignator = 'T';
+
+            while (position < length) {
+                value = readNumber(text, position, MAX_TIME_DIGITS);
+
+                if (value < 0) {
+                    return null;
+                }
+
+                position = skipDigits(text, position);
+
+                if (position == length) {
+                    return null;
+                }
+
+                final char designator = text.charAt(position++);
+
+                if (designator == 'H' && previousDesignator == 'T') {
+                    seconds += value * 3600;
+                } else if (designator == 'M' && (previousDesignator == 'T' || previousDesignator == 'H')) {
+                    seconds += value * 60;
+                } else if (designator == 'S' && previousDesignator != 'S') {
+                    seconds += value;
+                } else if (designator == '.' && previousDesignator != 'S') {
+                    seconds += value;
+
+                    final int fractionStart = position;
+                    int scale = 100_000_000;
+
+                    while (position < length && position - fractionStart < 9) {
+                        final int digit = text.charAt(position) - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        }
+
+                        nanos += digit * scale;
+                        scale /= 10;
+                        position++;
+                    }
+
+                    if (position == fractionStart || position + 1 != length || text.charAt(position++) != 'S') {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+
+                previousDesignator = designator == '.' ? 'S' : designator;
+                components++;
+            }
+        }
+
+        if (components == 0) {
+            return null;
+        }
+
+        return negative ? Duration.ofSeconds(-seconds, -nanos) : Duration.ofSeconds(seconds, nanos);
+    }
+
+    /**
+     * Reads the digits starting at a position.
+     *
+     * @return The value of the digits, {@code -1} if there is no digit at the position, or {@code -2} if there are
+     * more than {@code maxDigits} digits.
+     */
+    private static long readNumber(String text, int position, int maxDigits) {
+        final int length = text.length();
+        long value = 0;
+        int digits = 0;
+
+        while (position < length) {
+            final int digit = text.charAt(position++) - '0';
+
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+
+            if (++digits > maxDigits) {
+                return -2;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return digits == 0 ? -1 : value;
+    }
+
+    private static int skipDigits(String text, int position) {
+        final int length = text.length();
+
+        while (position < length && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+            position++;
+        }
+
+        return position;
+    }
+
+    private static int writeNumber(long value, char[] buffer, int position) {
+        int digits = 1;
+
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return position + digits;
+    }
+}
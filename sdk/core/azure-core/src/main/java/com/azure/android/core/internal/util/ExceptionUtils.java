@@ -4,21 +4,37 @@
 package com.azure.android.core.internal.util;
 
 import com.azure.android.core.http.exception.HttpResponseException;
+import com.azure.android.core.internal.util.serializer.ContentType;
 import com.azure.android.core.internal.util.serializer.SerializerAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerFormat;
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Internal utility type to deal with exceptions.
  */
 public class ExceptionUtils {
+    /**
+     * The maximum number of bytes of an error body read to create an exception.
+     */
+    private static final long MAX_ERROR_BODY_SIZE = 64 * 1024;
+
+    private static final ConcurrentMap<Class<?>, ExceptionFactory> EXCEPTION_FACTORIES = new ConcurrentHashMap<>();
+
     private ExceptionUtils() {
     }
 
@@ -33,41 +49,40 @@ public class ExceptionUtils {
     public static RuntimeException createException(Map<Integer, Class<? extends HttpResponseException>> exceptionMapping,
                                                    Response response,
                                                    SerializerAdapter serializerAdapter) {
-        Class<? extends HttpResponseException> exceptionType = null;
-        Class<? extends HttpResponseException> defaultExceptionType = null;
-
-        for (Map.Entry<Integer, Class<? extends HttpResponseException>> mapping : exceptionMapping.entrySet()) {
-            if (mapping.getKey() == response.code()) {
-                exceptionType = mapping.getValue();
-            } else if (mapping.getKey() == -1) {
-                defaultExceptionType = mapping.getValue();
-            }
+        Class<? extends HttpResponseException> exceptionType = exceptionMapping.get(response.code());
+
+        if (exceptionType == null) {
+            exceptionType = exceptionMapping.get(-1);
         }
 
-        exceptionType = exceptionType == null
-            ? (defaultExceptionType == null ? HttpResponseException.class : defaultExceptionType)
-            : exceptionType;
+        if (exceptionType == null) {
+            exceptionType = HttpResponseException.class;
+        }
 
-        Class<?> exceptionValueType = Object.class;
+        final ExceptionFactory exceptionFactory = exceptionFactoryOf(exceptionType);
         String errorContent = "";
         Object errorContentDecoded = null;
         final ResponseBody errorBody = response.body();
 
-        if (errorBody != null && errorBody.source() != null) {
-            errorContent = errorBody.source().getBuffer().readUtf8();
+        if (errorBody != null) {
+            final String contentTypeHeader = response.header("Content-Type");
+            final ContentType contentType = contentTypeHeader == null ? null : ContentType.parse(contentTypeHeader);
+            final SerializerFormat format =
+                contentType == null ? SerializerFormat.JSON : contentType.getSerializerFormat();
+            final Charset charset = contentType == null ? UTF_8 : contentType.getCharset(UTF_8);
+            final Buffer errorContentBytes = new Buffer();
+            final boolean complete = readErrorBody(errorBody.source(), errorContentBytes);
 
-            if (errorContent.length() >= 0) {
-                try {
-                    final Method exceptionValueMethod = exceptionType.getDeclaredMethod("value");
-                    exceptionValueType = exceptionValueMethod.getReturnType();
-                } catch (NoSuchMethodException e) {
-                    exceptionValueType = Object.class;
-                }
+            errorContent = errorContentBytes.clone().readString(charset);
 
+            // A truncated body cannot be decoded, it is only reported in the message.
+            if (complete) {
                 try {
-                    errorContentDecoded = serializerAdapter.deserialize(errorContent, exceptionValueType,
-                        SerializerFormat.fromHeaders(response.headers()));
-                } catch (IOException ignored) {
+                    // UTF-8 content is deserialized from the bytes, other charsets from the decoded content.
+                    errorContentDecoded = UTF_8.equals(charset)
+                        ? serializerAdapter.deserialize(errorContentBytes, exceptionFactory.valueType, format)
+                        : serializerAdapter.deserialize(errorContent, exceptionFactory.valueType, format);
+                } catch (IOException | MalformedValueException ignored) {
                     // Ignored
                 }
             }
@@ -77,11 +92,14 @@ public class ExceptionUtils {
         RuntimeException exception;
 
         try {
-            final Constructor<? extends HttpResponseException> exceptionConstructor =
-                exceptionType.getConstructor(String.class, Response.class, exceptionValueType);
-            exception =
-                exceptionConstructor.newInstance("Status code " + response.code() + ", " + errorBodyRepresentation,
-                    response, errorContentDecoded);
+            if (exceptionFactory.constructor == null) {
+                // Only the missing constructor is cached, each failure gets its own exception.
+                throw new NoSuchMethodException(exceptionType.getName() + ".<init>(" + String.class.getName() + ", "
+                    + Response.class.getName() + ", " + exceptionFactory.valueType.getName() + ")");
+            }
+
+            exception = exceptionFactory.constructor.newInstance(
+                "Status code " + response.code() + ", " + errorBodyRepresentation, response, errorContentDecoded);
         } catch (ReflectiveOperationException e) {
             String message =
                 "Status code " + response.code() + ", but an instance of " + exceptionType.getCanonicalName() + " " +
@@ -91,4 +109,82 @@ public class ExceptionUtils {
 
         return exception;
     }
+
+    private static ExceptionFactory exceptionFactoryOf(Class<? extends HttpResponseException> exceptionType) {
+        final ExceptionFactory exceptionFactory = EXCEPTION_FACTORIES.get(exceptionType);
+
+        if (exceptionFactory != null) {
+            return exceptionFactory;
+        }
+
+        final ExceptionFactory newExceptionFactory = new ExceptionFactory(exceptionType);
+        final ExceptionFactory existingExceptionFactory =
+            EXCEPTION_FACTORIES.putIfAbsent(exceptionType, newExceptionFactory);
+
+        return existingExceptionFactory == null ? newExceptionFactory : existingExceptionFactory;
+    }
+
+    /**
+     * Reads at most {@link #MAX_ERROR_BODY_SIZE} bytes of an error body.
+     *
+     * @return Whether the whole body was read.
+     */
+    private static boolean readErrorBody(BufferedSource source, Buffer errorContentBytes) {
+        boolean complete;
+
+        try {
+            complete = !source.request(MAX_ERROR_BODY_SIZE + 1);
+        } catch (IOException e) {
+            // Only what could be read is reported.
+            complete = false;
+        }
+
+        final Buffer buffer = source.getBuffer();
+
+        errorContentBytes.write(buffer, Math.min(buffer.size(), MAX_ERROR_BODY_SIZE));
+
+        return complete;
+    }
+
+    /**
+     * The value type and the constructor of an exception type, looked up once per type.
+     */
+    private static final class ExceptionFactory {
+        final Class<?> valueType;
+        final Constructor<? extends HttpResponseException> constructor;
+
+        ExceptionFactory(Class<? extends HttpResponseException> exceptionType) {
+            // The value type is the return type of value(), or of a covariant getValue() override.
+            Class<?> exceptionValueType = declaredReturnType(exceptionType, "value");
+
+            if (exceptionValueType == null) {
+                exceptionValueType = declaredReturnType(exceptionType, "getValue");
+            }
+
+            if (exceptionValueType == null) {
+                exceptionValueType = Object.class;
+            }
+
+            Constructor<? extends HttpResponseException> exceptionConstructor;
+
+            try {
+                exceptionConstructor = exceptionType.getConstructor(String.class, Response.class, exceptionValueType);
+            } catch (NoSuchMethodException e) {
+                exceptionConstructor = null;
+            }
+
+            this.valueType = exceptionValueType;
+            this.constructor = exceptionConstructor;
+        }
+
+        private static Class<?> declaredReturnType(Class<?> type, String methodName) {
+            try {
+                final Method method = type.getDeclaredMethod(methodName);
+
+                return method.getReturnType();
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,180 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import androidx.annotation.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parsed value of a Content-Type header: the media type, its charset parameter and the matching
+ * {@link SerializerFormat}.
+ * <p>
+ * The header value is scanned in place and services only send a handful of distinct values, so parsed values are
+ * cached per header value.
+ */
+public final class ContentType {
+    private static final int MAX_CACHE_SIZE = 64;
+    private static final ConcurrentMap<String, ContentType> CACHE = new ConcurrentHashMap<>();
+
+    private final String mediaType;
+    private final Charset charset;
+    private final SerializerFormat serializerFormat;
+
+    private ContentType(String mediaType, Charset charset) {
+        this.mediaType = mediaType;
+        this.charset = charset;
+        this.serializerFormat = "application/xml".equals(mediaType) || "text/xml".equals(mediaType)
+            ? SerializerFormat.XML
+            : SerializerFormat.JSON;
+    }
+
+    /**
+     * Parses a Content-Type header value, such as {@code application/xml; charset=utf-8}.
+     *
+     * @param headerValue The header value.
+     * @return The parsed value.
+     */
+    public static ContentType parse(String headerValue) {
+        ContentType contentType = CACHE.get(headerValue);
+
+        if (contentType == null) {
+            contentType = parseUncached(headerValue);
+
+            // Values are only expected to vary by service, a growing cache means they are generated.
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+
+            CACHE.put(headerValue, contentType);
+        }
+
+        return contentType;
+    }
+
+    /**
+     * Gets the media type, in lower case and without parameters.
+     *
+     * @return The media type, such as {@code application/xml}.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Gets the charset parameter.
+     *
+     * @return The charset, or {@code null} if there is no charset parameter or it is not supported.
+     */
+    @Nullable
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Gets the charset parameter, or a default one.
+     *
+     * @param defaultCharset The charset to use if there is no supported charset parameter.
+     * @return The charset.
+     */
+    public Charset getCharset(Charset defaultCharset) {
+        return charset == null ? defaultCharset : charset;
+    }
+
+    /**
+     * Gets the serializer format to use for a body of this content type.
+     *
+     * @return The serializer format.
+     */
+    public SerializerFormat getSerializerFormat() {
+        return serializerFormat;
+    }
+
+    private static ContentType parseUncached(String headerValue) {
+        final int length = headerValue.length();
+        int start = skipWhitespace(headerValue, 0);
+        int end = indexOf(headerValue, ';', start);
+        final String mediaType = trimTrailingWhitespace(headerValue, start, end).toLowerCase(Locale.ROOT);
+        String charsetName = null;
+
+        while (end < length) {
+            // Parameters are "; name=value", with an optionally quoted value.
+            start = skipWhitespace(headerValue, end + 1);
+            end = indexOf(headerValue, ';', start);
+
+            final int equals = indexOf(headerValue, '=', start);
+
+            if (equals >= end) {
+                continue;
+            }
+
+            final String name = trimTrailingWhitespace(headerValue, start, equals);
+
+            if (!"charset".equalsIgnoreCase(name)) {
+                continue;
+            }
+
+            int valueStart = skipWhitespace(headerValue, equals + 1);
+            int valueEnd = trimmedEnd(headerValue, valueStart, end);
+
+            if (valueEnd - valueStart >= 2 && headerValue.charAt(valueStart) == '"'
+                && headerValue.charAt(valueEnd - 1) == '"') {
+                valueStart++;
+                valueEnd--;
+            }
+
+            charsetName = headerValue.substring(valueStart, valueEnd);
+
+            break;
+        }
+
+        return new ContentType(mediaType, toCharset(charsetName));
+    }
+
+    private static Charset toCharset(String charsetName) {
+        if (charsetName == null || charsetName.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            // Illegal or unsupported charset names.
+            return null;
+        }
+    }
+
+    private static int indexOf(String value, char character, int start) {
+        final int index = value.indexOf(character, start);
+
+        return index < 0 ? value.length() : index;
+    }
+
+    private static int skipWhitespace(String value, int start) {
+        while (start < value.length() && isWhitespace(value.charAt(start))) {
+            start++;
+        }
+
+        return start;
+    }
+
+    private static int trimmedEnd(String value, int start, int end) {
+        while (end > start && isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+
+        return end;
+    }
+
+    private static String trimTrailingWhitespace(String value, int start, int end) {
+        return value.substring(start, trimmedEnd(value, start, end));
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
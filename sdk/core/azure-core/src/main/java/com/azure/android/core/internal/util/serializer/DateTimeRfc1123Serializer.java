@@ -3,6 +3,7 @@
 
 package com.azure.android.core.internal.util.serializer;
 
+import com.azure.android.core.internal.util.DateTimeRfc1123Codec;
 import com.azure.android.core.util.DateTimeRfc1123;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -31,7 +32,7 @@ final class DateTimeRfc1123Serializer extends JsonSerializer<DateTimeRfc1123> {
     @Override
     public void serialize(DateTimeRfc1123 value, JsonGenerator jsonGenerator, SerializerProvider provider)
         throws IOException {
-        //Use the default toString as it is RFC1123.
-        jsonGenerator.writeString(value.toString());
+        // The codec formats into its own per-thread buffer and falls back to the general formatter.
+        jsonGenerator.writeString(DateTimeRfc1123Codec.format(value.getDateTime()));
     }
 }
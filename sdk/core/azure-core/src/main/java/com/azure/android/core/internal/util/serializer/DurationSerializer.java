@@ -3,6 +3,7 @@
 
 package com.azure.android.core.internal.util.serializer;
 
+import com.azure.android.core.internal.util.DurationCodec;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,7 +11,6 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import org.threeten.bp.Duration;
-import org.threeten.bp.temporal.ChronoUnit;
 
 import java.io.IOException;
 
@@ -33,7 +33,7 @@ final class DurationSerializer extends JsonSerializer<Duration> {
     @Override
     public void serialize(Duration duration, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
         throws IOException {
-        jsonGenerator.writeString(DurationSerializer.toString(duration));
+        jsonGenerator.writeString(DurationCodec.format(duration));
     }
 
     /**
@@ -43,97 +43,6 @@ final class DurationSerializer extends JsonSerializer<Duration> {
      * @return The string representation of the provided {@link Duration}.
      */
     public static String toString(Duration duration) {
-        String result = null;
-
-        if (duration != null) {
-            if (duration.get(ChronoUnit.MILLIS) == 0) {
-                result = "PT0S";
-            } else {
-                final StringBuilder builder = new StringBuilder();
-
-                builder.append('P');
-
-                final long days = duration.get(ChronoUnit.DAYS);
-
-                if (days > 0) {
-                    builder.append(days);
-                    builder.append('D');
-
-                    duration = duration.minusDays(days);
-                }
-
-                final long hours = duration.get(ChronoUnit.HOURS);
-
-                if (hours > 0) {
-                    builder.append('T');
-                    builder.append(hours);
-                    builder.append('H');
-
-                    duration = duration.minusHours(hours);
-                }
-
-                final long minutes = duration.get(ChronoUnit.MINUTES);
-
-                if (minutes > 0) {
-                    if (hours == 0) {
-                        builder.append('T');
-                    }
-
-                    builder.append(minutes);
-                    builder.append('M');
-
-                    duration = duration.minusMinutes(minutes);
-                }
-
-                final long seconds = duration.get(ChronoUnit.SECONDS);
-
-                if (seconds > 0) {
-                    if (hours == 0 && minutes == 0) {
-                        builder.append('T');
-                    }
-
-                    builder.append(seconds);
-
-                    duration = duration.minusSeconds(seconds);
-                }
-
-                long milliseconds = duration.get(ChronoUnit.MILLIS);
-
-                if (milliseconds > 0) {
-                    if (hours == 0 && minutes == 0 && seconds == 0) {
-                        builder.append("T");
-                    }
-
-                    if (seconds == 0) {
-                        builder.append("0");
-                    }
-
-                    builder.append('.');
-
-                    if (milliseconds <= 99) {
-                        builder.append('0');
-
-                        if (milliseconds <= 9) {
-                            builder.append('0');
-                        }
-                    }
-
-                    // Remove trailing zeros.
-                    while (milliseconds % 10 == 0) {
-                        milliseconds /= 10;
-                    }
-
-                    builder.append(milliseconds);
-                }
-
-                if (seconds > 0 || milliseconds > 0) {
-                    builder.append('S');
-                }
-
-                result = builder.toString();
-            }
-        }
-
-        return result;
+        return duration == null ? null : DurationCodec.format(duration);
     }
 }
@@ -0,0 +1,159 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Base class of the deserializers generated for model and headers classes, which read the properties of a JSON object
+ * into the fields of a model without introspecting the class at runtime.
+ * <p>
+ * String values are read from the parser directly, other values by the deserializer Jackson resolves for the declared
+ * type of their field. Those deserializers are resolved on first use and kept by each contextual instance, which
+ * belongs to a single mapper.
+ *
+ * @param <T> The type of the model.
+ */
+public abstract class GeneratedJsonDeserializer<T> extends StdDeserializer<T> implements ContextualDeserializer {
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicReferenceArray<JsonDeserializer<Object>> valueDeserializers;
+
+    /**
+     * Creates a deserializer of a model class.
+     *
+     * @param modelClass    The model class.
+     * @param propertyCount The number of properties of the model, indexing the types given by {@link
+     *                      #constructType(int, TypeFactory)}.
+     */
+    protected GeneratedJsonDeserializer(Class<T> modelClass, int propertyCount) {
+        super(modelClass);
+
+        this.valueDeserializers = new AtomicReferenceArray<>(propertyCount);
+    }
+
+    @Override
+    public final JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property) {
+        // The resolved value deserializers depend on the configuration of the mapper using this deserializer.
+        return newInstance();
+    }
+
+    @Override
+    public final T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        } else if (token == JsonToken.VALUE_STRING
+            && context.isEnabled(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT)
+            && parser.getText().isEmpty()) {
+            return null;
+        }
+
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            @SuppressWarnings("unchecked") final T value = (T) context.handleUnexpectedToken(handledType(), parser);
+
+            return value;
+        }
+
+        return deserializeProperties(parser, context);
+    }
+
+    /**
+     * Creates an instance of this deserializer without any resolved value deserializer.
+     *
+     * @return The new instance.
+     */
+    protected abstract GeneratedJsonDeserializer<T> newInstance();
+
+    /**
+     * Constructs the declared type of a property.
+     *
+     * @param index       The index of the property.
+     * @param typeFactory The type factory of the mapper.
+     * @return The type of the property.
+     */
+    protected abstract JavaType constructType(int index, TypeFactory typeFactory);
+
+    /**
+     * Reads the properties of a JSON object into a new model.
+     *
+     * @param parser  The parser, positioned on the name of the first property or on the end of the object.
+     * @param context The deserialization context.
+     * @return The model, with the parser positioned on the end of the object.
+     * @throws IOException If the properties cannot be read.
+     */
+    protected abstract T deserializeProperties(JsonParser parser, DeserializationContext context) throws IOException;
+
+    /**
+     * Reads the value of a property with the deserializer of its declared type.
+     *
+     * @param parser  The parser, positioned on the value.
+     * @param context The deserialization context.
+     * @param index   The index of the property.
+     * @return The value, which is the null value of the deserializer for a JSON null.
+     * @throws IOException If the value cannot be read.
+     */
+    protected final Object readValue(JsonParser parser, DeserializationContext context, int index)
+        throws IOException {
+        JsonDeserializer<Object> valueDeserializer = valueDeserializers.get(index);
+
+        if (valueDeserializer == null) {
+            // Concurrent first uses may resolve the deserializer more than once, the resolved ones are equivalent.
+            valueDeserializer =
+                context.findContextualValueDeserializer(constructType(index, context.getTypeFactory()), null);
+            valueDeserializers.set(index, valueDeserializer);
+        }
+
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return valueDeserializer.getNullValue(context);
+        }
+
+        return valueDeserializer.deserialize(parser, context);
+    }
+
+    /**
+     * Reads the value of a string property, reading JSON strings from the parser directly.
+     *
+     * @param parser  The parser, positioned on the value.
+     * @param context The deserialization context.
+     * @param index   The index of the property.
+     * @return The value.
+     * @throws IOException If the value cannot be read.
+     */
+    protected final String readString(JsonParser parser, DeserializationContext context, int index)
+        throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+
+        return (String) readValue(parser, context, index);
+    }
+
+    /**
+     * Skips the value of a property that is not part of the model, or fails if unknown properties are not accepted.
+     *
+     * @param parser  The parser, positioned on the value.
+     * @param context The deserialization context.
+     * @param value   The model being read.
+     * @param name    The name of the property.
+     * @throws IOException If unknown properties are not accepted, or the value cannot be skipped.
+     */
+    protected final void handleUnknownProperty(JsonParser parser, DeserializationContext context, Object value,
+                                               String name) throws IOException {
+        context.handleUnknownProperty(parser, this, value, name);
+    }
+}
@@ -0,0 +1,50 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Base class of the serializers generated for model classes, which write the fields of a model as the properties of a
+ * JSON object without introspecting the class at runtime.
+ * <p>
+ * Null fields are omitted, as with the {@code NON_NULL} inclusion of {@link JacksonAdapter}. Values other than
+ * strings, numbers and booleans are written by the serializer Jackson resolves for their runtime type.
+ *
+ * @param <T> The type of the model.
+ */
+public abstract class GeneratedJsonSerializer<T> extends StdSerializer<T> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a serializer of a model class.
+     *
+     * @param modelClass The model class.
+     */
+    protected GeneratedJsonSerializer(Class<T> modelClass) {
+        super(modelClass);
+    }
+
+    @Override
+    public final void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+        serializeProperties(value, generator, provider);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the properties of a model, inside the JSON object started for it.
+     *
+     * @param value     The model.
+     * @param generator The generator to write to.
+     * @param provider  The provider of the serializers of the property values.
+     * @throws IOException If the properties cannot be written.
+     */
+    protected abstract void serializeProperties(T value, JsonGenerator generator, SerializerProvider provider)
+        throws IOException;
+}
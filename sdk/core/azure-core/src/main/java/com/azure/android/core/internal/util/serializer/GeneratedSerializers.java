@@ -0,0 +1,30 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import java.util.List;
+
+/**
+ * The serializers and deserializers generated at compile time for the model and headers classes of a module, by the
+ * {@code azure-core-processor} annotation processor.
+ * <p>
+ * The processor generates one implementation per module and registers it as a service in
+ * {@code META-INF/services}, from where {@link JacksonAdapter} loads it. The generated pairs then replace Jackson's
+ * introspection of those classes for JSON and headers.
+ */
+public interface GeneratedSerializers {
+    /**
+     * Gets the generated serializers, one per model class.
+     *
+     * @return The generated serializers.
+     */
+    List<GeneratedJsonSerializer<?>> getSerializers();
+
+    /**
+     * Gets the generated deserializers, one per model or headers class.
+     *
+     * @return The generated deserializers.
+     */
+    List<GeneratedJsonDeserializer<?>> getDeserializers();
+}
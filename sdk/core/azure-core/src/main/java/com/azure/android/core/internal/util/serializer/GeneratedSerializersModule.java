@@ -0,0 +1,116 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import android.util.Log;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Module registering the {@link GeneratedSerializers} found on the class path, loaded once per process.
+ * <p>
+ * Unlike the serializers of a {@link com.fasterxml.jackson.databind.module.SimpleModule}, which also apply to the
+ * subclasses of their type, a generated serializer only applies to its own model class since it only writes the fields
+ * declared by that class.
+ */
+final class GeneratedSerializersModule extends Module {
+    static final GeneratedSerializersModule INSTANCE = load();
+
+    private final Map<Class<?>, JsonSerializer<?>> serializers;
+    private final Map<Class<?>, JsonDeserializer<?>> deserializers;
+
+    private GeneratedSerializersModule(Map<Class<?>, JsonSerializer<?>> serializers,
+                                       Map<Class<?>, JsonDeserializer<?>> deserializers) {
+        this.serializers = serializers;
+        this.deserializers = deserializers;
+    }
+
+    /**
+     * Checks whether a class is deserialized by a generated deserializer.
+     *
+     * @param type The class.
+     * @return Whether the class has a generated deserializer.
+     */
+    boolean hasDeserializer(Class<?> type) {
+        return deserializers.containsKey(type);
+    }
+
+    @Override
+    public String getModuleName() {
+        return GeneratedSerializersModule.class.getSimpleName();
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type,
+                                                    BeanDescription beanDesc) {
+                return serializers.get(type.getRawClass());
+            }
+        });
+        context.addDeserializers(new Deserializers.Base() {
+            @Override
+            public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,
+                                                            BeanDescription beanDesc) {
+                return deserializers.get(type.getRawClass());
+            }
+        });
+    }
+
+    private static GeneratedSerializersModule load() {
+        final Map<Class<?>, JsonSerializer<?>> serializers = new HashMap<>();
+        final Map<Class<?>, JsonDeserializer<?>> deserializers = new HashMap<>();
+        final Iterator<GeneratedSerializers> providers = ServiceLoader
+            .load(GeneratedSerializers.class, GeneratedSerializers.class.getClassLoader())
+            .iterator();
+
+        while (true) {
+            final GeneratedSerializers provider;
+
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+
+                provider = providers.next();
+            } catch (ServiceConfigurationError e) {
+                // The classes of a provider that cannot be loaded are introspected by Jackson instead.
+                Log.w("", "Failed to load generated serializers.", e);
+
+                continue;
+            }
+
+            for (GeneratedJsonSerializer<?> serializer : provider.getSerializers()) {
+                serializers.put(serializer.handledType(), serializer);
+            }
+
+            for (GeneratedJsonDeserializer<?> deserializer : provider.getDeserializers()) {
+                deserializers.put(deserializer.handledType(), deserializer);
+            }
+        }
+
+        return new GeneratedSerializersModule(serializers, deserializers);
+    }
+}
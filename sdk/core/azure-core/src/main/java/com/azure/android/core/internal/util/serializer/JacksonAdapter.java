@@ -1,9 +1,9 @@
 package com.azure.android.core.internal.util.serializer;
 
-import android.text.TextUtils;
-import android.util.Log;
-
 import com.azure.android.core.annotation.HeaderCollection;
+import com.azure.android.core.util.DateTimeRfc1123;
+import com.azure.android.core.util.ExpandableStringEnum;
+import com.azure.android.core.util.ModelAccessors;
 import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
 import com.azure.android.core.internal.util.serializer.threeten.ThreeTenModule;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
@@ -13,22 +13,36 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
 
+import org.threeten.bp.Duration;
+import org.threeten.bp.OffsetDateTime;
+
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import okhttp3.Headers;
+import okio.BufferedSource;
+import okio.ByteString;
 
 /**
  * Implementation of {@link SerializerAdapter} for Jackson.
@@ -39,26 +53,80 @@ public class JacksonAdapter implements SerializerAdapter {
      */
     private final ObjectMapper simpleMapper;
     private final ObjectMapper headerMapper;
-    private final XmlMapper xmlMapper;
-    private static SerializerAdapter serializerAdapter;
+    private final boolean strict;
+    private final ModelAccessors modelAccessors;
+
+    /**
+     * The mapper for XML, only created once XML is used since many services only use JSON.
+     */
+    private final AtomicReference<XmlMapper> xmlMapper = new AtomicReference<>();
 
     /**
      * BOM header from some response bodies. To be removed in deserialization.
      */
     private static final String BOM = "\uFEFF";
 
+    /**
+     * UTF-8 encoding of the BOM.
+     */
+    private static final ByteString BOM_BYTES = ByteString.encodeUtf8(BOM);
+
+    /**
+     * Raw serialized form of the enum constants found in lists, which can be annotated with {@code JsonValue}.
+     */
+    private final ConcurrentMap<Enum<?>, String> rawEnumValues = new ConcurrentHashMap<>();
+
+    /**
+     * Readers and writers per type. Jackson resolves the root deserializer or serializer of a type each time a value is
+     * read or written through a mapper, while readers and writers keep the ones they resolved when created.
+     */
+    private final ConcurrentMap<JavaType, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JavaType, ObjectReader> xmlReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JavaType, ObjectReader> headerReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> jsonWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> xmlWriters = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link HeaderCollection} fields of the headers types, found once per type instead of on each response.
+     */
+    private static final ConcurrentMap<Class<?>, HeaderCollectionField[]> HEADER_COLLECTION_FIELDS =
+        new ConcurrentHashMap<>();
+
     /**
      * Creates a new {@link JacksonAdapter} instance with default mapper settings.
      */
     public JacksonAdapter() {
-        simpleMapper = initializeObjectMapper(new ObjectMapper());
+        this(false, null);
+    }
+
+    /**
+     * Creates a new {@link JacksonAdapter} instance with default mapper settings, serializing and deserializing the
+     * fields of the model classes registered in {@code modelAccessors} through their accessors instead of reflection.
+     *
+     * @param modelAccessors The accessors of model fields.
+     */
+    public JacksonAdapter(ModelAccessors modelAccessors) {
+        this(false, modelAccessors);
+    }
+
+    /**
+     * Creates a new {@link JacksonAdapter} instance.
+     *
+     * @param strict       Whether deserialization fails on properties that are not part of the deserialized type,
+     *                     instead of ignoring them.
+     * @param modelAccessors The accessors of model fields, {@code null} to access all fields reflectively.
+     */
+    private JacksonAdapter(boolean strict, ModelAccessors modelAccessors) {
+        this.strict = strict;
+        this.modelAccessors = modelAccessors;
+        // The generated serializers only apply to JSON, XML models are always introspected by Jackson.
+        simpleMapper = initializeObjectMapper(new ObjectMapper(), strict, modelAccessors)
+            .registerModule(GeneratedSerializersModule.INSTANCE);
+        // Responses have many more headers than the deserialized headers type declares.
         headerMapper = simpleMapper
             .copy()
-            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        xmlMapper = initializeObjectMapper(new XmlMapper());
-
-        xmlMapper.configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true);
-        xmlMapper.setDefaultUseWrapper(false);
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
     /**
@@ -71,16 +139,22 @@ public class JacksonAdapter implements SerializerAdapter {
     }
 
     /**
-     * Maintain singleton instance of the default {@link SerializerAdapter}.
+     * Gets the process-wide instance of the default {@link SerializerAdapter}, which ignores unknown properties.
      *
      * @return The default {@link SerializerAdapter}.
      */
-    public static synchronized SerializerAdapter createDefaultSerializerAdapter() {
-        if (serializerAdapter == null) {
-            serializerAdapter = new JacksonAdapter();
-        }
+    public static SerializerAdapter createDefaultSerializerAdapter() {
+        return DefaultAdapterHolder.INSTANCE;
+    }
 
-        return serializerAdapter;
+    /**
+     * Gets the process-wide instance of the strict {@link SerializerAdapter}, whose deserialization fails on
+     * properties that are not part of the deserialized type.
+     *
+     * @return The strict {@link SerializerAdapter}.
+     */
+    public static SerializerAdapter createStrictSerializerAdapter() {
+        return StrictAdapterHolder.INSTANCE;
     }
 
     /**
@@ -98,11 +172,7 @@ public class JacksonAdapter implements SerializerAdapter {
 
         StringWriter writer = new StringWriter();
 
-        if (encoding == SerializerFormat.XML) {
-            xmlMapper.writeValue(writer, object);
-        } else {
-            serializer().writeValue(writer, object);
-        }
+        writerFor(object.getClass(), encoding).writeValue(writer, object);
 
         return writer.toString();
     }
@@ -113,15 +183,20 @@ public class JacksonAdapter implements SerializerAdapter {
             return null;
         }
 
-        List<String> serialized = new ArrayList<>();
+        final String delimiter = format.getDelimiter();
+        final StringBuilder builder = new StringBuilder();
+        boolean first = true;
 
         for (Object element : list) {
-            String raw = serializeRaw(element);
+            if (!first) {
+                builder.append(delimiter);
+            }
 
-            serialized.add(raw != null ? raw : "");
+            appendRaw(builder, element);
+            first = false;
         }
 
-        return TextUtils.join(format.getDelimiter(), serialized);
+        return builder.toString();
     }
 
     @Override
@@ -131,87 +206,128 @@ public class JacksonAdapter implements SerializerAdapter {
             return null;
         }
 
-        // Remove BOM
-        if (value.startsWith(BOM)) {
-            value = value.replaceFirst(BOM, "");
-        }
-
         final JavaType javaType = createJavaType(type);
 
         try {
-            if (encoding == SerializerFormat.XML) {
-                return (T) xmlMapper.readValue(value, javaType);
-            } else {
-                return (T) serializer().readValue(value, javaType);
+            final ObjectReader objectReader = readerFor(javaType, encoding);
+
+            if (value.startsWith(BOM)) {
+                // Skip the BOM without copying the rest of the value.
+                final StringReader reader = new StringReader(value);
+
+                //noinspection ResultOfMethodCallIgnored
+                reader.skip(BOM.length());
+
+                return (T) objectReader.readValue(reader);
             }
+
+            return (T) objectReader.readValue(value);
         } catch (JsonParseException jpe) {
             // TODO(@anuchan): Log this error once we've logger abstraction.
             throw new MalformedValueException(jpe.getMessage(), jpe);
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(BufferedSource source, Type type, SerializerFormat encoding) throws IOException {
+        if (source.rangeEquals(0, BOM_BYTES)) {
+            source.skip(BOM_BYTES.size());
+        }
+
+        if (source.exhausted()) {
+            return null;
+        }
+
+        final JavaType javaType = createJavaType(type);
+
+        try {
+            return (T) readerFor(javaType, encoding).readValue(source.inputStream());
+        } catch (JsonParseException jpe) {
+            throw new MalformedValueException(jpe.getMessage(), jpe);
+        }
+    }
+
+    /**
+     * Creates a reader returning the items of an XML listing one at a time, while the listing is read from the source.
+     *
+     * @param source          The source of the XML listing, closed once the listing has been read.
+     * @param itemElementName The name of the elements holding the list items, such as {@code Blob}.
+     * @param itemType        The type of the list items.
+     * @param <T>             The type of the list items.
+     * @return The listing reader.
+     * @throws IOException If the start of the listing cannot be read.
+     */
+    public <T> XmlListingReader<T> deserializeXmlListing(BufferedSource source, String itemElementName, Type itemType)
+        throws IOException {
+        if (source.rangeEquals(0, BOM_BYTES)) {
+            source.skip(BOM_BYTES.size());
+        }
+
+        return new XmlListingReader<>(xmlMapper(), source.inputStream(), itemElementName, createJavaType(itemType));
+    }
+
+    @Override
+    public void warmUp(Type type, SerializerFormat encoding) {
+        final JavaType javaType = createJavaType(type);
+
+        readerFor(javaType, encoding);
+
+        if (!javaType.isAbstract()) {
+            writerFor(javaType.getRawClass(), encoding);
+        }
+    }
+
     @Override
     public <T> T deserialize(Headers headers, Type deserializedHeadersType) throws IOException {
         if (deserializedHeadersType == null) {
             return null;
         }
 
-        Map<String, String> headersMap = new HashMap<>();
+        final JavaType deserializedHeadersJavaType = createJavaType(deserializedHeadersType);
+        ObjectReader headerReader = headerReaders.get(deserializedHeadersJavaType);
+
+        if (headerReader == null) {
+            headerReader = headerMapper.readerFor(deserializedHeadersJavaType);
+            headerReaders.put(deserializedHeadersJavaType, headerReader);
+        }
+
+        // The headers are read as the fields of an object, buffered as tokens rather than written as JSON text.
+        final TokenBuffer headersBuffer = new TokenBuffer(headerMapper, false);
+
+        headersBuffer.writeStartObject();
 
         for (String headerName : headers.names()) {
-            headersMap.put(headerName, headers.get(headerName));
+            headersBuffer.writeStringField(headerName, headers.get(headerName));
         }
 
-        final String headersJsonString = headerMapper.writeValueAsString(headersMap);
-        T deserializedHeaders = headerMapper.readValue(headersJsonString, createJavaType(deserializedHeadersType));
+        headersBuffer.writeEndObject();
+
+        T deserializedHeaders = headerReader.readValue(headersBuffer.asParser());
         final Class<?> deserializedHeadersClass = getRawClass(deserializedHeadersType);
-        final Field[] declaredFields = deserializedHeadersClass.getDeclaredFields();
-
-        for (final Field declaredField : declaredFields) {
-            if (declaredField.isAnnotationPresent(HeaderCollection.class)) {
-                final Type declaredFieldType = declaredField.getGenericType();
-
-                if (isTypeOrSubTypeOf(declaredField.getType(), Map.class)) {
-                    final Type[] mapTypeArguments = getTypeArguments(declaredFieldType);
-
-                    if (mapTypeArguments.length == 2
-                        && mapTypeArguments[0] == String.class
-                        && mapTypeArguments[1] == String.class) {
-                        final HeaderCollection headerCollectionAnnotation =
-                            declaredField.getAnnotation(HeaderCollection.class);
-                        final String headerCollectionPrefix =
-                            headerCollectionAnnotation.value().toLowerCase(Locale.ROOT);
-                        final int headerCollectionPrefixLength = headerCollectionPrefix.length();
-
-                        if (headerCollectionPrefixLength > 0) {
-                            final Map<String, String> headerCollection = new HashMap<>();
-
-                            for (String headerName : headers.names()) {
-                                if (headerName.toLowerCase(Locale.ROOT).startsWith(headerCollectionPrefix)) {
-                                    headerCollection.put(headerName.substring(headerCollectionPrefixLength),
-                                        headers.get(headerName));
-                                }
-                            }
-
-                            final boolean declaredFieldAccessibleBackup = declaredField.isAccessible();
-
-                            try {
-                                if (!declaredFieldAccessibleBackup) {
-                                    declaredField.setAccessible(true);
-                                }
-
-                                declaredField.set(deserializedHeaders, headerCollection);
-                            } catch (IllegalAccessException ignored) {
-                                // Ignored
-                            } finally {
-                                if (!declaredFieldAccessibleBackup) {
-                                    declaredField.setAccessible(declaredFieldAccessibleBackup);
-                                }
-                            }
-                        }
-                    }
+
+        if (GeneratedSerializersModule.INSTANCE.hasDeserializer(deserializedHeadersClass)) {
+            // Generated deserializers fill the header collections while reading the headers.
+            return deserializedHeaders;
+        }
+
+        for (HeaderCollectionField headerCollectionField
+            : headerCollectionFieldsOf(deserializedHeadersClass)) {
+            final String headerCollectionPrefix = headerCollectionField.prefix;
+            final int headerCollectionPrefixLength = headerCollectionPrefix.length();
+            final Map<String, String> headerCollection = new HashMap<>();
+
+            for (String headerName : headers.names()) {
+                if (headerName.regionMatches(true, 0, headerCollectionPrefix, 0, headerCollectionPrefixLength)) {
+                    headerCollection.put(headerName.substring(headerCollectionPrefixLength), headers.get(headerName));
                 }
             }
+
+            try {
+                headerCollectionField.field.set(deserializedHeaders, headerCollection);
+            } catch (IllegalAccessException ignored) {
+                // Ignored
+            }
         }
 
         return deserializedHeaders;
@@ -220,14 +336,17 @@ public class JacksonAdapter implements SerializerAdapter {
     /**
      * Initializes an instance of JacksonMapperAdapter with default configurations applied to the object mapper.
      *
-     * @param mapper The object mapper to use.
+     * @param mapper         The object mapper to use.
+     * @param strict         Whether deserialization fails on unknown properties.
+     * @param modelAccessors The accessors of model fields, if any.
      */
-    private static <T extends ObjectMapper> T initializeObjectMapper(T mapper) {
+    private static <T extends ObjectMapper> T initializeObjectMapper(T mapper, boolean strict,
+                                                                     ModelAccessors modelAccessors) {
         mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
             .configure(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS, true)
             .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
             .configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true)
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, strict)
             .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true)
             .setSerializationInclusion(JsonInclude.Include.NON_NULL)
             .registerModule(new ThreeTenModule())
@@ -242,9 +361,56 @@ public class JacksonAdapter implements SerializerAdapter {
             .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
             .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE));
 
+        if (modelAccessors != null) {
+            mapper.registerModule(new ModelAccessorsModule(modelAccessors));
+        }
+
+        return mapper;
+    }
+
+    private XmlMapper xmlMapper() {
+        XmlMapper mapper = xmlMapper.get();
+
+        if (mapper == null) {
+            // Concurrent first uses may each create a mapper, only the first one set is kept.
+            final XmlMapper newMapper = initializeObjectMapper(new XmlMapper(), strict, modelAccessors);
+
+            newMapper.configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true);
+            newMapper.setDefaultUseWrapper(false);
+            xmlMapper.compareAndSet(null, newMapper);
+            mapper = xmlMapper.get();
+        }
+
         return mapper;
     }
 
+    private ObjectReader readerFor(JavaType javaType, SerializerFormat encoding) {
+        final boolean xml = encoding == SerializerFormat.XML;
+        final ConcurrentMap<JavaType, ObjectReader> readers = xml ? xmlReaders : jsonReaders;
+        ObjectReader reader = readers.get(javaType);
+
+        if (reader == null) {
+            // Concurrent first uses may create several equivalent readers, any of them can be kept.
+            reader = (xml ? xmlMapper() : serializer()).readerFor(javaType);
+            readers.put(javaType, reader);
+        }
+
+        return reader;
+    }
+
+    private ObjectWriter writerFor(Class<?> valueClass, SerializerFormat encoding) {
+        final boolean xml = encoding == SerializerFormat.XML;
+        final ConcurrentMap<Class<?>, ObjectWriter> writers = xml ? xmlWriters : jsonWriters;
+        ObjectWriter writer = writers.get(valueClass);
+
+        if (writer == null) {
+            writer = (xml ? xmlMapper() : serializer()).writerFor(valueClass);
+            writers.put(valueClass, writer);
+        }
+
+        return writer;
+    }
+
     private JavaType createJavaType(Type type) {
         JavaType result;
 
@@ -271,6 +437,43 @@ public class JacksonAdapter implements SerializerAdapter {
         return result;
     }
 
+    private static HeaderCollectionField[] headerCollectionFieldsOf(Class<?> headersClass) {
+        HeaderCollectionField[] headerCollectionFields = HEADER_COLLECTION_FIELDS.get(headersClass);
+
+        if (headerCollectionFields != null) {
+            return headerCollectionFields;
+        }
+
+        final List<HeaderCollectionField> fields = new ArrayList<>();
+
+        for (final Field declaredField : headersClass.getDeclaredFields()) {
+            if (!declaredField.isAnnotationPresent(HeaderCollection.class)
+                || !isTypeOrSubTypeOf(declaredField.getType(), Map.class)) {
+                continue;
+            }
+
+            final Type[] mapTypeArguments = getTypeArguments(declaredField.getGenericType());
+
+            if (mapTypeArguments.length == 2
+                && mapTypeArguments[0] == String.class
+                && mapTypeArguments[1] == String.class) {
+                final String headerCollectionPrefix =
+                    declaredField.getAnnotation(HeaderCollection.class).value().toLowerCase(Locale.ROOT);
+
+                if (headerCollectionPrefix.length() > 0) {
+                    // The field is only used by this adapter, it can stay accessible.
+                    declaredField.setAccessible(true);
+                    fields.add(new HeaderCollectionField(declaredField, headerCollectionPrefix));
+                }
+            }
+        }
+
+        headerCollectionFields = fields.toArray(new HeaderCollectionField[0]);
+        HEADER_COLLECTION_FIELDS.put(headersClass, headerCollectionFields);
+
+        return headerCollectionFields;
+    }
+
     private static Class<?> getRawClass(Type type) {
         if (type instanceof ParameterizedType) {
             return (Class<?>) ((ParameterizedType) type).getRawType();
@@ -294,19 +497,125 @@ public class JacksonAdapter implements SerializerAdapter {
         return ((ParameterizedType) type).getActualTypeArguments();
     }
 
+    /**
+     * Appends the serialized form of a list element, without quotes. Scalars are formatted directly, as Jackson would,
+     * and only other elements go through a full serialization.
+     */
+    private void appendRaw(StringBuilder builder, Object element) {
+        if (element == null) {
+            return;
+        }
+
+        if (element instanceof String || element instanceof ExpandableStringEnum) {
+            final String value = element.toString();
+
+            if (!needsJsonEscaping(value)) {
+                builder.append(value);
+
+                return;
+            }
+        } else if (element instanceof Integer || element instanceof Long || element instanceof Short
+            || element instanceof Byte || element instanceof Double || element instanceof Float
+            || element instanceof Boolean || element instanceof BigInteger || element instanceof BigDecimal
+            || element instanceof DateTimeRfc1123) {
+            builder.append(element.toString());
+
+            return;
+        } else if (element instanceof OffsetDateTime) {
+            builder.append(DateTimeSerializer.toString((OffsetDateTime) element));
+
+            return;
+        } else if (element instanceof Duration) {
+            builder.append(DurationSerializer.toString((Duration) element));
+
+            return;
+        } else if (element instanceof Enum<?>) {
+            final Enum<?> constant = (Enum<?>) element;
+            String value = rawEnumValues.get(constant);
+
+            if (value == null) {
+                value = serializeRaw(constant);
+
+                if (value != null) {
+                    rawEnumValues.put(constant, value);
+                }
+            }
+
+            if (value != null) {
+                builder.append(value);
+            }
+
+            return;
+        }
+
+        final String raw = serializeRaw(element);
+
+        if (raw != null) {
+            builder.append(raw);
+        }
+    }
+
+    /**
+     * Checks whether Jackson would escape any character of a string.
+     */
+    private static boolean needsJsonEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private String serializeRaw(Object object) {
         if (object == null) {
             return null;
         }
 
         try {
-            return serialize(object, SerializerFormat.JSON)
-                .replaceAll("^\"*", "")
-                .replaceAll("\"*$", "");
+            final String serialized = serialize(object, SerializerFormat.JSON);
+            int start = 0;
+            int end = serialized.length();
+
+            // Remove the leading and trailing quotes.
+            while (start < end && serialized.charAt(start) == '"') {
+                start++;
+            }
+
+            while (end > start && serialized.charAt(end - 1) == '"') {
+                end--;
+            }
+
+            return serialized.substring(start, end);
         } catch (IOException ex) {
-            Log.w("", "Failed to serialize to JSON.", ex);
+            throw new MalformedValueException("Failed to serialize a list element to JSON.", ex);
+        }
+    }
 
-            return null;
+    /**
+     * A {@link HeaderCollection} field of a headers type, with its header name prefix in lower case.
+     */
+    private static final class HeaderCollectionField {
+        final Field field;
+        final String prefix;
+
+        HeaderCollectionField(Field field, String prefix) {
+            this.field = field;
+            this.prefix = prefix;
         }
     }
+
+    /**
+     * Holders of the shared adapters, initialized by the class loader on first use without any locking afterwards.
+     */
+    private static final class DefaultAdapterHolder {
+        static final SerializerAdapter INSTANCE = new JacksonAdapter(false, null);
+    }
+
+    private static final class StrictAdapterHolder {
+        static final SerializerAdapter INSTANCE = new JacksonAdapter(true, null);
+    }
 }
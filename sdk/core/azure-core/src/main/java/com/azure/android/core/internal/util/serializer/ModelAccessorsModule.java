@@ -0,0 +1,266 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.util.ModelAccessors;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Module applying {@link ModelAccessors} to a Jackson {@link com.fasterxml.jackson.databind.ObjectMapper}, so the
+ * fields of registered model classes are read and written through their accessors instead of reflective
+ * {@code Field.get} and {@code Field.set} calls.
+ * <p>
+ * Only the properties Jackson binds to fields are replaced, properties already customized by another module, such as
+ * wrapped XML lists, keep their writer.
+ */
+final class ModelAccessorsModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a module applying the given accessors.
+     *
+     * @param modelAccessors The accessors of model fields.
+     */
+    ModelAccessorsModule(final ModelAccessors modelAccessors) {
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                for (int i = 0; i < beanProperties.size(); i++) {
+                    final BeanPropertyWriter writer = beanProperties.get(i);
+
+                    if (writer.getClass() != BeanPropertyWriter.class
+                        || !(writer.getMember() instanceof AnnotatedField)) {
+                        continue;
+                    }
+
+                    final AnnotatedField field = (AnnotatedField) writer.getMember();
+                    final ModelAccessors.Getter<Object, Object> getter = (ModelAccessors.Getter<Object, Object>)
+                        modelAccessors.getGetter(field.getDeclaringClass(), field.getName());
+
+                    if (getter != null) {
+                        beanProperties.set(i, new GetterPropertyWriter(writer, getter));
+                    }
+                }
+
+                return beanProperties;
+            }
+        });
+
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                         BeanDeserializerBuilder builder) {
+                final List<SettableBeanProperty> replacements = new ArrayList<>();
+                final Iterator<SettableBeanProperty> properties = builder.getProperties();
+
+                while (properties.hasNext()) {
+                    final SettableBeanProperty property = properties.next();
+
+                    if (!(property.getMember() instanceof AnnotatedField)) {
+                        continue;
+                    }
+
+                    final AnnotatedField field = (AnnotatedField) property.getMember();
+                    final ModelAccessors.Setter<Object, Object> setter = (ModelAccessors.Setter<Object, Object>)
+                        modelAccessors.getSetter(field.getDeclaringClass(), field.getName());
+
+                    if (setter != null) {
+                        replacements.add(new SetterProperty(property, setter));
+                    }
+                }
+
+                // Properties cannot be replaced while iterating over them.
+                for (SettableBeanProperty replacement : replacements) {
+                    builder.addOrReplaceProperty(replacement, true);
+                }
+
+                return builder;
+            }
+        });
+    }
+
+    /**
+     * Property serialized by Jackson and read through a {@link ModelAccessors.Getter}. Apart from reading the value,
+     * it writes the property as {@link BeanPropertyWriter} does.
+     */
+    private static final class GetterPropertyWriter extends BeanPropertyWriter {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ModelAccessors.Getter<Object, Object> getter;
+
+        GetterPropertyWriter(BeanPropertyWriter base, ModelAccessors.Getter<Object, Object> getter) {
+            super(base);
+
+            this.getter = getter;
+        }
+
+        GetterPropertyWriter(GetterPropertyWriter base, PropertyName name) {
+            super(base, name);
+
+            this.getter = base.getter;
+        }
+
+        @Override
+        protected BeanPropertyWriter _new(PropertyName newName) {
+            return new GetterPropertyWriter(this, newName);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator generator, SerializerProvider provider)
+            throws Exception {
+            final Object value = getter.get(bean);
+
+            if (value == null) {
+                if (_nullSerializer != null) {
+                    generator.writeFieldName(_name);
+                    _nullSerializer.serialize(null, generator, provider);
+                }
+
+                return;
+            }
+
+            final JsonSerializer<Object> serializer = serializerFor(value, provider);
+
+            if (isSuppressed(value, serializer, provider)
+                || (value == bean && _handleSelfReference(bean, generator, provider, serializer))) {
+                return;
+            }
+
+            generator.writeFieldName(_name);
+            serialize(value, serializer, generator, provider);
+        }
+
+        @Override
+        public void serializeAsElement(Object bean, JsonGenerator generator, SerializerProvider provider)
+            throws Exception {
+            final Object value = getter.get(bean);
+
+            if (value == null) {
+                if (_nullSerializer != null) {
+                    _nullSerializer.serialize(null, generator, provider);
+                } else {
+                    generator.writeNull();
+                }
+
+                return;
+            }
+
+            final JsonSerializer<Object> serializer = serializerFor(value, provider);
+
+            if (isSuppressed(value, serializer, provider)) {
+                serializeAsPlaceholder(bean, generator, provider);
+
+                return;
+            }
+
+            if (value == bean && _handleSelfReference(bean, generator, provider, serializer)) {
+                return;
+            }
+
+            serialize(value, serializer, generator, provider);
+        }
+
+        private JsonSerializer<Object> serializerFor(Object value, SerializerProvider provider) throws IOException {
+            if (_serializer != null) {
+                return _serializer;
+            }
+
+            final PropertySerializerMap dynamicSerializers = _dynamicSerializers;
+            final JsonSerializer<Object> serializer = dynamicSerializers.serializerFor(value.getClass());
+
+            return serializer != null
+                ? serializer
+                : _findAndAddDynamic(dynamicSerializers, value.getClass(), provider);
+        }
+
+        private boolean isSuppressed(Object value, JsonSerializer<Object> serializer, SerializerProvider provider) {
+            if (_suppressableValue == null) {
+                return false;
+            }
+
+            return MARKER_FOR_EMPTY == _suppressableValue
+                ? serializer.isEmpty(provider, value)
+                : _suppressableValue.equals(value);
+        }
+
+        private void serialize(Object value, JsonSerializer<Object> serializer, JsonGenerator generator,
+                               SerializerProvider provider) throws IOException {
+            if (_typeSerializer == null) {
+                serializer.serialize(value, generator, provider);
+            } else {
+                serializer.serializeWithType(value, generator, provider, _typeSerializer);
+            }
+        }
+    }
+
+    /**
+     * Property deserialized by Jackson and set through a {@link ModelAccessors.Setter}.
+     */
+    private static final class SetterProperty extends SettableBeanProperty.Delegating {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ModelAccessors.Setter<Object, Object> setter;
+
+        SetterProperty(SettableBeanProperty delegate, ModelAccessors.Setter<Object, Object> setter) {
+            super(delegate);
+
+            this.setter = setter;
+        }
+
+        @Override
+        protected SettableBeanProperty withDelegate(SettableBeanProperty delegate) {
+            return new SetterProperty(delegate, setter);
+        }
+
+        @Override
+        public void deserializeAndSet(JsonParser parser, DeserializationContext context, Object instance)
+            throws IOException {
+            setter.set(instance, delegate.deserialize(parser, context));
+        }
+
+        @Override
+        public Object deserializeSetAndReturn(JsonParser parser, DeserializationContext context, Object instance)
+            throws IOException {
+            setter.set(instance, delegate.deserialize(parser, context));
+
+            return instance;
+        }
+
+        @Override
+        public void set(Object instance, Object value) {
+            setter.set(instance, value);
+        }
+
+        @Override
+        public Object setAndReturn(Object instance, Object value) {
+            setter.set(instance, value);
+
+            return instance;
+        }
+    }
+}
@@ -3,11 +3,15 @@
 
 package com.azure.android.core.internal.util.serializer;
 
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
 
 import okhttp3.Headers;
+import okio.BufferedSource;
+import okio.ByteString;
 
 /**
  * Interface that defines the behaviors of a serializer.
@@ -31,6 +35,7 @@ public interface SerializerAdapter {
      * @param list   The list to serialize.
      * @param format The Swagger collection format.
      * @return The serialized string.
+     * @throws MalformedValueException If an element of the list cannot be serialized.
      */
     String serializeList(List<?> list, CollectionFormat format);
 
@@ -46,6 +51,46 @@ public interface SerializerAdapter {
      */
     <U> U deserialize(String value, Type type, SerializerFormat encoding) throws IOException;
 
+    /**
+     * Deserializes UTF-8 encoded content read from a source into an {@code U} object, skipping a leading byte order
+     * mark.
+     * <p>
+     * The default implementation reads the whole content into a string, adapters should override it to deserialize
+     * while reading.
+     *
+     * @param source   The source of the value to deserialize, which is consumed and may be closed.
+     * @param <U>      The type of the deserialized object.
+     * @param type     The type to deserialize.
+     * @param encoding The encoding used in the serialized value.
+     * @return The deserialized object, {@code null} if the source is empty.
+     * @throws IOException exception from deserialization.
+     */
+    default <U> U deserialize(BufferedSource source, Type type, SerializerFormat encoding) throws IOException {
+        final ByteString byteOrderMark = ByteString.decodeHex("efbbbf");
+
+        if (source.rangeEquals(0, byteOrderMark)) {
+            source.skip(byteOrderMark.size());
+        }
+
+        if (source.exhausted()) {
+            return null;
+        }
+
+        return deserialize(source.readUtf8(), type, encoding);
+    }
+
+    /**
+     * Prepares the deserialization of a type, and the serialization of its values, so that the first value
+     * deserialized or serialized does not pay for the introspection of the type.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param type     The type to prepare.
+     * @param encoding The encoding the type is deserialized from and serialized to.
+     */
+    default void warmUp(Type type, SerializerFormat encoding) {
+    }
+
     /**
      * Deserializes the provided headers returned from a REST API to an entity instance declared as the model to hold
      * 'Matching' headers.
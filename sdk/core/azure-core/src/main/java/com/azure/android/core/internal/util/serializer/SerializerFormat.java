@@ -28,15 +28,6 @@ public enum SerializerFormat {
     public static SerializerFormat fromHeaders(Headers headers) {
         String mimeContentType = headers.get("Content-Type");
 
-        if (mimeContentType != null) {
-            String[] parts = mimeContentType.split(";");
-
-            if (parts[0].equalsIgnoreCase("application/xml")
-                || parts[0].equalsIgnoreCase("text/xml")) {
-                return XML;
-            }
-        }
-
-        return JSON;
+        return mimeContentType == null ? JSON : ContentType.parse(mimeContentType).getSerializerFormat();
     }
 }
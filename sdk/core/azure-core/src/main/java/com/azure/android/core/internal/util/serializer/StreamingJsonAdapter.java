@@ -0,0 +1,379 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import okhttp3.Headers;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Lightweight JSON-only implementation of {@link SerializerAdapter}, binding values through codecs registered per
+ * type on top of the Jackson streaming parser and generator.
+ * <p>
+ * Unlike {@link JacksonAdapter}, it neither creates object mappers nor introspects model classes, so it has no
+ * initialization cost and does not use reflection. Codecs are registered for each model type with
+ * {@link #addCodec(Class, Codec)}, before the adapter is used. Strings, booleans, integers, longs and doubles, and
+ * lists of any type with a codec, are supported without registration.
+ * <p>
+ * Response headers are read by the codec of the headers type, as an object whose fields are the header names. Types
+ * without a codec, and formats other than JSON, fail with an {@link IOException}.
+ */
+public final class StreamingJsonAdapter implements SerializerAdapter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String BOM = "\uFEFF";
+    private static final ByteString BOM_BYTES = ByteString.encodeUtf8(BOM);
+
+    private final ConcurrentMap<Type, Codec<?>> codecs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link StreamingJsonAdapter} supporting the scalar types.
+     */
+    public StreamingJsonAdapter() {
+        codecs.put(String.class, new Codec<String>() {
+            @Override
+            public String read(JsonParser parser) throws IOException {
+                checkScalar(parser, String.class);
+
+                return parser.getValueAsString();
+            }
+
+            @Override
+            public void write(JsonGenerator generator, String value) throws IOException {
+                generator.writeString(value);
+            }
+        });
+        codecs.put(Boolean.class, new Codec<Boolean>() {
+            @Override
+            public Boolean read(JsonParser parser) throws IOException {
+                checkScalar(parser, Boolean.class);
+
+                return parser.getValueAsBoolean();
+            }
+
+            @Override
+            public void write(JsonGenerator generator, Boolean value) throws IOException {
+                generator.writeBoolean(value);
+            }
+        });
+        codecs.put(Integer.class, new Codec<Integer>() {
+            @Override
+            public Integer read(JsonParser parser) throws IOException {
+                checkScalar(parser, Integer.class);
+
+                return parser.getValueAsInt();
+            }
+
+            @Override
+            public void write(JsonGenerator generator, Integer value) throws IOException {
+                generator.writeNumber(value);
+            }
+        });
+        codecs.put(Long.class, new Codec<Long>() {
+            @Override
+            public Long read(JsonParser parser) throws IOException {
+                checkScalar(parser, Long.class);
+
+                return parser.getValueAsLong();
+            }
+
+            @Override
+            public void write(JsonGenerator generator, Long value) throws IOException {
+                generator.writeNumber(value);
+            }
+        });
+        codecs.put(Double.class, new Codec<Double>() {
+            @Override
+            public Double read(JsonParser parser) throws IOException {
+                checkScalar(parser, Double.class);
+
+                return parser.getValueAsDouble();
+            }
+
+            @Override
+            public void write(JsonGenerator generator, Double value) throws IOException {
+                generator.writeNumber(value);
+            }
+        });
+        codecs.put(boolean.class, codecs.get(Boolean.class));
+        codecs.put(int.class, codecs.get(Integer.class));
+        codecs.put(long.class, codecs.get(Long.class));
+        codecs.put(double.class, codecs.get(Double.class));
+    }
+
+    /**
+     * Registers the codec of a type.
+     *
+     * @param type  The type.
+     * @param codec The codec reading and writing values of the type.
+     * @param <T>   The type.
+     * @return This adapter, to register more codecs.
+     */
+    public <T> StreamingJsonAdapter addCodec(Class<T> type, Codec<T> codec) {
+        codecs.put(type, codec);
+
+        return this;
+    }
+
+    @Override
+    public String serialize(Object object, SerializerFormat encoding) throws IOException {
+        checkJson(encoding);
+
+        if (object == null) {
+            return null;
+        }
+
+        final StringWriter writer = new StringWriter();
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            write(generator, object);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Serializes a list as a delimited string. As with {@link JacksonAdapter}, elements are serialized to JSON by their
+     * codec, without the quotes of strings. Elements of a type without a codec are formatted with {@code toString()}.
+     */
+    @Override
+    public String serializeList(List<?> list, CollectionFormat format) {
+        if (list == null) {
+            return null;
+        }
+
+        final String delimiter = format.getDelimiter();
+        final StringBuilder builder = new StringBuilder();
+        boolean first = true;
+
+        for (Object element : list) {
+            if (!first) {
+                builder.append(delimiter);
+            }
+
+            if (element != null) {
+                appendRaw(builder, element);
+            }
+
+            first = false;
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public <U> U deserialize(String value, Type type, SerializerFormat encoding) throws IOException {
+        checkJson(encoding);
+
+        if (value == null || value.isEmpty() || value.equals(BOM)) {
+            return null;
+        }
+
+        final int start = value.startsWith(BOM) ? BOM.length() : 0;
+        final char[] characters = value.toCharArray();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(characters, start, characters.length - start)) {
+            return readRoot(parser, type);
+        }
+    }
+
+    @Override
+    public <U> U deserialize(BufferedSource source, Type type, SerializerFormat encoding) throws IOException {
+        checkJson(encoding);
+
+        if (source.rangeEquals(0, BOM_BYTES)) {
+            source.skip(BOM_BYTES.size());
+        }
+
+        if (source.exhausted()) {
+            return null;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(source.inputStream())) {
+            return readRoot(parser, type);
+        }
+    }
+
+    @Override
+    public <U> U deserialize(Headers headers, Type type) throws IOException {
+        if (type == null) {
+            return null;
+        }
+
+        final StringWriter writer = new StringWriter();
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+
+            for (String headerName : headers.names()) {
+                generator.writeStringField(headerName, headers.get(headerName));
+            }
+
+            generator.writeEndObject();
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(writer.toString())) {
+            return readRoot(parser, type);
+        }
+    }
+
+    private <U> U readRoot(JsonParser parser, Type type) throws IOException {
+        try {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+
+            return read(parser, type);
+        } catch (JsonParseException e) {
+            throw new MalformedValueException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the value the parser is positioned on, leaving the parser on its last token.
+     */
+    @SuppressWarnings("unchecked")
+    private <U> U read(JsonParser parser, Type type) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == List.class) {
+            final Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+            final List<Object> list = new ArrayList<>();
+
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new MalformedValueException("Expected an array, found " + parser.currentToken() + ".");
+            }
+
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                list.add(read(parser, elementType));
+            }
+
+            return (U) list;
+        }
+
+        return (U) codecOf(type).read(parser);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void appendRaw(StringBuilder builder, Object element) {
+        final Codec<Object> codec = (Codec<Object>) codecs.get(element.getClass());
+
+        if (codec == null) {
+            builder.append(element.toString());
+
+            return;
+        }
+
+        final StringWriter writer = new StringWriter();
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            codec.write(generator, element);
+        } catch (IOException e) {
+            // A StringWriter does not fail, only a failing codec leaves the element empty.
+            return;
+        }
+
+        final String serialized = writer.toString();
+        int start = 0;
+        int end = serialized.length();
+
+        // Remove the leading and trailing quotes.
+        while (start < end && serialized.charAt(start) == '"') {
+            start++;
+        }
+
+        while (end > start && serialized.charAt(end - 1) == '"') {
+            end--;
+        }
+
+        builder.append(serialized, start, end);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof List<?>) {
+            generator.writeStartArray();
+
+            for (Object element : (List<?>) value) {
+                write(generator, element);
+            }
+
+            generator.writeEndArray();
+        } else {
+            ((Codec<Object>) codecOf(value.getClass())).write(generator, value);
+        }
+    }
+
+    private Codec<?> codecOf(Type type) throws IOException {
+        final Codec<?> codec = codecs.get(type);
+
+        if (codec == null) {
+            throw new IOException("No codec is registered for " + type + ".");
+        }
+
+        return codec;
+    }
+
+    private static void checkJson(SerializerFormat encoding) throws IOException {
+        if (encoding != SerializerFormat.JSON) {
+            throw new IOException(
+                StreamingJsonAdapter.class.getSimpleName() + " only supports " + SerializerFormat.JSON + ".");
+        }
+    }
+
+    /**
+     * Rejects objects and arrays read as scalars, which would leave the parser inside them.
+     */
+    private static void checkScalar(JsonParser parser, Class<?> type) {
+        final JsonToken token = parser.currentToken();
+
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            throw new MalformedValueException("Expected a " + type.getSimpleName() + ", found " + token + ".");
+        }
+    }
+
+    /**
+     * Reads and writes the values of a type.
+     *
+     * @param <T> The type.
+     */
+    public interface Codec<T> {
+        /**
+         * Reads a value, from the parser positioned on its first token, such as the start of an object.
+         *
+         * @param parser The parser, to be left on the last token of the value, such as the end of an object.
+         * @return The value.
+         * @throws IOException If the value cannot be read.
+         */
+        T read(JsonParser parser) throws IOException;
+
+        /**
+         * Writes a value.
+         *
+         * @param generator The generator to write the value to.
+         * @param value     The value, not {@code null}.
+         * @throws IOException If the value cannot be written.
+         */
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+}
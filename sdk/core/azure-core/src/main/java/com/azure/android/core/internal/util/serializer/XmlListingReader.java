@@ -0,0 +1,196 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import androidx.annotation.Nullable;
+
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Incremental reader of XML listing responses, such as the {@code EnumerationResults} of Storage list operations,
+ * returning list items one at a time as they are read from the stream.
+ * <p>
+ * Only the item being returned is held in memory, so the memory used does not depend on the size of the listing and
+ * the first items can be used before the response is completely downloaded. Each element named after the item element
+ * is deserialized with Jackson, wherever it is in the document. The text of the other simple elements directly under
+ * the root element, and the attributes of the root element, are kept and can be read with {@link #getValue(String)},
+ * e.g. the {@code NextMarker} of a listing once all its items have been read.
+ * <p>
+ * Reading errors are thrown from {@link #hasNext()} and {@link #next()} as {@link MalformedValueException} for
+ * malformed content, or as a {@link RuntimeException} caused by the {@link IOException}. The stream is closed when the
+ * end of the document is reached or {@link #close()} is called.
+ *
+ * @param <T> The type of the list items.
+ */
+public final class XmlListingReader<T> implements Iterator<T>, Closeable {
+    private final XmlMapper xmlMapper;
+    private final InputStream stream;
+    private final XMLStreamReader reader;
+    private final String itemElementName;
+    private final JavaType itemType;
+    private final Map<String, String> values = new HashMap<>();
+    private final StringBuilder valueText = new StringBuilder();
+    private String valueElementName;
+    private int depth;
+    private T next;
+    private boolean done;
+
+    /**
+     * Creates an {@link XmlListingReader}.
+     *
+     * @param xmlMapper       The mapper deserializing the list items.
+     * @param stream          The stream of the XML document.
+     * @param itemElementName The name of the elements holding the list items.
+     * @param itemType        The type of the list items.
+     * @throws MalformedValueException If the start of the document cannot be read.
+     */
+    XmlListingReader(XmlMapper xmlMapper, InputStream stream, String itemElementName, JavaType itemType) {
+        this.xmlMapper = xmlMapper;
+        this.stream = stream;
+        this.itemElementName = itemElementName;
+        this.itemType = itemType;
+
+        try {
+            this.reader = xmlMapper.getFactory().getXMLInputFactory().createXMLStreamReader(stream);
+        } catch (XMLStreamException e) {
+            throw new MalformedValueException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            next = readNext();
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final T item = next;
+
+        next = null;
+
+        return item;
+    }
+
+    /**
+     * Gets the text of a simple element directly under the root element, or the value of an attribute of the root
+     * element, read so far.
+     *
+     * @param name The name of the element or attribute.
+     * @return The value, or {@code null} if no such element or attribute has been read yet.
+     */
+    @Nullable
+    public String getValue(String name) {
+        return values.get(name);
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        next = null;
+
+        try {
+            reader.close();
+        } catch (XMLStreamException ignored) {
+            // Closing the stream below releases the underlying resources.
+        } finally {
+            stream.close();
+        }
+    }
+
+    private T readNext() {
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+
+                        if (itemElementName.equals(reader.getLocalName())) {
+                            final T item = xmlMapper.readValue(reader, itemType);
+
+                            // The reader is now positioned on the end of the item element.
+                            depth--;
+                            valueElementName = null;
+
+                            if (item != null) {
+                                return item;
+                            }
+                        } else if (depth == 1) {
+                            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                                values.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                            }
+                        } else if (depth == 2) {
+                            valueElementName = reader.getLocalName();
+                            valueText.setLength(0);
+                        } else {
+                            // Elements with child elements are not simple values.
+                            valueElementName = null;
+                        }
+
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (valueElementName != null) {
+                            valueText.append(reader.getText());
+                        }
+
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (depth == 2 && valueElementName != null) {
+                            values.put(valueElementName, valueText.toString());
+                        }
+
+                        valueElementName = null;
+                        depth--;
+
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            close();
+
+            return null;
+        } catch (XMLStreamException | JsonProcessingException e) {
+            closeQuietly();
+
+            throw new MalformedValueException(e.getMessage(), e);
+        } catch (IOException e) {
+            closeQuietly();
+
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // Ignored, the original error is reported.
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.azure.android.core.internal.util.serializer.threeten;
 
+import com.azure.android.core.internal.util.DurationCodec;
 import com.azure.android.core.internal.util.serializer.BiFunction;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
@@ -68,7 +69,7 @@ class DurationDeserializer extends ThreeTenDeserializerBase<Duration> {
                     return null;
                 }
                 try {
-                    return Duration.parse(string);
+                    return DurationCodec.parse(string);
                 } catch (DateTimeException e) {
                     return _handleDateTimeException(context, e, string);
                 }
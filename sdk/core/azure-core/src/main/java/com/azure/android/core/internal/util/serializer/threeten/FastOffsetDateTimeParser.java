@@ -0,0 +1,132 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer.threeten;
+
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.format.DateTimeFormatter;
+
+/**
+ * Parser for the fixed ISO-8601 shapes emitted by Azure services, {@code yyyy-MM-ddTHH:mm:ss[.f{1,9}]} followed by
+ * {@code Z} or a {@code +HH:MM}/{@code -HH:MM} offset.
+ * <p>
+ * It reads digits straight from the string and avoids the allocations of the general
+ * {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} parser. Any other shape, or any out of range field, is rejected by
+ * returning {@code null} so the caller can fall back to the formatter, which also produces the proper error message.
+ */
+final class FastOffsetDateTimeParser {
+    private static final int[] NANOS_SCALE = {
+        100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private FastOffsetDateTimeParser() {
+    }
+
+    /**
+     * Parses an ISO-8601 date-time with offset.
+     *
+     * @param text The text to parse.
+     * @return The parsed date-time, or {@code null} if the text is not in one of the supported shapes.
+     */
+    static OffsetDateTime parse(String text) {
+        final int length = text.length();
+
+        // Shortest supported shape is "yyyy-MM-ddTHH:mm:ssZ".
+        if (length < 20
+            || text.charAt(4) != '-'
+            || text.charAt(7) != '-'
+            || text.charAt(10) != 'T'
+            || text.charAt(13) != ':'
+            || text.charAt(16) != ':') {
+            return null;
+        }
+
+        final int year = digits(text, 0, 4);
+        final int month = digits(text, 5, 2);
+        final int day = digits(text, 8, 2);
+        final int hour = digits(text, 11, 2);
+        final int minute = digits(text, 14, 2);
+        final int second = digits(text, 17, 2);
+
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+
+        int position = 19;
+        int nanos = 0;
+
+        if (text.charAt(position) == '.') {
+            position++;
+
+            final int fractionStart = position;
+
+            while (position < length && position - fractionStart < 9) {
+                final int digit = text.charAt(position) - '0';
+
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+
+                nanos += digit * NANOS_SCALE[position - fractionStart];
+                position++;
+            }
+
+            if (position == fractionStart || position == length) {
+                return null;
+            }
+        }
+
+        final ZoneOffset offset;
+        final char offsetStart = text.charAt(position);
+
+        if (offsetStart == 'Z' && position + 1 == length) {
+            offset = ZoneOffset.UTC;
+        } else if ((offsetStart == '+' || offsetStart == '-')
+            && position + 6 == length
+            && text.charAt(position + 3) == ':') {
+            final int offsetHours = digits(text, position + 1, 2);
+            final int offsetMinutes = digits(text, position + 4, 2);
+
+            if ((offsetHours | offsetMinutes) < 0
+                || offsetMinutes > 59
+                || offsetHours * 60 + offsetMinutes > 18 * 60) {
+                return null;
+            }
+
+            final int totalSeconds = offsetHours * 3600 + offsetMinutes * 60;
+
+            offset = ZoneOffset.ofTotalSeconds(offsetStart == '-' ? -totalSeconds : totalSeconds);
+        } else {
+            return null;
+        }
+
+        try {
+            return OffsetDateTime.of(year, month, day, hour, minute, second, nanos, offset);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a fixed number of decimal digits.
+     *
+     * @return The value of the digits, or {@code -1} if any of the characters is not a digit.
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            final int digit = text.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+}
@@ -178,6 +178,16 @@ class InstantDeserializer<T extends Temporal>
                 if (string.length() == 0) {
                     return null;
                 }
+                // Fast path for the fixed shapes emitted by Azure services, anything else goes to the formatter.
+                if (_formatter == DateTimeFormatter.ISO_OFFSET_DATE_TIME && _valueClass == OffsetDateTime.class) {
+                    T value = (T) FastOffsetDateTimeParser.parse(string);
+                    if (value != null) {
+                        if (shouldAdjustToContextTimezone(context)) {
+                            return adjust.apply(value, this.getZone(context));
+                        }
+                        return value;
+                    }
+                }
                 // only check for other parsing modes if we are using default formatter
                 if (_formatter == DateTimeFormatter.ISO_INSTANT ||
                     _formatter == DateTimeFormatter.ISO_OFFSET_DATE_TIME ||
@@ -40,7 +40,11 @@ public final class Base64Url {
 
     private static byte[] unquote(byte[] bytes) {
         if (bytes != null && bytes.length > 1) {
-            bytes = unquote(new String(bytes, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            final byte firstByte = bytes[0];
+
+            if ((firstByte == '\"' || firstByte == '\'') && bytes[bytes.length - 1] == firstByte) {
+                bytes = Arrays.copyOfRange(bytes, 1, bytes.length - 1);
+            }
         }
 
         return bytes;
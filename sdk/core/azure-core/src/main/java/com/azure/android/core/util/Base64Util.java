@@ -3,8 +3,9 @@
 
 package com.azure.android.core.util;
 
+import com.azure.android.core.internal.util.Base64Codec;
 
-import android.util.Base64;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Utility for Base64 encoding and decoding.
@@ -17,7 +18,7 @@ public interface Base64Util {
      * @return The Base64 encoded bytes.
      */
     static byte[] encode(byte[] src) {
-        return src == null ? null : Base64.encode(src, Base64.DEFAULT);
+        return src == null ? null : Base64Codec.encode(src, 0, src.length, false);
     }
 
     /**
@@ -27,9 +28,7 @@ public interface Base64Util {
      * @return The Base64 URL encoded bytes.
      */
     static byte[] encodeURLWithoutPadding(byte[] src) {
-        int flags = Base64.URL_SAFE | Base64.NO_PADDING;
-
-        return src == null ? null : Base64.encode(src, flags);
+        return src == null ? null : Base64Codec.encode(src, 0, src.length, true);
     }
 
     /**
@@ -39,7 +38,9 @@ public interface Base64Util {
      * @return The Base64 encoded bytes.
      */
     static String encodeToString(byte[] src) {
-        return src == null ? null : Base64.encodeToString(src, Base64.DEFAULT);
+        return src == null
+            ? null
+            : new String(Base64Codec.encode(src, 0, src.length, false), StandardCharsets.US_ASCII);
     }
 
     /**
@@ -49,7 +50,7 @@ public interface Base64Util {
      * @return The decoded byte array.
      */
     static byte[] decode(byte[] encoded) {
-        return encoded == null ? null : Base64.decode(encoded, Base64.DEFAULT);
+        return encoded == null ? null : Base64Codec.decode(encoded, 0, encoded.length);
     }
 
     /**
@@ -59,7 +60,7 @@ public interface Base64Util {
      * @return The decoded byte array.
      */
     static byte[] decodeURL(byte[] src) {
-        return src == null ? null : Base64.decode(src, Base64.URL_SAFE);
+        return src == null ? null : Base64Codec.decode(src, 0, src.length);
     }
 
     /**
@@ -69,7 +70,7 @@ public interface Base64Util {
      * @return The decoded byte array.
      */
     static byte[] decodeURL(String src) {
-        return src == null ? null : Base64.decode(src, Base64.URL_SAFE);
+        return src == null ? null : Base64Codec.decode(src);
     }
 
     /**
@@ -79,6 +80,6 @@ public interface Base64Util {
      * @return The decoded byte array.
      */
     static byte[] decodeString(String encoded) {
-        return encoded == null ? null : Base64.decode(encoded, Base64.DEFAULT);
+        return encoded == null ? null : Base64Codec.decode(encoded);
     }
 }
@@ -0,0 +1,126 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compiled form of a map of characters to their replacements, used to replace characters in many character sequences.
+ * <p>
+ * Replacements for ASCII characters are looked up in an array indexed by the character, other characters in a sorted
+ * array, so no character is boxed. Character sequences without any character to replace are returned as is.
+ */
+public final class CharacterReplacer {
+    private static final int ASCII_SIZE = 128;
+
+    private final CharSequence[] asciiReplacements = new CharSequence[ASCII_SIZE];
+    private final char[] otherCharacters;
+    private final CharSequence[] otherReplacements;
+    private final CharSequence emptyReplacement;
+
+    /**
+     * Creates a {@link CharacterReplacer}.
+     *
+     * @param pairs Map containing which characters to look for and their replacements. The replacement mapped to the
+     *              {@code null} key, if any, is returned for {@code null} or empty character sequences.
+     */
+    public CharacterReplacer(Map<Character, CharSequence> pairs) {
+        int otherCount = 0;
+        boolean hasNullKey = false;
+
+        for (Character character : pairs.keySet()) {
+            if (character == null) {
+                hasNullKey = true;
+            } else if (character >= ASCII_SIZE) {
+                otherCount++;
+            }
+        }
+
+        final char[] otherCharacters = new char[otherCount];
+        int index = 0;
+
+        for (Character character : pairs.keySet()) {
+            if (character == null) {
+                continue;
+            }
+
+            // A null replacement is appended as "null", as StringBuilder does.
+            final CharSequence replacement = String.valueOf(pairs.get(character));
+
+            if (character < ASCII_SIZE) {
+                asciiReplacements[character] = replacement;
+            } else {
+                otherCharacters[index++] = character;
+            }
+        }
+
+        Arrays.sort(otherCharacters);
+
+        this.otherCharacters = otherCharacters;
+        this.otherReplacements = new CharSequence[otherCount];
+
+        for (int i = 0; i < otherCount; i++) {
+            otherReplacements[i] = String.valueOf(pairs.get(otherCharacters[i]));
+        }
+
+        this.emptyReplacement = hasNullKey ? pairs.get(null) : null;
+    }
+
+    /**
+     * Replaces the characters in a given character sequence with their corresponding character sequence.
+     *
+     * @param charSequence Character sequence to replace characters in.
+     * @return Character sequence where all characters to look for have been replaced, {@code charSequence} itself if
+     * it contains none of them, or the replacement mapped to the {@code null} key if {@code charSequence} is
+     * {@code null} or empty.
+     */
+    public CharSequence replace(CharSequence charSequence) {
+        if (CoreUtils.isNullOrEmpty(charSequence)) {
+            return emptyReplacement;
+        }
+
+        final int length = charSequence.length();
+        int i = 0;
+
+        while (i < length && replacementOf(charSequence.charAt(i)) == null) {
+            i++;
+        }
+
+        if (i == length) {
+            return charSequence;
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder(length + 16);
+
+        stringBuilder.append(charSequence, 0, i);
+
+        for (; i < length; i++) {
+            final char c = charSequence.charAt(i);
+            final CharSequence replacement = replacementOf(c);
+
+            if (replacement == null) {
+                stringBuilder.append(c);
+            } else {
+                stringBuilder.append(replacement);
+            }
+        }
+
+        return stringBuilder;
+    }
+
+    private CharSequence replacementOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiReplacements[c];
+        }
+
+        if (otherCharacters.length == 0) {
+            return null;
+        }
+
+        final int index = Arrays.binarySearch(otherCharacters, c);
+
+        return index < 0 ? null : otherReplacements[index];
+    }
+}
@@ -21,31 +21,53 @@ public interface CoreUtils {
 
     /**
      * Replaces the characters (keys) in a given map with a corresponding character sequence (values).
+     * <p>
+     * The map is looked up once for each character, which is cheaper than compiling it for a single call. To replace
+     * characters in many character sequences, create a {@link CharacterReplacer} once instead.
      *
      * @param charSequence Character sequence to replace characters in.
      * @param pairs        Map containing which characters to look for and their replacements.
-     * @return Character sequence where all keys in the given map have been replaced by their corresponding values.
+     * @return Character sequence where all keys in the given map have been replaced by their corresponding values, or
+     * {@code charSequence} itself if it contains none of them.
      */
     static CharSequence replace(CharSequence charSequence, Map<Character, CharSequence> pairs) {
         if (isNullOrEmpty(charSequence)) {
-            if (pairs.containsKey(null)) {
-                return pairs.get(null);
-            } else {
-                return null;
-            }
+            return pairs.get(null);
         }
 
-        StringBuilder stringBuilder = new StringBuilder();
+        // Only a map with null replacements needs a second lookup to tell them from missing characters.
+        boolean hasNullReplacements;
+
+        try {
+            hasNullReplacements = pairs.containsValue(null);
+        } catch (NullPointerException e) {
+            // The map does not permit null values.
+            hasNullReplacements = false;
+        }
+
+        final int length = charSequence.length();
+        StringBuilder stringBuilder = null;
+
+        for (int i = 0; i < length; i++) {
+            final char c = charSequence.charAt(i);
+            final CharSequence replacement = pairs.get(c);
 
-        for (char c : charSequence.toString().toCharArray()) {
-            if (pairs.containsKey(c)) {
-                stringBuilder.append(pairs.get(c));
-            } else {
-                stringBuilder.append(c);
+            if (replacement == null && (!hasNullReplacements || !pairs.containsKey(c))) {
+                if (stringBuilder != null) {
+                    stringBuilder.append(c);
+                }
+
+                continue;
             }
+
+            if (stringBuilder == null) {
+                stringBuilder = new StringBuilder(length + 16).append(charSequence, 0, i);
+            }
+
+            stringBuilder.append(replacement);
         }
 
-        return stringBuilder;
+        return stringBuilder == null ? charSequence : stringBuilder;
     }
 
     /**
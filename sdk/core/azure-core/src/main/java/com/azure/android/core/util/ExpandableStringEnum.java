@@ -4,10 +4,11 @@ import com.fasterxml.jackson.annotation.JsonValue;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Base implementation for expandable, single string enums.
@@ -15,11 +16,11 @@ import java.util.concurrent.ConcurrentMap;
  * @param <T> A specific expandable enum type.
  */
 public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
-    private static final ConcurrentMap<String, ? extends ExpandableStringEnum<?>> VALUES_BY_NAME =
-        new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Registry<?>> REGISTRIES = new ConcurrentHashMap<>();
 
     private String name;
     private Class<T> clazz;
+    private int hashCode;
 
     private static String uniqueKey(Class<?> clazz, String name) {
         if (clazz != null) {
@@ -30,42 +31,87 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
     }
 
     @SuppressWarnings("unchecked")
-    T nameValue(String name, T value, Class<T> clazz) {
+    private static <T extends ExpandableStringEnum<T>> Registry<T> registry(Class<T> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException();
+        }
+
+        Registry<T> registry = (Registry<T>) REGISTRIES.get(clazz);
+
+        if (registry == null) {
+            Registry<T> newRegistry = new Registry<>();
+
+            registry = (Registry<T>) REGISTRIES.putIfAbsent(clazz, newRegistry);
+
+            if (registry == null) {
+                registry = newRegistry;
+            }
+        }
+
+        return registry;
+    }
+
+    T nameValue(String name, T value, Class<T> clazz, Registry<T> registry) {
         this.name = name;
         this.clazz = clazz;
+        this.hashCode = uniqueKey(clazz, name).hashCode();
 
-        ((ConcurrentMap<String, T>) VALUES_BY_NAME).put(uniqueKey(clazz, name), value);
-
-        return (T) this;
+        return registry.register(name, value);
     }
 
     /**
      * Creates an instance of the specific expandable string enum from a String.
+     * <p>
+     * Values that are not known yet are created with the factory registered through {@link #registerFactory}, or
+     * through reflection if the class has not registered one.
      *
      * @param name  The value to create the instance from.
      * @param clazz The class of the expandable string enum.
      * @param <T>   The class of the expandable string enum.
      * @return The expandable string enum instance.
      */
-    @SuppressWarnings("unchecked")
     protected static <T extends ExpandableStringEnum<T>> T fromString(String name, Class<T> clazz) {
         if (name == null) {
             return null;
-        } else {
-            T value = (T) VALUES_BY_NAME.get(uniqueKey(clazz, name));
+        }
 
-            if (value != null) {
-                return value;
-            }
+        final Registry<T> registry = registry(clazz);
+        final T existing = registry.get(name);
+
+        if (existing != null) {
+            return existing;
         }
 
-        try {
-            T value = clazz.newInstance();
+        final Supplier<T> factory = registry.factory;
+        final T value;
 
-            return value.nameValue(name, value, clazz);
-        } catch (InstantiationException | IllegalAccessException e) {
-            return null;
+        if (factory != null) {
+            value = factory.get();
+        } else {
+            try {
+                value = clazz.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                return null;
+            }
         }
+
+        return value.nameValue(name, value, clazz, registry);
+    }
+
+    /**
+     * Registers the factory used to create instances of an expandable string enum for values that are not known yet,
+     * instead of instantiating the class through reflection.
+     * <p>
+     * Expandable string enums should call this from their static initializer, before declaring their known values, so
+     * neither the known values nor values added by the service later on are created reflectively. Doing so also keeps
+     * parsing working when the no-argument constructor is removed or renamed by code shrinkers.
+     *
+     * @param clazz   The class of the expandable string enum.
+     * @param factory The factory creating new, uninitialized instances of {@code clazz}.
+     * @param <T>     The class of the expandable string enum.
+     */
+    protected static <T extends ExpandableStringEnum<T>> void registerFactory(Class<T> clazz, Supplier<T> factory) {
+        registry(clazz).factory = factory;
     }
 
     /**
@@ -73,22 +119,10 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
      *
      * @param clazz The class of the expandable string enum.
      * @param <T>   The class of the expandable string enum.
-     * @return A collection of all known values for the given {@code clazz}.
+     * @return An unmodifiable collection of all known values for the given {@code clazz}.
      */
-    @SuppressWarnings("unchecked")
     protected static <T extends ExpandableStringEnum<T>> Collection<T> values(Class<T> clazz) {
-        // Make a copy of all values
-        Collection<? extends ExpandableStringEnum<?>> values = new ArrayList<>(VALUES_BY_NAME.values());
-
-        Collection<T> list = new HashSet<>();
-
-        for (ExpandableStringEnum<?> value : values) {
-            if (value.getClass().isAssignableFrom(clazz)) {
-                list.add((T) value);
-            }
-        }
-
-        return list;
+        return registry(clazz).values();
     }
 
     @Override
@@ -99,7 +133,7 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
 
     @Override
     public int hashCode() {
-        return uniqueKey(this.clazz, this.name).hashCode();
+        return this.hashCode;
     }
 
     @SuppressWarnings("unchecked")
@@ -117,4 +151,60 @@ public abstract class ExpandableStringEnum<T extends ExpandableStringEnum<T>> {
             return this.name.equals(((ExpandableStringEnum<T>) obj).name);
         }
     }
+
+    /**
+     * Known values of one expandable string enum type.
+     * <p>
+     * Lookups first try an exact match, which is the common case for values returned by the service, then fall back to
+     * a case-insensitive match. Neither allocates.
+     *
+     * @param <T> The class of the expandable string enum.
+     */
+    private static final class Registry<T extends ExpandableStringEnum<T>> {
+        private final ConcurrentMap<String, T> byName = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, T> byNameIgnoreCase =
+            new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+        private volatile Collection<T> values;
+        private volatile Supplier<T> factory;
+
+        T get(String name) {
+            T value = byName.get(name);
+
+            return value != null ? value : byNameIgnoreCase.get(name);
+        }
+
+        synchronized T register(String name, T value) {
+            T existing = byNameIgnoreCase.putIfAbsent(name, value);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            byName.put(name, value);
+            values = null;
+
+            return value;
+        }
+
+        /**
+         * Gets a snapshot of the known values, which is only rebuilt after a new value has been registered.
+         * Registration and rebuilding are serialized so a snapshot never misses a registered value.
+         */
+        Collection<T> values() {
+            Collection<T> snapshot = values;
+
+            if (snapshot == null) {
+                synchronized (this) {
+                    snapshot = values;
+
+                    if (snapshot == null) {
+                        snapshot = Collections.unmodifiableList(new ArrayList<>(byNameIgnoreCase.values()));
+                        values = snapshot;
+                    }
+                }
+            }
+
+            return snapshot;
+        }
+    }
 }
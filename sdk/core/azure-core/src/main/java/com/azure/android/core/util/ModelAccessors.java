@@ -0,0 +1,137 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accessors of model fields, used to serialize and deserialize the fields of registered model classes instead of
+ * reflective {@code Field.get} and {@code Field.set} calls, which are slow on ART.
+ * <p>
+ * Accessors are plain lambdas, such as {@code (BlobItem blob) -> blob.name} and
+ * {@code (BlobItem blob, String name) -> blob.name = name}, since Android does not support generating bytecode at
+ * runtime and method handles require API level 26. The serializer still resolves the type and the serializer of each
+ * field, only reading and writing the value of the field goes through its accessors. Fields without a registered
+ * accessor are accessed reflectively, and classes with generated JSON serializers do not use their accessors for JSON.
+ * <p>
+ * Accessors are applied to a {@link com.azure.android.core.http.ServiceClient} with
+ * {@link com.azure.android.core.http.ServiceClient.Builder#setModelAccessors(ModelAccessors)}. They must be registered
+ * before the client first serializes or deserializes their model class.
+ */
+public final class ModelAccessors {
+    private final Map<Class<?>, Map<String, Getter<?, ?>>> getters = new HashMap<>();
+    private final Map<Class<?>, Map<String, Setter<?, ?>>> setters = new HashMap<>();
+
+    /**
+     * Registers the getter of a model field.
+     *
+     * @param modelClass The model class declaring the field.
+     * @param fieldName  The name of the field, as declared in the class rather than the serialized property name.
+     * @param getter     The getter of the field.
+     * @param <T>        The type of the model.
+     * @param <V>        The type of the field.
+     * @return This object, to register more accessors.
+     */
+    public synchronized <T, V> ModelAccessors addGetter(@NonNull Class<T> modelClass, @NonNull String fieldName,
+                                                        @NonNull Getter<T, V> getter) {
+        put(getters, modelClass, fieldName, getter);
+
+        return this;
+    }
+
+    /**
+     * Registers the setter of a model field.
+     *
+     * @param modelClass The model class declaring the field.
+     * @param fieldName  The name of the field, as declared in the class rather than the serialized property name.
+     * @param setter     The setter of the field.
+     * @param <T>        The type of the model.
+     * @param <V>        The type of the field.
+     * @return This object, to register more accessors.
+     */
+    public synchronized <T, V> ModelAccessors addSetter(@NonNull Class<T> modelClass, @NonNull String fieldName,
+                                                        @NonNull Setter<T, V> setter) {
+        put(setters, modelClass, fieldName, setter);
+
+        return this;
+    }
+
+    /**
+     * Gets the getter registered for a model field.
+     *
+     * @param modelClass The model class declaring the field.
+     * @param fieldName  The name of the field.
+     * @return The getter of the field, or {@code null} if none is registered.
+     */
+    @Nullable
+    public synchronized Getter<?, ?> getGetter(@NonNull Class<?> modelClass, @NonNull String fieldName) {
+        return get(getters, modelClass, fieldName);
+    }
+
+    /**
+     * Gets the setter registered for a model field.
+     *
+     * @param modelClass The model class declaring the field.
+     * @param fieldName  The name of the field.
+     * @return The setter of the field, or {@code null} if none is registered.
+     */
+    @Nullable
+    public synchronized Setter<?, ?> getSetter(@NonNull Class<?> modelClass, @NonNull String fieldName) {
+        return get(setters, modelClass, fieldName);
+    }
+
+    private static <A> void put(Map<Class<?>, Map<String, A>> accessors, Class<?> modelClass, String fieldName,
+                                A accessor) {
+        Map<String, A> classAccessors = accessors.get(modelClass);
+
+        if (classAccessors == null) {
+            classAccessors = new HashMap<>();
+            accessors.put(modelClass, classAccessors);
+        }
+
+        classAccessors.put(fieldName, accessor);
+    }
+
+    private static <A> A get(Map<Class<?>, Map<String, A>> accessors, Class<?> modelClass, String fieldName) {
+        final Map<String, A> classAccessors = accessors.get(modelClass);
+
+        return classAccessors == null ? null : classAccessors.get(fieldName);
+    }
+
+    /**
+     * Gets the value of a model field.
+     *
+     * @param <T> The type of the model.
+     * @param <V> The type of the field.
+     */
+    public interface Getter<T, V> {
+        /**
+         * Gets the value of the field.
+         *
+         * @param model The model to get the field of.
+         * @return The value of the field.
+         */
+        V get(T model);
+    }
+
+    /**
+     * Sets the value of a model field.
+     *
+     * @param <T> The type of the model.
+     * @param <V> The type of the field.
+     */
+    public interface Setter<T, V> {
+        /**
+         * Sets the value of the field.
+         *
+         * @param model The model to set the field of.
+         * @param value The value of the field.
+         */
+        void set(T model, V value);
+    }
+}
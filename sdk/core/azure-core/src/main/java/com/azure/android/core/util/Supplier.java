@@ -0,0 +1,18 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+/**
+ * Represents a supplier of results.
+ *
+ * @param <T> The type of results supplied by this supplier.
+ */
+public interface Supplier<T> {
+    /**
+     * Gets a result.
+     *
+     * @return A result.
+     */
+    T get();
+}
@@ -0,0 +1,221 @@
+package com.azure.android.core.http;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PagedIterableTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void retrievesPagesLazily() {
+        FakeListing listing = new FakeListing(5, 0);
+        PagedIterable<String> iterable = new PagedIterable<>(listing);
+
+        Assert.assertEquals(0, listing.requests.get());
+
+        Iterator<String> iterator = iterable.iterator();
+
+        Assert.assertEquals("page-0-item-0", iterator.next());
+        Assert.assertEquals(1, listing.requests.get());
+
+        List<String> tokens = new ArrayList<>();
+
+        for (Page<String> page : iterable.iterableByPage()) {
+            tokens.add(page.getContinuationToken());
+        }
+
+        Assert.assertEquals(Arrays.asList("marker-1", "marker-2", "marker-3", "marker-4", null), tokens);
+        Assert.assertEquals(6, listing.requests.get());
+    }
+
+    @Test
+    public void iteratesAllItemsAcrossEmptyPages() {
+        FakeListing listing = new FakeListing(6, 0);
+
+        listing.emptyPages.add(2);
+        listing.emptyPages.add(5);
+
+        List<String> items = new ArrayList<>();
+
+        for (String item : new PagedIterable<>(listing, 2, executor)) {
+            items.add(item);
+        }
+
+        Assert.assertEquals(8, items.size());
+        Assert.assertEquals("page-0-item-0", items.get(0));
+        Assert.assertEquals("page-4-item-1", items.get(7));
+    }
+
+    @Test
+    public void prefetchesBoundedNumberOfPages() throws Exception {
+        FakeListing listing = new FakeListing(100, 0);
+        Iterator<Page<String>> pages = new PagedIterable<>(listing, 3, executor).iterableByPage().iterator();
+
+        pages.next();
+        Thread.sleep(200);
+
+        // The page being consumed plus three pages ahead.
+        Assert.assertEquals(4, listing.requests.get());
+
+        pages.next();
+        Thread.sleep(200);
+
+        Assert.assertEquals(5, listing.requests.get());
+    }
+
+    @Test
+    public void prefetchingHidesLatency() {
+        FakeListing listing = new FakeListing(5, 100);
+        long start = System.nanoTime();
+
+        for (Page<String> page : new PagedIterable<>(listing, 1, executor).iterableByPage()) {
+            // Consuming a page takes as long as retrieving one.
+            sleep(100);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Sequentially this takes 1000ms, overlapped it takes about 600ms.
+        Assert.assertTrue(String.valueOf(elapsedMillis), elapsedMillis < 900);
+    }
+
+    @Test
+    public void propagatesErrors() {
+        for (int prefetchPages : new int[] { 0, 2 }) {
+            FakeListing listing = new FakeListing(5, 0);
+
+            listing.failingPage = 2;
+
+            Iterator<Page<String>> pages = new PagedIterable<>(listing, prefetchPages, executor)
+                .iterableByPage().iterator();
+
+            pages.next();
+            pages.next();
+
+            try {
+                pages.hasNext();
+                Assert.fail();
+            } catch (RuntimeException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+        }
+    }
+
+    @Test
+    public void nullPageFailsInsteadOfHanging() {
+        for (int prefetchPages : new int[] { 0, 2 }) {
+            Iterator<String> items = new PagedIterable<String>(token -> null, prefetchPages, executor).iterator();
+
+            try {
+                items.hasNext();
+                Assert.fail();
+            } catch (RuntimeException e) {
+                Assert.assertTrue(e instanceof NullPointerException);
+            }
+        }
+    }
+
+    @Test
+    public void propagatesErrorsThrownByRetriever() {
+        for (int prefetchPages : new int[] { 0, 2 }) {
+            Iterator<String> items = new PagedIterable<String>(token -> {
+                throw new AssertionError("Page failed.");
+            }, prefetchPages, executor).iterator();
+
+            try {
+                items.hasNext();
+                Assert.fail();
+            } catch (AssertionError e) {
+                Assert.assertEquals("Page failed.", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void closingStopsPrefetching() {
+        FakeListing listing = new FakeListing(100, 50);
+        PagedIterable.CloseableIterator<String> items = new PagedIterable<>(listing, 3, executor).iterator();
+
+        Assert.assertEquals("page-0-item-0", items.next());
+
+        items.close();
+        sleep(300);
+
+        // The first page plus at most the one being retrieved when the iterator was closed.
+        Assert.assertTrue(String.valueOf(listing.requests.get()), listing.requests.get() <= 2);
+        Assert.assertFalse(items.hasNext());
+    }
+
+    @Test
+    public void closingWakesUpWaitingConsumer() throws Exception {
+        FakeListing listing = new FakeListing(2, 500);
+        Iterator<Page<String>> pages = new PagedIterable<>(listing, 1, executor).iterableByPage().iterator();
+        Thread closer = new Thread(() -> {
+            sleep(100);
+            ((PagedIterable.CloseableIterator<Page<String>>) pages).close();
+        });
+        long start = System.nanoTime();
+
+        closer.start();
+
+        Assert.assertFalse(pages.hasNext());
+        Assert.assertTrue((System.nanoTime() - start) / 1_000_000 < 400);
+
+        closer.join();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class FakeListing implements PagedIterable.PageRetriever<String> {
+        final AtomicInteger requests = new AtomicInteger();
+        final List<Integer> emptyPages = Collections.synchronizedList(new ArrayList<>());
+        final int pageCount;
+        final long latencyMillis;
+        volatile int failingPage = -1;
+
+        FakeListing(int pageCount, long latencyMillis) {
+            this.pageCount = pageCount;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Page<String> getPage(String continuationToken) throws IOException {
+            int index = continuationToken == null ? 0 : Integer.parseInt(continuationToken.substring(7));
+
+            requests.incrementAndGet();
+            sleep(latencyMillis);
+
+            if (index == failingPage) {
+                throw new IOException("Page " + index + " failed.");
+            }
+
+            List<String> items = emptyPages.contains(index)
+                ? Collections.<String>emptyList()
+                : Arrays.asList("page-" + index + "-item-0", "page-" + index + "-item-1");
+
+            return new Page<>(items, index + 1 < pageCount ? "marker-" + (index + 1) : null);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.azure.android.core.http;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class PriorityRequestSchedulerTest {
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private final CountDownLatch blockedRequestGate = new CountDownLatch(1);
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final List<String> completedPaths = Collections.synchronizedList(new ArrayList<>());
+    private final List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        // Requests to /blocked are held by the server until the gate is opened, keeping their call running.
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getPath().startsWith("/blocked")) {
+                    blockedRequestGate.await(10, TimeUnit.SECONDS);
+                }
+
+                return new MockResponse();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        blockedRequestGate.countDown();
+    }
+
+    @Test
+    public void queuedCallsRunInPriorityOrder() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, 0);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        CountDownLatch completed = new CountDownLatch(4);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, completed);
+        Assert.assertEquals("/blocked", server.takeRequest().getPath());
+
+        enqueue(callFactory, "/background", RequestPriority.BACKGROUND, completed);
+        enqueue(callFactory, "/normal", RequestPriority.NORMAL, completed);
+        enqueue(callFactory, "/interactive", RequestPriority.INTERACTIVE, completed);
+
+        Assert.assertEquals(1, scheduler.runningCallsCount());
+        Assert.assertEquals(3, scheduler.queuedCallsCount());
+
+        blockedRequestGate.countDown();
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("/interactive", server.takeRequest().getPath());
+        Assert.assertEquals("/normal", server.takeRequest().getPath());
+        Assert.assertEquals("/background", server.takeRequest().getPath());
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void reservedRequestsOnlyRunInteractiveCalls() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(2, 1);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        CountDownLatch completed = new CountDownLatch(1);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, null);
+        server.takeRequest();
+        enqueue(callFactory, "/background", RequestPriority.BACKGROUND, null);
+        enqueue(callFactory, "/interactive", RequestPriority.INTERACTIVE, completed);
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("/interactive"), completedPaths);
+        Assert.assertEquals(1, scheduler.queuedCallsCount());
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void callsToTheSameHostAreCapped() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(4, 1, 0);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        CountDownLatch completed = new CountDownLatch(1);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, null);
+        server.takeRequest();
+        enqueue(callFactory, "/same-host", RequestPriority.INTERACTIVE, null);
+
+        // The server is reachable through another host name, which is not capped by the busy host.
+        HttpUrl otherHostUrl = server.url("/other-host").newBuilder().host("127.0.0.1").build();
+
+        callFactory.newCall(new Request.Builder()
+            .url(otherHostUrl)
+            .tag(RequestPriority.class, RequestPriority.BACKGROUND)
+            .build()).enqueue(new RecordingCallback(completed));
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("/other-host"), completedPaths);
+        Assert.assertEquals(1, scheduler.queuedCallsCount());
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void canceledQueuedCallFails() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, 0);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        CountDownLatch completed = new CountDownLatch(1);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, null);
+        server.takeRequest();
+
+        Call call = enqueue(callFactory, "/canceled", RequestPriority.NORMAL, completed);
+
+        call.cancel();
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, failures.size());
+        Assert.assertTrue(call.isCanceled());
+        Assert.assertEquals(0, scheduler.queuedCallsCount());
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void queueTimeIsRecordedPerPriority() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, 0);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        CountDownLatch completed = new CountDownLatch(2);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, completed);
+        server.takeRequest();
+        enqueue(callFactory, "/background", RequestPriority.BACKGROUND, completed);
+
+        Thread.sleep(100);
+        blockedRequestGate.countDown();
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+        PriorityRequestScheduler.QueueTimeStats normalStats = scheduler.getQueueTimeStats(RequestPriority.NORMAL);
+        PriorityRequestScheduler.QueueTimeStats backgroundStats =
+            scheduler.getQueueTimeStats(RequestPriority.BACKGROUND);
+
+        Assert.assertEquals(1, normalStats.getCount());
+        Assert.assertEquals(1, backgroundStats.getCount());
+        Assert.assertEquals(0, scheduler.getQueueTimeStats(RequestPriority.INTERACTIVE).getCount());
+        Assert.assertTrue(backgroundStats.getMaxQueueTime(TimeUnit.MILLISECONDS) >= 100);
+        Assert.assertEquals(backgroundStats.getMaxQueueTime(TimeUnit.MILLISECONDS),
+            backgroundStats.getAverageQueueTime(TimeUnit.MILLISECONDS));
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void shutdownFailsQueuedAndLaterCalls() throws Exception {
+        PriorityRequestScheduler scheduler = new PriorityRequestScheduler(1, 0);
+        Call.Factory callFactory = scheduler.callFactory(httpClient);
+        int queuedCalls = 10_000;
+        CountDownLatch completed = new CountDownLatch(queuedCalls + 1);
+
+        enqueue(callFactory, "/blocked", RequestPriority.NORMAL, null);
+        server.takeRequest();
+
+        for (int i = 0; i < queuedCalls; i++) {
+            enqueue(callFactory, "/queued", RequestPriority.NORMAL, completed);
+        }
+
+        scheduler.shutdown();
+        enqueue(callFactory, "/after-shutdown", RequestPriority.NORMAL, completed);
+
+        Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(queuedCalls + 1, failures.size());
+        Assert.assertEquals(0, scheduler.queuedCallsCount());
+    }
+
+    private Call enqueue(Call.Factory callFactory, String path, RequestPriority priority, CountDownLatch completed) {
+        Call call = callFactory.newCall(new Request.Builder()
+            .url(server.url(path))
+            .tag(RequestPriority.class, priority)
+            .build());
+
+        call.enqueue(new RecordingCallback(completed));
+
+        return call;
+    }
+
+    private final class RecordingCallback implements Callback {
+        private final CountDownLatch completed;
+
+        RecordingCallback(CountDownLatch completed) {
+            this.completed = completed;
+        }
+
+        @Override
+        public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            failures.add(e);
+            countDown();
+        }
+
+        @Override
+        public void onResponse(@NonNull Call call, @NonNull Response response) {
+            response.close();
+            completedPaths.add(call.request().url().encodedPath());
+            countDown();
+        }
+
+        private void countDown() {
+            if (completed != null) {
+                completed.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.azure.android.core.http;
+
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerFormat;
+import com.azure.android.core.internal.util.serializer.StreamingJsonAdapter;
+import com.azure.android.core.util.ModelAccessors;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.http.GET;
+
+public class ServiceClientTest {
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void prewarmConnectsWithoutInterceptors() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(403));
+
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(server.url("/container").toString())
+            .setSerializationFormat(SerializerFormat.XML)
+            .setCredentialsInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                .header("Authorization", "SharedKey account:signature")
+                .build()))
+            .build();
+
+        try {
+            serviceClient.prewarm(Collections.singletonList(Container.class), true).get(10, TimeUnit.SECONDS);
+
+            RecordedRequest request = server.takeRequest();
+
+            Assert.assertEquals("HEAD", request.getMethod());
+            Assert.assertEquals("/container/", request.getPath());
+            Assert.assertNull(request.getHeader("Authorization"));
+
+            OkHttpClient httpClient = (OkHttpClient) serviceClient.getRetrofit().callFactory();
+
+            // The connection is kept for API calls.
+            Assert.assertEquals(1, httpClient.connectionPool().idleConnectionCount());
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    @Test
+    public void prewarmDoesNotConnectByDefault() throws Exception {
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(server.url("/container").toString())
+            .setSerializationFormat(SerializerFormat.XML)
+            .build();
+
+        try {
+            serviceClient.prewarm(Collections.singletonList(Container.class)).get(10, TimeUnit.SECONDS);
+
+            Assert.assertEquals(0, server.getRequestCount());
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    @Test
+    public void prewarmIgnoresConnectionFailures() throws Exception {
+        String baseUrl = server.url("/").toString();
+
+        server.shutdown();
+
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(baseUrl)
+            .setSerializationFormat(SerializerFormat.JSON)
+            .build();
+
+        try {
+            Assert.assertNull(serviceClient.prewarm(Collections.singletonList(Container.class), true)
+                .get(10, TimeUnit.SECONDS));
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    @Test
+    public void prewarmShortensFirstDeserialization() throws Exception {
+        String json = "{\"Name\":\"logs\",\"Last-Modified\":\"2019-11-04T17:09:12Z\",\"Metadata\":{\"tier\":\"hot\"},"
+            + "\"Blobs\":[{\"Name\":\"a.txt\",\"Content-Length\":42}]}";
+        long coldNanos = 0;
+        long prewarmedNanos = 0;
+
+        // Loads the classes of Jackson, so both measures only include the work done per adapter.
+        new JacksonAdapter().deserialize(json, ContainerProperties.class, SerializerFormat.JSON);
+
+        for (int i = 0; i < 5; i++) {
+            coldNanos += firstDeserializationNanos(json, false);
+            prewarmedNanos += firstDeserializationNanos(json, true);
+        }
+
+        Assert.assertTrue("Cold: " + coldNanos + "ns, prewarmed: " + prewarmedNanos + "ns",
+            prewarmedNanos < coldNanos);
+    }
+
+    private long firstDeserializationNanos(String json, boolean prewarm) throws Exception {
+        // Each client gets its own adapter, whose caches start empty.
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(server.url("/").toString())
+            .setSerializationFormat(SerializerFormat.JSON)
+            .setSerializerAdapter(new JacksonAdapter())
+            .build();
+
+        try {
+            if (prewarm) {
+                serviceClient.prewarm(Collections.singletonList(ContainerProperties.class)).get(10, TimeUnit.SECONDS);
+            }
+
+            long start = System.nanoTime();
+            ContainerProperties properties = serviceClient.getSerializerAdapter()
+                .deserialize(json, ContainerProperties.class, SerializerFormat.JSON);
+            long nanos = System.nanoTime() - start;
+
+            Assert.assertEquals("a.txt", properties.blobs.get(0).name);
+
+            return nanos;
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    @Test
+    public void usesSelectedSerializerAdapter() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"name\":\"logs\"}"));
+
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(server.url("/").toString())
+            .setSerializationFormat(SerializerFormat.JSON)
+            .setSerializerAdapter(new StreamingJsonAdapter().addCodec(Container.class, new ContainerCodec()))
+            .build();
+
+        try {
+            Container container = serviceClient.getRetrofit()
+                .create(ContainerService.class)
+                .getContainer()
+                .execute()
+                .body();
+
+            Assert.assertEquals("logs", container.name);
+            Assert.assertSame(serviceClient.getSerializerAdapter(),
+                serviceClient.newBuilder().build().getSerializerAdapter());
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    @Test
+    public void defaultAdapterUsesModelAccessors() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"name\":\"logs\"}"));
+
+        ServiceClient serviceClient = new ServiceClient.Builder()
+            .setBaseUrl(server.url("/").toString())
+            .setSerializationFormat(SerializerFormat.JSON)
+            .setModelAccessors(new ModelAccessors()
+                .addSetter(AnnotatedContainer.class, "name",
+                    (AnnotatedContainer container, String name) -> container.name = "set " + name))
+            .build();
+
+        try {
+            AnnotatedContainer container = serviceClient.getRetrofit()
+                .create(ContainerService.class)
+                .getAnnotatedContainer()
+                .execute()
+                .body();
+
+            Assert.assertEquals("set logs", container.name);
+        } finally {
+            serviceClient.close();
+        }
+    }
+
+    interface ContainerService {
+        @GET("container")
+        Call<Container> getContainer();
+
+        @GET("container")
+        Call<AnnotatedContainer> getAnnotatedContainer();
+    }
+
+    static class ContainerCodec implements StreamingJsonAdapter.Codec<Container> {
+        @Override
+        public Container read(JsonParser parser) throws IOException {
+            Container container = new Container();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if ("name".equals(fieldName)) {
+                    container.name = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return container;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Container value) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("name", value.name);
+            generator.writeEndObject();
+        }
+    }
+
+    static class Container {
+        String name;
+    }
+
+    static class AnnotatedContainer {
+        // Private without accessor methods, so no serializers are generated for the class.
+        @JsonProperty("name")
+        private String name;
+    }
+
+    static class ContainerProperties {
+        @JsonProperty("Name")
+        private String name;
+
+        @JsonProperty("Last-Modified")
+        private OffsetDateTime lastModified;
+
+        @JsonProperty("Metadata")
+        private Map<String, String> metadata;
+
+        @JsonProperty("Blobs")
+        private List<BlobProperties> blobs;
+    }
+
+    static class BlobProperties {
+        @JsonProperty("Name")
+        private String name;
+
+        @JsonProperty("Content-Length")
+        private long contentLength;
+    }
+}
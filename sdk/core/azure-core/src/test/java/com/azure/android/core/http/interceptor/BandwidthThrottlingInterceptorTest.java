@@ -0,0 +1,120 @@
+package com.azure.android.core.http.interceptor;
+
+import com.azure.android.core.http.RequestPriority;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+public class BandwidthThrottlingInterceptorTest {
+    private static final int BYTES_PER_SECOND = 32 * 1024;
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void downloadIsThrottled() throws IOException {
+        OkHttpClient httpClient = newHttpClient(new BandwidthLimiter(BYTES_PER_SECOND));
+
+        // The first second of bandwidth is available immediately, the second one has to be waited for.
+        long elapsedMillis = download(httpClient, 2 * BYTES_PER_SECOND, RequestPriority.BACKGROUND);
+
+        Assert.assertTrue("Took " + elapsedMillis + " ms", elapsedMillis >= 900);
+    }
+
+    @Test
+    public void interactiveCallsAreNotDelayed() throws IOException {
+        OkHttpClient httpClient = newHttpClient(new BandwidthLimiter(BYTES_PER_SECOND));
+
+        long elapsedMillis = download(httpClient, 4 * BYTES_PER_SECOND, RequestPriority.INTERACTIVE);
+
+        Assert.assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < 900);
+    }
+
+    @Test
+    public void bulkCallsUseLeftoverBandwidth() throws IOException {
+        OkHttpClient httpClient = newHttpClient(new BandwidthLimiter(BYTES_PER_SECOND));
+
+        download(httpClient, BYTES_PER_SECOND, RequestPriority.INTERACTIVE);
+
+        // The interactive call used the available bandwidth, so the bulk call waits for it to be refilled.
+        long elapsedMillis = download(httpClient, BYTES_PER_SECOND, RequestPriority.NORMAL);
+
+        Assert.assertTrue("Took " + elapsedMillis + " ms", elapsedMillis >= 900);
+    }
+
+    @Test
+    public void uploadIsThrottled() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new BandwidthLimiter(BYTES_PER_SECOND));
+
+        server.enqueue(new MockResponse());
+
+        long start = System.nanoTime();
+
+        httpClient.newCall(new Request.Builder()
+            .url(server.url("/"))
+            .put(RequestBody.create(null, new byte[2 * BYTES_PER_SECOND]))
+            .build()).execute().close();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertTrue("Took " + elapsedMillis + " ms", elapsedMillis >= 900);
+        Assert.assertEquals(2 * BYTES_PER_SECOND, server.takeRequest().getBodySize());
+    }
+
+    @Test
+    public void perHostLimitersUseTheCurrentRate() {
+        BandwidthThrottlingInterceptor interceptor = BandwidthThrottlingInterceptor.perHost(1000);
+        BandwidthLimiter existingLimiter = interceptor.getLimiter("existing.example.com");
+
+        interceptor.setBytesPerSecond(2000);
+
+        Assert.assertEquals(2000, existingLimiter.getBytesPerSecond());
+        Assert.assertEquals(2000, interceptor.getLimiter("new.example.com").getBytesPerSecond());
+    }
+
+    @Test
+    public void perHostLimitersAreBounded() {
+        BandwidthThrottlingInterceptor interceptor = BandwidthThrottlingInterceptor.perHost(1000);
+        BandwidthLimiter firstLimiter = interceptor.getLimiter("host0.example.com");
+
+        Assert.assertSame(firstLimiter, interceptor.getLimiter("host0.example.com"));
+
+        for (int i = 1; i <= BandwidthThrottlingInterceptor.MAX_HOSTS; i++) {
+            interceptor.getLimiter("host" + i + ".example.com");
+        }
+
+        Assert.assertNotSame(firstLimiter, interceptor.getLimiter("host0.example.com"));
+    }
+
+    private static OkHttpClient newHttpClient(BandwidthLimiter limiter) {
+        return new OkHttpClient.Builder()
+            .addInterceptor(new BandwidthThrottlingInterceptor(limiter))
+            .build();
+    }
+
+    private long download(OkHttpClient httpClient, int size, RequestPriority priority) throws IOException {
+        server.enqueue(new MockResponse().setBody(new Buffer().write(new byte[size])));
+
+        long start = System.nanoTime();
+
+        try (Response response = httpClient.newCall(new Request.Builder()
+            .url(server.url("/"))
+            .tag(RequestPriority.class, priority)
+            .build()).execute()) {
+            Assert.assertEquals(size, response.body().bytes().length);
+        }
+
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,283 @@
+package com.azure.android.core.http.interceptor;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class ETagCacheInterceptorTest {
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void notModifiedResponseIsAnsweredFromCache() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setHeader("x-ms-meta-a", "1")
+            .setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\"")
+            .setHeader("x-ms-meta-a", "2"));
+
+        Assert.assertEquals("content", execute(httpClient, new Request.Builder()).body().string());
+
+        try (Response response = execute(httpClient, new Request.Builder())) {
+            Assert.assertEquals(200, response.code());
+            Assert.assertEquals("2", response.header("x-ms-meta-a"));
+            Assert.assertEquals("content", response.body().string());
+        }
+
+        Assert.assertNull(server.takeRequest().getHeader("If-None-Match"));
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void modifiedResponseReplacesCachedEntry() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("old content"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("new content"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(httpClient, new Request.Builder()).body().string();
+        Assert.assertEquals("new content", execute(httpClient, new Request.Builder()).body().string());
+        Assert.assertEquals("new content", execute(httpClient, new Request.Builder()).body().string());
+
+        server.takeRequest();
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        Assert.assertEquals("\"v2\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void lastModifiedIsUsedWithoutETag() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+        String lastModified = "Tue, 13 Oct 2026 10:00:00 GMT";
+
+        server.enqueue(new MockResponse().setHeader("Last-Modified", lastModified).setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(httpClient, new Request.Builder()).body().string();
+        Assert.assertEquals("content", execute(httpClient, new Request.Builder()).body().string());
+
+        server.takeRequest();
+        Assert.assertEquals(lastModified, server.takeRequest().getHeader("If-Modified-Since"));
+    }
+
+    @Test
+    public void headResponseIsCachedRegardlessOfContentLength() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setHeader("Content-Length", 1024 * 1024));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(httpClient, new Request.Builder().head()).close();
+
+        try (Response response = execute(httpClient, new Request.Builder().head())) {
+            Assert.assertEquals(200, response.code());
+            Assert.assertEquals(String.valueOf(1024 * 1024), response.header("Content-Length"));
+        }
+
+        server.takeRequest();
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void responseLargerThanMemoryLimitIsNotCached() throws Exception {
+        ETagCache cache = new ETagCache(16, temporaryFolder.newFolder(), 1024 * 1024);
+        OkHttpClient httpClient = newHttpClient(cache);
+        String content = "content larger than the memory limit";
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(content));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(content));
+
+        Assert.assertEquals(content, execute(httpClient, new Request.Builder()).body().string());
+        Assert.assertEquals(content, execute(httpClient, new Request.Builder()).body().string());
+
+        server.takeRequest();
+        Assert.assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void responsesAreCachedPerVariant() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(206).setHeader("ETag", "\"v1\"").setBody("cont"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(httpClient, new Request.Builder().header("x-ms-version", "2019-02-02")).body().string();
+        execute(httpClient, new Request.Builder().header("x-ms-version", "2019-07-07")).body().string();
+        execute(httpClient, new Request.Builder().header("x-ms-range", "bytes=0-3")).body().string();
+
+        try (Response response = execute(httpClient, new Request.Builder().header("x-ms-range", "bytes=0-3"))) {
+            Assert.assertEquals(206, response.code());
+            Assert.assertEquals("cont", response.body().string());
+        }
+
+        server.takeRequest();
+        Assert.assertNull(server.takeRequest().getHeader("If-None-Match"));
+        Assert.assertNull(server.takeRequest().getHeader("If-None-Match"));
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void rangesAreCachedSeparately() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        for (String rangeHeader : new String[] { "Range", "x-ms-range" }) {
+            server.enqueue(new MockResponse().setResponseCode(206).setHeader("ETag", "\"v1\"").setBody("cont"));
+            server.enqueue(new MockResponse().setResponseCode(206).setHeader("ETag", "\"v1\"").setBody("ent"));
+
+            Assert.assertEquals("cont",
+                execute(httpClient, new Request.Builder().header(rangeHeader, "bytes=0-3")).body().string());
+            Assert.assertEquals("ent",
+                execute(httpClient, new Request.Builder().header(rangeHeader, "bytes=4-6")).body().string());
+
+            server.takeRequest();
+            Assert.assertNull(rangeHeader, server.takeRequest().getHeader("If-None-Match"));
+        }
+    }
+
+    @Test
+    public void responseIsCachedOnceReadToTheEnd() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        try (Response response = execute(httpClient, new Request.Builder())) {
+            Assert.assertEquals('c', response.body().source().readByte());
+        }
+
+        Assert.assertEquals("content", execute(httpClient, new Request.Builder()).body().string());
+        Assert.assertEquals("content", execute(httpClient, new Request.Builder()).body().string());
+
+        server.takeRequest();
+        Assert.assertNull(server.takeRequest().getHeader("If-None-Match"));
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void responseStreamsWhileBeingCached() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+        char[] content = new char[64];
+
+        Arrays.fill(content, 'a');
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(new String(content))
+            .throttleBody(8, 250, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+
+        try (Response response = execute(httpClient, new Request.Builder())) {
+            // The whole content takes about 2 seconds to arrive, the response is returned with its first bytes.
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            Assert.assertEquals(new String(content), response.body().string());
+        }
+    }
+
+    @Test
+    public void conditionalRequestIsPassedThrough() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(httpClient, new Request.Builder()).body().string();
+
+        try (Response response = execute(httpClient, new Request.Builder().header("If-None-Match", "\"v0\""))) {
+            Assert.assertEquals(304, response.code());
+        }
+
+        server.takeRequest();
+        Assert.assertEquals("\"v0\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void successfulWriteEvictsAllVariants() throws Exception {
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("new content"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\""));
+
+        execute(httpClient, new Request.Builder()).body().string();
+        execute(httpClient, new Request.Builder().head()).close();
+        execute(httpClient, new Request.Builder().put(RequestBody.create(MediaType.parse("text/plain"), "new content")))
+            .close();
+        execute(httpClient, new Request.Builder()).body().string();
+        execute(httpClient, new Request.Builder().head()).close();
+
+        for (int i = 0; i < 5; i++) {
+            RecordedRequest request = server.takeRequest();
+
+            Assert.assertNull(request.getMethod(), request.getHeader("If-None-Match"));
+        }
+    }
+
+    @Test
+    public void diskTierSurvivesNewCache() throws Exception {
+        File directory = temporaryFolder.newFolder();
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        execute(newHttpClient(new ETagCache(1024, directory, 1024)), new Request.Builder()).body().string();
+
+        Response response = execute(newHttpClient(new ETagCache(1024, directory, 1024)), new Request.Builder());
+
+        Assert.assertEquals("content", response.body().string());
+
+        server.takeRequest();
+        Assert.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void diskTierDoesNotStoreUrls() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        OkHttpClient httpClient = newHttpClient(new ETagCache(1024, directory, 1024));
+
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("content"));
+
+        Request request = new Request.Builder().url(server.url("/container/blob?sv=2019-02-02&sig=secret")).build();
+
+        Assert.assertEquals("content", httpClient.newCall(request).execute().body().string());
+
+        File[] files = directory.listFiles();
+
+        Assert.assertEquals(1, files.length);
+        Assert.assertFalse(new String(Files.readAllBytes(files[0].toPath()), StandardCharsets.UTF_8)
+            .contains("secret"));
+    }
+
+    private static OkHttpClient newHttpClient(ETagCache cache) {
+        return new OkHttpClient.Builder()
+            .addInterceptor(new ETagCacheInterceptor(cache))
+            .build();
+    }
+
+    private Response execute(OkHttpClient httpClient, Request.Builder requestBuilder) throws IOException {
+        return httpClient.newCall(requestBuilder.url(server.url("/container/blob")).build()).execute();
+    }
+}
@@ -0,0 +1,83 @@
+package com.azure.android.core.internal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import okio.Buffer;
+import okio.ByteString;
+
+public class Base64CodecTest {
+    @Test
+    public void encodesLikeOkio() throws Exception {
+        Random random = new Random(64);
+
+        for (int length = 0; length < 10_000; length += 1 + random.nextInt(7)) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            ByteString expected = ByteString.of(bytes);
+            String expectedUrl = expected.base64Url().replace("=", "");
+
+            Assert.assertEquals(expected.base64(), ascii(Base64Codec.encode(bytes, 0, length, false)));
+            Assert.assertEquals(expectedUrl, ascii(Base64Codec.encode(bytes, 0, length, true)));
+            Assert.assertEquals(expected.base64().length(), Base64Codec.encodedLength(length, false));
+            Assert.assertEquals(expectedUrl.length(), Base64Codec.encodedLength(length, true));
+
+            Buffer sink = new Buffer();
+            Base64Codec.encode(bytes, 0, length, sink, false);
+            Assert.assertEquals(expected.base64(), sink.readUtf8());
+        }
+    }
+
+    @Test
+    public void encodesRange() {
+        byte[] bytes = "xxhelloxx".getBytes(StandardCharsets.US_ASCII);
+
+        Assert.assertEquals("aGVsbG8=", ascii(Base64Codec.encode(bytes, 2, 5, false)));
+        Assert.assertEquals("aGVsbG8", ascii(Base64Codec.encode(bytes, 2, 5, true)));
+    }
+
+    @Test
+    public void decodesBothAlphabetsWithOrWithoutPadding() {
+        Random random = new Random(46);
+
+        for (int length = 0; length < 2_000; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            ByteString expected = ByteString.of(bytes);
+
+            Assert.assertEquals(expected, ByteString.of(Base64Codec.decode(expected.base64())));
+            Assert.assertEquals(expected, ByteString.of(Base64Codec.decode(expected.base64Url())));
+            Assert.assertEquals(expected, ByteString.of(Base64Codec.decode(expected.base64Url().replace("=", ""))));
+
+            byte[] encoded = ("  " + expected.base64() + "\n").getBytes(StandardCharsets.US_ASCII);
+
+            Assert.assertEquals(expected, ByteString.of(Base64Codec.decode(encoded, 0, encoded.length)));
+        }
+    }
+
+    @Test
+    public void skipsLineBreaks() {
+        Assert.assertEquals("hello world", ascii(Base64Codec.decode("aGVsbG8g\r\nd29y\nbGQ=\n")));
+    }
+
+    @Test
+    public void rejectsBadPadding() {
+        String[] invalid = { "a", "aGVsb", "=", "aG==x", "aGVsbG8==", "aG=", "aGVs=" };
+
+        for (String encoded : invalid) {
+            try {
+                Base64Codec.decode(encoded);
+                Assert.fail("Expected decoding to fail: " + encoded);
+            } catch (IllegalArgumentException e) {
+                // Expected.
+            }
+        }
+    }
+
+    private static String ascii(byte[] bytes) {
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,84 @@
+package com.azure.android.core.internal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.Instant;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class DateTimeRfc1123CodecTest {
+    private static final DateTimeFormatter FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'").withZone(ZoneId.of("UTC")).withLocale(Locale.US);
+
+    @Test
+    public void formatsLikeFormatter() {
+        Random random = new Random(1123);
+        // 0001-01-01 to 9999-12-31.
+        long min = -62_135_596_800L;
+        long max = 253_402_300_799L;
+
+        for (int i = 0; i < 100_000; i++) {
+            long epochSecond = min + (long) (random.nextDouble() * (max - min));
+            OffsetDateTime dateTime = OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond),
+                ZoneOffset.ofHours(random.nextInt(25) - 12));
+
+            Assert.assertEquals(FORMATTER.format(dateTime), DateTimeRfc1123Codec.format(dateTime));
+        }
+
+        OffsetDateTime farFuture = OffsetDateTime.of(10000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        Assert.assertEquals(FORMATTER.format(farFuture), DateTimeRfc1123Codec.format(farFuture));
+        Assert.assertEquals(-1, DateTimeRfc1123Codec.format(farFuture, new char[DateTimeRfc1123Codec.LENGTH], 0));
+    }
+
+    @Test
+    public void roundTrips() {
+        Random random = new Random(1994);
+
+        for (int i = 0; i < 100_000; i++) {
+            OffsetDateTime dateTime = OffsetDateTime.ofInstant(
+                Instant.ofEpochSecond((long) (random.nextDouble() * 253_402_300_799L)), ZoneOffset.UTC);
+
+            Assert.assertEquals(dateTime, DateTimeRfc1123Codec.parse(DateTimeRfc1123Codec.format(dateTime)));
+        }
+    }
+
+    @Test
+    public void parsesLikeFormatter() {
+        assertParsesLikeFormatter("Tue, 15 Nov 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 5 Nov 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("15 Nov 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 15 Nov 1994 08:12 GMT");
+        assertParsesLikeFormatter("Tue, 15 Nov 1994 08:12:31 +0100");
+        assertParsesLikeFormatter("Wed, 15 Nov 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 31 Nov 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 15 Xyz 1994 08:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 15 Nov 1994 24:12:31 GMT");
+        assertParsesLikeFormatter("Tue, 15 Nov 1994 08:12:31 UTC");
+    }
+
+    private static void assertParsesLikeFormatter(String text) {
+        OffsetDateTime expected;
+
+        try {
+            expected = OffsetDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME);
+        } catch (DateTimeException e) {
+            try {
+                DateTimeRfc1123Codec.parse(text);
+                Assert.fail("Expected parsing to fail: " + text);
+            } catch (DateTimeException expectedException) {
+                // Expected.
+            }
+
+            return;
+        }
+
+        Assert.assertEquals(text, expected, DateTimeRfc1123Codec.parse(text));
+    }
+}
@@ -0,0 +1,106 @@
+package com.azure.android.core.internal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.Duration;
+
+import java.util.Random;
+
+public class DurationCodecTest {
+    private static final String CHARACTERS = "0123456789PTDHMS.-+,";
+
+    @Test
+    public void formatsWithDaysComponent() {
+        Assert.assertEquals("PT0S", DurationCodec.format(Duration.ZERO));
+        Assert.assertEquals("P1DT2H30M", DurationCodec.format(Duration.ofMinutes(26 * 60 + 30)));
+        Assert.assertEquals("P2D", DurationCodec.format(Duration.ofDays(2)));
+        Assert.assertEquals("PT0.5S", DurationCodec.format(Duration.ofMillis(500)));
+        Assert.assertEquals("PT1M0.000000001S", DurationCodec.format(Duration.ofSeconds(60, 1)));
+        Assert.assertEquals("-PT15M", DurationCodec.format(Duration.ofMinutes(-15)));
+        Assert.assertEquals("-PT0.25S", DurationCodec.format(Duration.ofMillis(-250)));
+    }
+
+    @Test
+    public void roundTrips() {
+        Random random = new Random(8601);
+
+        assertRoundTrips(Duration.ofSeconds(Long.MAX_VALUE, 999_999_999));
+        assertRoundTrips(Duration.ofSeconds(Long.MIN_VALUE));
+        assertRoundTrips(Duration.ofSeconds(Long.MIN_VALUE, 1));
+        assertRoundTrips(Duration.ofSeconds(-86_400));
+        assertRoundTrips(Duration.ofSeconds(-86_401, 999_999_999));
+
+        for (int i = 0; i < 100_000; i++) {
+            long seconds;
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    seconds = random.nextLong();
+                    break;
+                case 1:
+                    seconds = random.nextInt();
+                    break;
+                default:
+                    seconds = random.nextInt(200_000) - 100_000;
+                    break;
+            }
+
+            int nanos = random.nextBoolean() ? 0 : random.nextInt(1_000_000_000);
+
+            assertRoundTrips(Duration.ofSeconds(seconds, nanos));
+        }
+    }
+
+    @Test
+    public void parsesLikeDurationParse() {
+        Random random = new Random(1);
+        String[] samples = {
+            "PT0S", "P1DT2H30M", "PT36H", "PT90M", "PT100S", "PT1.5S", "-P1D", "P1D", "PT.5S", "PT1,5S", "P-1DT2H",
+            "pt1h", "P", "PT", "P1DT", "PT1S2M", "PT1H1H", "PT1.1234567891S", "P999999999999999D", "PT1.S"
+        };
+
+        for (String sample : samples) {
+            assertParsesLikeDurationParse(sample);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder builder = new StringBuilder(samples[random.nextInt(samples.length)]);
+            int position = random.nextInt(builder.length());
+
+            if (random.nextBoolean()) {
+                builder.insert(position, CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+            } else {
+                builder.setCharAt(position, CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+            }
+
+            assertParsesLikeDurationParse(builder.toString());
+        }
+    }
+
+    private static void assertRoundTrips(Duration duration) {
+        String text = DurationCodec.format(duration);
+
+        Assert.assertEquals(text, duration, DurationCodec.parse(text));
+        Assert.assertEquals(text, duration, Duration.parse(text));
+    }
+
+    private static void assertParsesLikeDurationParse(String text) {
+        Duration expected;
+
+        try {
+            expected = Duration.parse(text);
+        } catch (DateTimeException e) {
+            try {
+                DurationCodec.parse(text);
+                Assert.fail("Expected parsing to fail: " + text);
+            } catch (DateTimeException expectedException) {
+                // Expected.
+            }
+
+            return;
+        }
+
+        Assert.assertEquals(text, expected, DurationCodec.parse(text));
+    }
+}
@@ -0,0 +1,225 @@
+package com.azure.android.core.internal.util;
+
+import com.azure.android.core.http.exception.HttpResponseException;
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerAdapter;
+import com.azure.android.core.internal.util.serializer.StreamingJsonAdapter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class ExceptionUtilsTest {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final SerializerAdapter serializerAdapter = new JacksonAdapter();
+
+    @Test
+    public void mapsStatusCodesToExceptionTypes() {
+        Map<Integer, Class<? extends HttpResponseException>> exceptionMapping = new HashMap<>();
+
+        exceptionMapping.put(404, ResourceNotFoundException.class);
+
+        Assert.assertTrue(ExceptionUtils.createException(exceptionMapping, response(404, null), serializerAdapter)
+            instanceof ResourceNotFoundException);
+        Assert.assertEquals(HttpResponseException.class,
+            ExceptionUtils.createException(exceptionMapping, response(409, null), serializerAdapter).getClass());
+
+        exceptionMapping.put(-1, ConflictException.class);
+
+        Assert.assertTrue(ExceptionUtils.createException(exceptionMapping, response(409, null), serializerAdapter)
+            instanceof ConflictException);
+    }
+
+    @Test
+    public void decodesErrorBodyIntoValueType() {
+        Map<Integer, Class<? extends HttpResponseException>> exceptionMapping = new HashMap<>();
+
+        exceptionMapping.put(404, ResourceNotFoundException.class);
+
+        for (int i = 0; i < 2; i++) {
+            ResourceNotFoundException exception = (ResourceNotFoundException) ExceptionUtils.createException(
+                exceptionMapping, response(404, "{\"Code\":\"ContainerNotFound\"}"), serializerAdapter);
+
+            Assert.assertEquals("Status code 404, \"{\"Code\":\"ContainerNotFound\"}\"", exception.getMessage());
+            Assert.assertEquals("ContainerNotFound", exception.value().code);
+        }
+    }
+
+    @Test
+    public void decodesErrorBodyWithItsCharset() {
+        Map<Integer, Class<? extends HttpResponseException>> exceptionMapping = new HashMap<>();
+        MediaType latin1Json = MediaType.parse("application/json; charset=ISO-8859-1");
+
+        exceptionMapping.put(404, ResourceNotFoundException.class);
+
+        Response response = response(404, null).newBuilder()
+            .header("Content-Type", latin1Json.toString())
+            .body(ResponseBody.create(latin1Json, "{\"Code\":\"Caf\u00e9NotFound\"}"))
+            .build();
+        ResourceNotFoundException exception = (ResourceNotFoundException) ExceptionUtils.createException(
+            exceptionMapping, response, serializerAdapter);
+
+        Assert.assertEquals("Status code 404, \"{\"Code\":\"Caf\u00e9NotFound\"}\"", exception.getMessage());
+        Assert.assertEquals("Caf\u00e9NotFound", exception.value().code);
+    }
+
+    @Test
+    public void decodesErrorBodyWithStreamingAdapter() {
+        Map<Integer, Class<? extends HttpResponseException>> exceptionMapping = new HashMap<>();
+        StreamingJsonAdapter streamingAdapter = new StreamingJsonAdapter();
+
+        exceptionMapping.put(404, ResourceNotFoundException.class);
+        exceptionMapping.put(409, ContainerConflictException.class);
+
+        // No codec is registered for the value types, the exceptions are created without a value.
+        ResourceNotFoundException notFound = (ResourceNotFoundException) ExceptionUtils.createException(
+            exceptionMapping, response(404, "{\"Code\":\"ContainerNotFound\"}"), streamingAdapter);
+        HttpResponseException internalError = (HttpResponseException) ExceptionUtils.createException(
+            exceptionMapping, response(500, "{\"Code\":\"InternalError\"}"), streamingAdapter);
+
+        Assert.assertNull(notFound.value());
+        Assert.assertNull(internalError.getValue());
+
+        streamingAdapter.addCodec(StorageError.class, new StreamingJsonAdapter.Codec<StorageError>() {
+            @Override
+            public StorageError read(JsonParser parser) throws IOException {
+                StorageError error = new StorageError();
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+
+                    parser.nextToken();
+
+                    if ("Code".equals(fieldName)) {
+                        error.code = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+
+                return error;
+            }
+
+            @Override
+            public void write(JsonGenerator generator, StorageError value) throws IOException {
+                generator.writeStartObject();
+                generator.writeStringField("Code", value.code);
+                generator.writeEndObject();
+            }
+        });
+
+        ContainerConflictException conflict = (ContainerConflictException) ExceptionUtils.createException(
+            exceptionMapping, response(409, "{\"Code\":\"ContainerAlreadyExists\"}"), streamingAdapter);
+
+        Assert.assertEquals("ContainerAlreadyExists", conflict.getValue().code);
+    }
+
+    @Test
+    public void reportsEmptyBody() {
+        RuntimeException exception =
+            ExceptionUtils.createException(new HashMap<>(), response(500, ""), serializerAdapter);
+
+        Assert.assertEquals("Status code 500, (empty body)", exception.getMessage());
+        Assert.assertNull(((HttpResponseException) exception).getValue());
+    }
+
+    @Test
+    public void boundsErrorBody() {
+        char[] padding = new char[100 * 1024];
+
+        Arrays.fill(padding, 'a');
+
+        String body = "{\"Code\":\"" + new String(padding) + "\"}";
+        HttpResponseException exception = (HttpResponseException) ExceptionUtils.createException(new HashMap<>(),
+            response(500, body), serializerAdapter);
+
+        Assert.assertEquals("Status code 500, \"".length() + 64 * 1024 + 1, exception.getMessage().length());
+        Assert.assertNull(exception.getValue());
+    }
+
+    @Test
+    public void reportsExceptionTypesWithoutConstructor() {
+        Map<Integer, Class<? extends HttpResponseException>> exceptionMapping = new HashMap<>();
+
+        exceptionMapping.put(412, NoConstructorException.class);
+
+        RuntimeException exception =
+            ExceptionUtils.createException(exceptionMapping, response(412, "precondition"), serializerAdapter);
+
+        Assert.assertTrue(exception.getCause() instanceof IOException);
+        Assert.assertTrue(exception.getCause().getMessage().endsWith("Response body: \"precondition\""));
+
+        Throwable lookupFailure = exception.getCause().getCause();
+        Throwable otherLookupFailure = ExceptionUtils.createException(exceptionMapping, response(412, "precondition"),
+            serializerAdapter).getCause().getCause();
+
+        Assert.assertTrue(lookupFailure instanceof NoSuchMethodException);
+        Assert.assertEquals(NoConstructorException.class.getName() + ".<init>(java.lang.String, okhttp3.Response, "
+            + "java.lang.Object)", lookupFailure.getMessage());
+        Assert.assertNotSame(lookupFailure, otherLookupFailure);
+    }
+
+    private static Response response(int code, String body) {
+        return new Response.Builder()
+            .request(new Request.Builder().url("https://account.blob.core.windows.net/container").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(code)
+            .message("Error")
+            .header("Content-Type", JSON.toString())
+            .body(body == null ? null : ResponseBody.create(JSON, body))
+            .build();
+    }
+
+    public static class StorageError {
+        @JsonProperty("Code")
+        String code;
+    }
+
+    public static class ResourceNotFoundException extends HttpResponseException {
+        public ResourceNotFoundException(String message, Response response, StorageError value) {
+            super(message, response, value);
+        }
+
+        public StorageError value() {
+            return (StorageError) getValue();
+        }
+    }
+
+    public static class ContainerConflictException extends HttpResponseException {
+        public ContainerConflictException(String message, Response response, StorageError value) {
+            super(message, response, value);
+        }
+
+        @Override
+        public StorageError getValue() {
+            return (StorageError) super.getValue();
+        }
+    }
+
+    public static class ConflictException extends HttpResponseException {
+        public ConflictException(String message, Response response, Object value) {
+            super(message, response, value);
+        }
+    }
+
+    public static class NoConstructorException extends HttpResponseException {
+        public NoConstructorException(String message, Response response) {
+            super(message, response);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.azure.android.core.internal.util.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.Headers;
+
+public class ContentTypeTest {
+    @Test
+    public void detectsXml() {
+        String[] xmlContentTypes = {
+            "application/xml",
+            "application/xml; charset=utf-8",
+            "application/xml;charset=utf-8",
+            "application/xml ; charset=UTF-8",
+            "Application/XML; Charset=\"utf-8\"",
+            "text/xml",
+            "text/xml; charset=ISO-8859-1",
+            "  application/xml\t;charset=utf-8  "
+        };
+
+        for (String contentType : xmlContentTypes) {
+            Assert.assertEquals(contentType, SerializerFormat.XML, SerializerFormat.fromHeaders(headers(contentType)));
+        }
+    }
+
+    @Test
+    public void detectsJson() {
+        String[] jsonContentTypes = {
+            "application/json",
+            "application/json; charset=utf-8",
+            "application/xml-dtd",
+            "application/octet-stream",
+            ";application/xml",
+            ""
+        };
+
+        for (String contentType : jsonContentTypes) {
+            Assert.assertEquals(contentType, SerializerFormat.JSON, SerializerFormat.fromHeaders(headers(contentType)));
+        }
+
+        Assert.assertEquals(SerializerFormat.JSON, SerializerFormat.fromHeaders(Headers.of()));
+    }
+
+    @Test
+    public void extractsCharset() {
+        Assert.assertEquals(StandardCharsets.UTF_8, ContentType.parse("application/xml; charset=utf-8").getCharset());
+        Assert.assertEquals(StandardCharsets.UTF_8,
+            ContentType.parse("application/xml;charset=\"UTF-8\"").getCharset());
+        Assert.assertEquals(StandardCharsets.UTF_8,
+            ContentType.parse("application/xml; version=2; charset = utf-8 ").getCharset());
+        Assert.assertEquals(StandardCharsets.ISO_8859_1,
+            ContentType.parse("text/xml; charset=ISO-8859-1").getCharset());
+        Assert.assertNull(ContentType.parse("application/xml").getCharset());
+        Assert.assertNull(ContentType.parse("application/xml; charset=unknown-charset").getCharset());
+        Assert.assertNull(ContentType.parse("application/xml; charset=").getCharset());
+        Assert.assertEquals(StandardCharsets.UTF_8,
+            ContentType.parse("application/xml; charset").getCharset(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void normalizesMediaType() {
+        Assert.assertEquals("application/xml", ContentType.parse(" Application/XML ; charset=utf-8").getMediaType());
+        Assert.assertSame(ContentType.parse("application/json"), ContentType.parse("application/json"));
+    }
+
+    private static Headers headers(String contentType) {
+        return Headers.of("Content-Type", contentType);
+    }
+}
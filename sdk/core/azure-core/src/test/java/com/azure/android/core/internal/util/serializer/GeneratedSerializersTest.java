@@ -0,0 +1,234 @@
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.annotation.HeaderCollection;
+import com.azure.android.core.annotation.JsonFlatten;
+import com.azure.android.core.util.DateTimeRfc1123;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Headers;
+
+public class GeneratedSerializersTest {
+    private static final String BLOB_JSON = "{\"Name\":\"a.txt\",\"Content-Length\":42,\"Deleted\":true,"
+        + "\"Last-Modified\":\"2019-11-04T17:09:12Z\",\"Tags\":[{\"Key\":\"tier\",\"Value\":\"hot\"},"
+        + "{\"Key\":\"owner\"}],\"Metadata\":{\"owner\":\"logs\"},\"Version\":\"v1\",\"Snapshot\":null}";
+
+    private final JacksonAdapter adapter = new JacksonAdapter();
+
+    @Test
+    public void generatedPairsAreRegistered() throws Exception {
+        Assert.assertTrue(adapter.serializer().getSerializerProviderInstance().findValueSerializer(Blob.class)
+            instanceof GeneratedJsonSerializer);
+        Assert.assertTrue(adapter.serializer().getSerializerProviderInstance().findValueSerializer(Tag.class)
+            instanceof GeneratedJsonSerializer);
+        Assert.assertFalse(adapter.serializer().getSerializerProviderInstance()
+            .findValueSerializer(IntrospectedBlob.class) instanceof GeneratedJsonSerializer);
+    }
+
+    @Test
+    public void generatedPairsMatchJackson() throws Exception {
+        Blob blob = adapter.deserialize(BLOB_JSON, Blob.class, SerializerFormat.JSON);
+        IntrospectedBlob introspectedBlob = adapter.deserialize(BLOB_JSON, IntrospectedBlob.class,
+            SerializerFormat.JSON);
+
+        Assert.assertEquals("a.txt", blob.name);
+        Assert.assertEquals(42, blob.contentLength);
+        Assert.assertEquals(Boolean.TRUE, blob.deleted);
+        Assert.assertEquals(OffsetDateTime.parse("2019-11-04T17:09:12Z"), blob.lastModified);
+        Assert.assertEquals(2, blob.tags.size());
+        Assert.assertEquals("hot", blob.tags.get(0).value);
+        Assert.assertNull(blob.tags.get(1).value);
+        Assert.assertEquals("logs", blob.metadata.get("owner"));
+        Assert.assertEquals("v1", blob.getVersion());
+        Assert.assertNull(blob.snapshot);
+        Assert.assertEquals(adapter.serialize(introspectedBlob, SerializerFormat.JSON),
+            adapter.serialize(blob, SerializerFormat.JSON));
+    }
+
+    @Test
+    public void unknownPropertiesAreSkippedUnlessStrict() throws Exception {
+        String json = "{\"Name\":\"a.txt\",\"Properties\":{\"Etag\":[1,{\"a\":2}]},\"Content-Length\":7}";
+        Blob blob = adapter.deserialize(json, Blob.class, SerializerFormat.JSON);
+
+        Assert.assertEquals("a.txt", blob.name);
+        Assert.assertEquals(7, blob.contentLength);
+
+        try {
+            JacksonAdapter.createStrictSerializerAdapter().deserialize(json, Blob.class, SerializerFormat.JSON);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Properties"));
+        }
+    }
+
+    @Test
+    public void emptyStringAndNullAreReadAsNull() throws Exception {
+        Assert.assertNull(adapter.deserialize("\"\"", Blob.class, SerializerFormat.JSON));
+        Assert.assertNull(adapter.deserialize("null", Blob.class, SerializerFormat.JSON));
+        Assert.assertEquals("{}", adapter.serialize(new Tag(), SerializerFormat.JSON));
+    }
+
+    @Test
+    public void flattenedPropertiesAreNested() throws Exception {
+        FlattenedBlob blob = new FlattenedBlob();
+
+        blob.name = "a.txt";
+        blob.odataType = "#Blob";
+
+        Assert.assertEquals("{\"name\":\"a.txt\",\"odata.type\":\"#Blob\"}",
+            adapter.serialize(blob, SerializerFormat.JSON));
+
+        blob.contentType = "text/plain";
+        blob.etag = "0x8D";
+
+        String json = adapter.serialize(blob, SerializerFormat.JSON);
+
+        Assert.assertEquals("{\"name\":\"a.txt\",\"properties\":{\"contentType\":\"text/plain\","
+            + "\"cache\":{\"etag\":\"0x8D\"}},\"odata.type\":\"#Blob\"}", json);
+
+        FlattenedBlob deserialized = adapter.deserialize(json, FlattenedBlob.class, SerializerFormat.JSON);
+
+        Assert.assertEquals("a.txt", deserialized.name);
+        Assert.assertEquals("text/plain", deserialized.contentType);
+        Assert.assertEquals("0x8D", deserialized.etag);
+        Assert.assertEquals("#Blob", deserialized.odataType);
+    }
+
+    @Test
+    public void headersAreReadCaseInsensitivelyWithHeaderCollections() throws Exception {
+        Headers headers = Headers.of("content-length", "42", "Last-Modified", "Mon, 04 Nov 2019 17:09:12 GMT",
+            "x-ms-meta-Owner", "logs", "X-MS-META-tier", "hot", "x-ms-request-id", "7");
+
+        for (SerializerAdapter headersAdapter : new SerializerAdapter[] {
+            adapter, JacksonAdapter.createStrictSerializerAdapter()}) {
+            BlobHeaders blobHeaders = headersAdapter.deserialize(headers, BlobHeaders.class);
+
+            Assert.assertEquals(Long.valueOf(42), blobHeaders.contentLength);
+            Assert.assertEquals(OffsetDateTime.parse("2019-11-04T17:09:12Z"),
+                blobHeaders.lastModified.getDateTime());
+            Assert.assertEquals(2, blobHeaders.getMetadata().size());
+            Assert.assertEquals("logs", blobHeaders.getMetadata().get("Owner"));
+            Assert.assertEquals("hot", blobHeaders.getMetadata().get("tier"));
+        }
+
+        Assert.assertTrue(adapter.deserialize(Headers.of(), BlobHeaders.class) instanceof BlobHeaders);
+    }
+
+    static class Blob {
+        @JsonProperty("Name")
+        String name;
+
+        @JsonProperty("Content-Length")
+        long contentLength;
+
+        @JsonProperty("Deleted")
+        Boolean deleted;
+
+        @JsonProperty("Last-Modified")
+        OffsetDateTime lastModified;
+
+        @JsonProperty("Tags")
+        List<Tag> tags;
+
+        @JsonProperty("Metadata")
+        Map<String, String> metadata;
+
+        @JsonProperty("Version")
+        private String version;
+
+        @JsonProperty("Snapshot")
+        String snapshot;
+
+        @JsonIgnore
+        String ignored = "ignored";
+
+        String getVersion() {
+            return version;
+        }
+
+        void setVersion(String version) {
+            this.version = version;
+        }
+    }
+
+    static class Tag {
+        @JsonProperty("Key")
+        String key;
+
+        @JsonProperty("Value")
+        String value;
+    }
+
+    /**
+     * Same properties as {@link Blob}, but introspected by Jackson because of its {@code JsonInclude} annotation.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class IntrospectedBlob {
+        @JsonProperty("Name")
+        String name;
+
+        @JsonProperty("Content-Length")
+        long contentLength;
+
+        @JsonProperty("Deleted")
+        Boolean deleted;
+
+        @JsonProperty("Last-Modified")
+        OffsetDateTime lastModified;
+
+        @JsonProperty("Tags")
+        List<Tag> tags;
+
+        @JsonProperty("Metadata")
+        Map<String, String> metadata;
+
+        @JsonProperty("Version")
+        private String version;
+
+        @JsonProperty("Snapshot")
+        String snapshot;
+    }
+
+    @JsonFlatten
+    static class FlattenedBlob {
+        @JsonProperty("name")
+        String name;
+
+        @JsonProperty("properties.contentType")
+        String contentType;
+
+        @JsonProperty("properties.cache.etag")
+        String etag;
+
+        @JsonProperty("odata\\.type")
+        String odataType;
+    }
+
+    static class BlobHeaders {
+        @JsonProperty("Content-Length")
+        Long contentLength;
+
+        @JsonProperty("Last-Modified")
+        DateTimeRfc1123 lastModified;
+
+        @HeaderCollection("x-ms-meta-")
+        private Map<String, String> metadata;
+
+        Map<String, String> getMetadata() {
+            return metadata;
+        }
+
+        void setMetadata(Map<String, String> metadata) {
+            this.metadata = metadata;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.annotation.HeaderCollection;
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.azure.android.core.util.DateTimeRfc1123;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Headers;
+import okio.Buffer;
+
+public class JacksonAdapterTest {
+    private final JacksonAdapter adapter = new JacksonAdapter();
+
+    @Test
+    public void serializeListJoinsScalars() {
+        List<?> list = Arrays.asList("metadata", 42, 1.5, true, new BigDecimal("1.10"), null, ListingDetails.SNAPSHOTS);
+
+        Assert.assertEquals("metadata,42,1.5,true,1.10,,snapshots",
+            adapter.serializeList(list, SerializerAdapter.CollectionFormat.CSV));
+        Assert.assertEquals("metadata|42|1.5|true|1.10||snapshots",
+            adapter.serializeList(list, SerializerAdapter.CollectionFormat.PIPES));
+        Assert.assertEquals("", adapter.serializeList(Collections.emptyList(), SerializerAdapter.CollectionFormat.SSV));
+        Assert.assertNull(adapter.serializeList(null, SerializerAdapter.CollectionFormat.TSV));
+    }
+
+    @Test
+    public void serializeListMatchesJackson() throws Exception {
+        OffsetDateTime dateTime = OffsetDateTime.of(2019, 11, 4, 17, 9, 12, 500_000_000, ZoneOffset.ofHours(2));
+        List<?> list = Arrays.asList("a\"b", "tab\there", "back\\slash", "", dateTime,
+            new DateTimeRfc1123(dateTime), Duration.ofMinutes(90), PlainEnum.VALUE, Long.MAX_VALUE, 1e20, 0.1f,
+            Collections.singletonMap("key", "value"));
+
+        for (Object element : list) {
+            Assert.assertEquals(String.valueOf(element), jacksonRaw(element),
+                adapter.serializeList(Collections.singletonList(element), SerializerAdapter.CollectionFormat.CSV));
+        }
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void serializeListReportsElementFailures() {
+        adapter.serializeList(Collections.singletonList(new UnserializableElement()),
+            SerializerAdapter.CollectionFormat.CSV);
+    }
+
+    @Test
+    public void deserializeSkipsBom() throws Exception {
+        String xml = "\uFEFF<?xml version=\"1.0\" encoding=\"utf-8\"?><Container><Name>logs</Name></Container>";
+        String json = "\uFEFF{\"name\":\"logs\"}";
+
+        Container fromXmlString = adapter.deserialize(xml, Container.class, SerializerFormat.XML);
+        Container fromXmlSource = adapter.deserialize(new Buffer().writeUtf8(xml), Container.class,
+            SerializerFormat.XML);
+        Map<String, String> fromJsonString = adapter.deserialize(json, Map.class, SerializerFormat.JSON);
+        Map<String, String> fromJsonSource = adapter.deserialize(new Buffer().writeUtf8(json), Map.class,
+            SerializerFormat.JSON);
+
+        Assert.assertEquals("logs", fromXmlString.name);
+        Assert.assertEquals("logs", fromXmlSource.name);
+        Assert.assertEquals("logs", fromJsonString.get("name"));
+        Assert.assertEquals("logs", fromJsonSource.get("name"));
+    }
+
+    @Test
+    public void deserializeEmptySourceReturnsNull() throws Exception {
+        Assert.assertNull(adapter.deserialize(new Buffer(), Container.class, SerializerFormat.XML));
+        Assert.assertNull(adapter.deserialize(new Buffer().writeUtf8("\uFEFF"), Container.class, SerializerFormat.XML));
+        Assert.assertNull(adapter.deserialize("\uFEFF", Container.class, SerializerFormat.JSON));
+    }
+
+    @Test
+    public void warmedUpTypesRoundTrip() throws Exception {
+        adapter.warmUp(Container.class, SerializerFormat.XML);
+        adapter.warmUp(Container.class, SerializerFormat.JSON);
+
+        Container container = new Container();
+
+        container.name = "logs";
+
+        for (SerializerFormat format : SerializerFormat.values()) {
+            String serialized = adapter.serialize(container, format);
+            Container deserialized = adapter.deserialize(serialized, Container.class, format);
+
+            Assert.assertEquals("logs", deserialized.name);
+            Assert.assertEquals(serialized, adapter.serialize(container, format));
+        }
+    }
+
+    @Test
+    public void serializeUsesRuntimeType() throws Exception {
+        adapter.warmUp(Container.class, SerializerFormat.JSON);
+
+        LeasedContainer container = new LeasedContainer();
+
+        container.name = "logs";
+        container.leaseState = "leased";
+
+        Assert.assertEquals("{\"Name\":\"logs\",\"LeaseState\":\"leased\"}",
+            adapter.serialize(container, SerializerFormat.JSON));
+    }
+
+    @Test
+    public void sharedAdaptersAreSingletons() {
+        Assert.assertSame(JacksonAdapter.createDefaultSerializerAdapter(), SerializerAdapter.createDefault());
+        Assert.assertSame(JacksonAdapter.createStrictSerializerAdapter(),
+            JacksonAdapter.createStrictSerializerAdapter());
+        Assert.assertNotSame(JacksonAdapter.createDefaultSerializerAdapter(),
+            JacksonAdapter.createStrictSerializerAdapter());
+    }
+
+    @Test
+    public void strictAdapterFailsOnUnknownProperties() throws Exception {
+        SerializerAdapter strictAdapter = JacksonAdapter.createStrictSerializerAdapter();
+        String json = "{\"Name\":\"logs\",\"Etag\":\"0x8D\"}";
+        String xml = "<Container><Name>logs</Name><Etag>0x8D</Etag></Container>";
+        Container lenientContainer = adapter.deserialize(json, Container.class, SerializerFormat.JSON);
+
+        Assert.assertEquals("logs", lenientContainer.name);
+
+        for (SerializerFormat format : SerializerFormat.values()) {
+            try {
+                strictAdapter.deserialize(format == SerializerFormat.XML ? xml : json, Container.class, format);
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("Etag"));
+            }
+        }
+    }
+
+    @Test
+    public void strictAdapterIgnoresUnknownHeaders() throws Exception {
+        Headers headers = Headers.of("x-ms-request-id", "42", "Date", "Mon, 04 Nov 2019 17:09:12 GMT");
+        RequestHeaders requestHeaders = JacksonAdapter.createStrictSerializerAdapter()
+            .deserialize(headers, RequestHeaders.class);
+
+        Assert.assertEquals("42", requestHeaders.requestId);
+    }
+
+    @Test
+    public void deserializeHeadersFillsHeaderCollections() throws Exception {
+        Headers headers = Headers.of("x-ms-request-id", "42", "x-ms-meta-Owner", "logs", "X-MS-META-tier", "hot",
+            "x-ms-metadata", "none");
+
+        for (int i = 0; i < 2; i++) {
+            MetadataHeaders metadataHeaders = adapter.deserialize(headers, MetadataHeaders.class);
+
+            Assert.assertEquals("42", metadataHeaders.requestId);
+            Assert.assertEquals(2, metadataHeaders.metadata.size());
+            Assert.assertEquals("logs", metadataHeaders.metadata.get("Owner"));
+            Assert.assertEquals("hot", metadataHeaders.metadata.get("tier"));
+        }
+    }
+
+    private String jacksonRaw(Object element) throws Exception {
+        return adapter.serialize(element, SerializerFormat.JSON).replaceAll("^\"*", "").replaceAll("\"*$", "");
+    }
+
+    static class Container {
+        @JsonProperty("Name")
+        String name;
+    }
+
+    static class RequestHeaders {
+        @JsonProperty("x-ms-request-id")
+        String requestId;
+    }
+
+    static class MetadataHeaders {
+        @JsonProperty("x-ms-request-id")
+        String requestId;
+
+        @HeaderCollection("x-ms-meta-")
+        private Map<String, String> metadata;
+    }
+
+    static class LeasedContainer extends Container {
+        @JsonProperty("LeaseState")
+        String leaseState;
+    }
+
+    enum ListingDetails {
+        SNAPSHOTS("snapshots");
+
+        private final String value;
+
+        ListingDetails(String value) {
+            this.value = value;
+        }
+
+        @JsonValue
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    enum PlainEnum {
+        VALUE
+    }
+
+    static class UnserializableElement {
+        @JsonValue
+        String value() {
+            throw new IllegalStateException("Not serializable.");
+        }
+    }
+}
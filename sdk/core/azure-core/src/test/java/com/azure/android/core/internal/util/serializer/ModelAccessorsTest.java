@@ -0,0 +1,126 @@
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.util.ModelAccessors;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ModelAccessorsTest {
+    private final AtomicInteger setterCalls = new AtomicInteger();
+    private final AtomicInteger getterCalls = new AtomicInteger();
+    private final JacksonAdapter adapter = new JacksonAdapter(new ModelAccessors()
+        .addSetter(BlobItem.class, "name", (BlobItem blob, String name) -> {
+            setterCalls.incrementAndGet();
+            blob.name = name;
+        })
+        .addSetter(BlobItem.class, "lastModified", (BlobItem blob, OffsetDateTime lastModified) -> {
+            setterCalls.incrementAndGet();
+            blob.lastModified = lastModified;
+        })
+        .addSetter(BlobItem.class, "metadata", (BlobItem blob, Map<String, String> metadata) -> {
+            setterCalls.incrementAndGet();
+            blob.metadata = metadata;
+        })
+        .addSetter(BlobList.class, "blobs", (BlobList list, List<BlobItem> blobs) -> {
+            setterCalls.incrementAndGet();
+            list.blobs = blobs;
+        })
+        .addGetter(BlobItem.class, "name", (BlobItem blob) -> {
+            getterCalls.incrementAndGet();
+
+            return blob.name;
+        })
+        .addGetter(BlobItem.class, "lastModified", (BlobItem blob) -> {
+            getterCalls.incrementAndGet();
+
+            return blob.lastModified;
+        })
+        .addGetter(BlobItem.class, "metadata", (BlobItem blob) -> {
+            getterCalls.incrementAndGet();
+
+            return blob.metadata;
+        })
+        .addGetter(BlobList.class, "blobs", (BlobList list) -> {
+            getterCalls.incrementAndGet();
+
+            return list.blobs;
+        }));
+
+    @Test
+    public void deserializesJsonThroughSetters() throws Exception {
+        String json = "{\"blobs\":[{\"Name\":\"a.txt\",\"Last-Modified\":\"2019-11-04T17:09:12Z\","
+            + "\"Metadata\":{\"owner\":\"logs\"},\"Content-Length\":42},{\"Name\":null}]}";
+        BlobList list = adapter.deserialize(json, BlobList.class, SerializerFormat.JSON);
+
+        Assert.assertEquals(2, list.blobs.size());
+        Assert.assertEquals("a.txt", list.blobs.get(0).name);
+        Assert.assertEquals(OffsetDateTime.parse("2019-11-04T17:09:12Z"), list.blobs.get(0).lastModified);
+        Assert.assertEquals("logs", list.blobs.get(0).metadata.get("owner"));
+        // Fields without a setter are still set reflectively.
+        Assert.assertEquals(42, list.blobs.get(0).contentLength);
+        Assert.assertNull(list.blobs.get(1).name);
+        Assert.assertEquals(5, setterCalls.get());
+    }
+
+    @Test
+    public void deserializesXmlThroughSetters() throws Exception {
+        String xml = "<BlobItem><Name>a.txt</Name><Content-Length>42</Content-Length></BlobItem>";
+        BlobItem blob = adapter.deserialize(xml, BlobItem.class, SerializerFormat.XML);
+
+        Assert.assertEquals("a.txt", blob.name);
+        Assert.assertEquals(42, blob.contentLength);
+        Assert.assertEquals(1, setterCalls.get());
+    }
+
+    @Test
+    public void serializesThroughGetters() throws Exception {
+        BlobItem blob = new BlobItem();
+        BlobItem emptyBlob = new BlobItem();
+        BlobList list = new BlobList();
+        JacksonAdapter reflectiveAdapter = new JacksonAdapter();
+
+        blob.name = "a.txt";
+        blob.lastModified = OffsetDateTime.parse("2019-11-04T17:09:12Z");
+        blob.metadata = Collections.singletonMap("owner", "logs");
+        blob.contentLength = 42;
+        emptyBlob.metadata = Collections.emptyMap();
+        list.blobs = Arrays.asList(blob, emptyBlob);
+
+        for (SerializerFormat format : SerializerFormat.values()) {
+            Assert.assertEquals(reflectiveAdapter.serialize(list, format), adapter.serialize(list, format));
+        }
+
+        // Each format reads the list and the three fields of both blobs.
+        Assert.assertEquals(2 * 7, getterCalls.get());
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    static class BlobList {
+        @JsonProperty("blobs")
+        private List<BlobItem> blobs;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    static class BlobItem {
+        @JsonProperty("Name")
+        private String name;
+
+        @JsonProperty("Last-Modified")
+        private OffsetDateTime lastModified;
+
+        @JsonProperty("Metadata")
+        private Map<String, String> metadata;
+
+        @JsonProperty("Content-Length")
+        private long contentLength;
+    }
+}
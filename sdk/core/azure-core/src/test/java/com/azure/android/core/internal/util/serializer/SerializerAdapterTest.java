@@ -0,0 +1,63 @@
+package com.azure.android.core.internal.util.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.Headers;
+import okio.Buffer;
+
+public class SerializerAdapterTest {
+    private final SerializerAdapter adapter = new StringSerializerAdapter();
+
+    @Test
+    public void defaultSourceDeserializationSkipsByteOrderMark() throws Exception {
+        String value = adapter.deserialize(new Buffer().writeUtf8("\uFEFF{\"name\":\"a.txt\"}"), String.class,
+            SerializerFormat.JSON);
+
+        Assert.assertEquals("{\"name\":\"a.txt\"}", value);
+    }
+
+    @Test
+    public void defaultSourceDeserializationKeepsContentWithoutByteOrderMark() throws Exception {
+        String value = adapter.deserialize(new Buffer().writeUtf8("{\"name\":\"a.txt\"}"), String.class,
+            SerializerFormat.JSON);
+
+        Assert.assertEquals("{\"name\":\"a.txt\"}", value);
+    }
+
+    @Test
+    public void defaultSourceDeserializationReturnsNullForEmptySource() throws Exception {
+        Assert.assertNull(adapter.deserialize(new Buffer(), String.class, SerializerFormat.JSON));
+        Assert.assertNull(adapter.deserialize(new Buffer().writeUtf8("\uFEFF"), String.class, SerializerFormat.JSON));
+    }
+
+    /**
+     * Adapter relying on the default {@code deserialize(BufferedSource, Type, SerializerFormat)}, which returns the
+     * string it is given.
+     */
+    private static final class StringSerializerAdapter implements SerializerAdapter {
+        @Override
+        public String serialize(Object object, SerializerFormat encoding) {
+            return object == null ? null : object.toString();
+        }
+
+        @Override
+        public String serializeList(List<?> list, CollectionFormat format) {
+            return list.toString();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <U> U deserialize(String value, Type type, SerializerFormat encoding) {
+            return (U) value;
+        }
+
+        @Override
+        public <U> U deserialize(Headers headers, Type type) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.Headers;
+import okio.Buffer;
+
+public class StreamingJsonAdapterTest {
+    private static final StreamingJsonAdapter.Codec<Container> CONTAINER_CODEC =
+        new StreamingJsonAdapter.Codec<Container>() {
+            @Override
+            public Container read(JsonParser parser) throws IOException {
+                Container container = new Container();
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+
+                    parser.nextToken();
+
+                    if ("name".equals(fieldName)) {
+                        container.name = parser.getValueAsString();
+                    } else if ("blobCount".equals(fieldName)) {
+                        container.blobCount = parser.getValueAsInt();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+
+                return container;
+            }
+
+            @Override
+            public void write(JsonGenerator generator, Container value) throws IOException {
+                generator.writeStartObject();
+                generator.writeStringField("name", value.name);
+                generator.writeNumberField("blobCount", value.blobCount);
+                generator.writeEndObject();
+            }
+        };
+
+    private final StreamingJsonAdapter adapter = new StreamingJsonAdapter().addCodec(Container.class, CONTAINER_CODEC);
+
+    @Test
+    public void roundTripsRegisteredTypes() throws Exception {
+        Container container = new Container();
+
+        container.name = "logs";
+        container.blobCount = 3;
+
+        String json = adapter.serialize(container, SerializerFormat.JSON);
+        Container deserialized = adapter.deserialize(json, Container.class, SerializerFormat.JSON);
+
+        Assert.assertEquals("{\"name\":\"logs\",\"blobCount\":3}", json);
+        Assert.assertEquals("logs", deserialized.name);
+        Assert.assertEquals(3, deserialized.blobCount);
+    }
+
+    @Test
+    public void deserializesListsFromSource() throws Exception {
+        Type listType = new ParameterizedList(Container.class);
+        Buffer source = new Buffer()
+            .writeUtf8("\uFEFF[{\"name\":\"logs\",\"metadata\":{\"tier\":[\"hot\"]}},null,{\"name\":\"images\"}]");
+        List<Container> containers = adapter.deserialize(source, listType, SerializerFormat.JSON);
+
+        Assert.assertEquals(3, containers.size());
+        Assert.assertEquals("logs", containers.get(0).name);
+        Assert.assertNull(containers.get(1));
+        Assert.assertEquals("images", containers.get(2).name);
+        Assert.assertEquals(Arrays.asList(1, 2), adapter.deserialize("[1,2]", new ParameterizedList(Integer.class),
+            SerializerFormat.JSON));
+    }
+
+    @Test
+    public void deserializesHeadersAsObject() throws Exception {
+        Container container = adapter.deserialize(Headers.of("name", "logs", "blobCount", "7"), Container.class);
+
+        Assert.assertEquals("logs", container.name);
+        Assert.assertEquals(7, container.blobCount);
+    }
+
+    @Test
+    public void emptyContentIsNull() throws Exception {
+        Assert.assertNull(adapter.deserialize("", Container.class, SerializerFormat.JSON));
+        Assert.assertNull(adapter.deserialize(new Buffer().writeUtf8("\uFEFF"), Container.class,
+            SerializerFormat.JSON));
+    }
+
+    @Test
+    public void serializeListJoinsElements() {
+        Assert.assertEquals("a,1,,true", adapter.serializeList(Arrays.asList("a", 1, null, true),
+            SerializerAdapter.CollectionFormat.CSV));
+    }
+
+    @Test
+    public void serializeListMatchesJacksonAdapter() {
+        List<Object> list = Arrays.<Object>asList("a\"b", "c\\d\n", 1, 2L, 1e20, false, null, "\"quoted\"");
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+
+        for (SerializerAdapter.CollectionFormat format : SerializerAdapter.CollectionFormat.values()) {
+            Assert.assertEquals(jacksonAdapter.serializeList(list, format), adapter.serializeList(list, format));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void unregisteredTypesAreRejected() throws Exception {
+        adapter.deserialize("{}", Object.class, SerializerFormat.JSON);
+    }
+
+    @Test(expected = IOException.class)
+    public void unregisteredTypesAreNotSerialized() throws Exception {
+        adapter.serialize(new Object(), SerializerFormat.JSON);
+    }
+
+    @Test(expected = IOException.class)
+    public void xmlIsNotSupported() throws Exception {
+        adapter.deserialize("<Container/>", Container.class, SerializerFormat.XML);
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void scalarsAreNotReadFromObjects() throws Exception {
+        adapter.deserialize("[\"a\",{\"b\":\"c\"},\"d\"]", new ParameterizedList(String.class),
+            SerializerFormat.JSON);
+    }
+
+    static class Container {
+        String name;
+        int blobCount;
+    }
+
+    private static final class ParameterizedList implements java.lang.reflect.ParameterizedType {
+        private final Type elementType;
+
+        ParameterizedList(Type elementType) {
+            this.elementType = elementType;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[] { elementType };
+        }
+
+        @Override
+        public Type getRawType() {
+            return List.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+public class XmlListingReaderTest {
+    private static final String LISTING = "\uFEFF<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+        + "<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\" ContainerName=\"logs\">"
+        + "<Prefix>2019/</Prefix><Marker /><MaxResults>3</MaxResults>"
+        + "<Blobs>"
+        + "<Blob><Name>2019/a.log</Name><Properties><Content-Length>10</Content-Length></Properties></Blob>"
+        + "<Blob><Name>2019/b.log</Name><Properties><Content-Length>20</Content-Length></Properties></Blob>"
+        + "<Blob><Name>2019/c.log</Name><Properties><Content-Length>30</Content-Length></Properties></Blob>"
+        + "</Blobs>"
+        + "<NextMarker>marker-2</NextMarker>"
+        + "</EnumerationResults>";
+
+    private final JacksonAdapter adapter = new JacksonAdapter();
+
+    @Test
+    public void readsItemsAndValues() throws Exception {
+        XmlListingReader<BlobItem> reader =
+            adapter.deserializeXmlListing(new Buffer().writeUtf8(LISTING), "Blob", BlobItem.class);
+
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals("logs", reader.getValue("ContainerName"));
+        Assert.assertEquals("2019/", reader.getValue("Prefix"));
+        Assert.assertEquals("3", reader.getValue("MaxResults"));
+        Assert.assertNull(reader.getValue("NextMarker"));
+
+        BlobItem first = reader.next();
+
+        Assert.assertEquals("2019/a.log", first.name);
+        Assert.assertEquals(10, first.properties.contentLength);
+        Assert.assertEquals("2019/b.log", reader.next().name);
+        Assert.assertEquals("2019/c.log", reader.next().name);
+        Assert.assertFalse(reader.hasNext());
+        Assert.assertEquals("marker-2", reader.getValue("NextMarker"));
+        Assert.assertEquals("", reader.getValue("Marker"));
+
+        try {
+            reader.next();
+            Assert.fail();
+        } catch (NoSuchElementException expected) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void readsIncrementally() throws Exception {
+        StringBuilder listing = new StringBuilder("<EnumerationResults><Blobs>");
+
+        for (int i = 0; i < 10_000; i++) {
+            listing.append("<Blob><Name>blob-").append(i).append("</Name></Blob>");
+        }
+
+        listing.append("</Blobs><NextMarker /></EnumerationResults>");
+
+        Buffer content = new Buffer().writeUtf8(listing.toString());
+        long size = content.size();
+        CountingSource source = new CountingSource(content);
+        XmlListingReader<BlobItem> reader =
+            adapter.deserializeXmlListing(Okio.buffer(source), "Blob", BlobItem.class);
+
+        Assert.assertEquals("blob-0", reader.next().name);
+        Assert.assertTrue(source.bytesRead < size / 2);
+
+        int count = 1;
+
+        while (reader.hasNext()) {
+            Assert.assertEquals("blob-" + count, reader.next().name);
+            count++;
+        }
+
+        Assert.assertEquals(10_000, count);
+        Assert.assertTrue(source.closed);
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void throwsOnMalformedContent() throws Exception {
+        XmlListingReader<BlobItem> reader = adapter.deserializeXmlListing(
+            new Buffer().writeUtf8("<EnumerationResults><Blobs><Blob><Name>a</Blob>"), "Blob", BlobItem.class);
+
+        reader.hasNext();
+    }
+
+    static class BlobItem {
+        @JsonProperty("Name")
+        String name;
+
+        @JsonProperty("Properties")
+        BlobProperties properties;
+    }
+
+    static class BlobProperties {
+        @JsonProperty("Content-Length")
+        long contentLength;
+    }
+
+    private static final class CountingSource extends ForwardingSource {
+        long bytesRead;
+        boolean closed;
+
+        CountingSource(BufferedSource delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, Math.min(byteCount, 1024));
+
+            if (read > 0) {
+                bytesRead += read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
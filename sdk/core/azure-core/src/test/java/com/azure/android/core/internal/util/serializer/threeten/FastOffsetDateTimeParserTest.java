@@ -0,0 +1,118 @@
+package com.azure.android.core.internal.util.serializer.threeten;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.threeten.bp.DateTimeException;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.Random;
+
+public class FastOffsetDateTimeParserTest {
+    private static final String DIGITS_AND_SEPARATORS = "0123456789-:.TZ+ tz";
+
+    @Test
+    public void parsesAzureShapes() {
+        assertAgrees("2019-11-04T17:09:12Z");
+        assertAgrees("2019-11-04T17:09:12.1Z");
+        assertAgrees("2019-11-04T17:09:12.1234567Z");
+        assertAgrees("2019-11-04T17:09:12.123456789Z");
+        assertAgrees("2019-11-04T17:09:12+00:00");
+        assertAgrees("2019-11-04T17:09:12.5-08:00");
+        assertAgrees("2020-02-29T23:59:59+18:00");
+
+        Assert.assertNotNull(FastOffsetDateTimeParser.parse("2019-11-04T17:09:12.1234567Z"));
+    }
+
+    @Test
+    public void rejectsOtherShapes() {
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-11-04T17:09Z"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-11-04T17:09:12.1234567891Z"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-02-30T17:09:12Z"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-11-04T24:00:00Z"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-11-04T17:09:12+18:01"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("2019-11-04T17:09:12"));
+        Assert.assertNull(FastOffsetDateTimeParser.parse("1572887352"));
+    }
+
+    @Test
+    public void agreesWithFormatterOnRandomInput() {
+        Random random = new Random(20191104);
+
+        for (int i = 0; i < 100_000; i++) {
+            String text = randomTimestamp(random);
+
+            if (random.nextInt(3) == 0) {
+                text = mutate(text, random);
+            }
+
+            assertAgrees(text);
+        }
+    }
+
+    private static void assertAgrees(String text) {
+        OffsetDateTime expected;
+
+        try {
+            expected = OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } catch (DateTimeException e) {
+            expected = null;
+        }
+
+        OffsetDateTime actual = FastOffsetDateTimeParser.parse(text);
+
+        // The fast parser may decline any input, but whatever it accepts must match the formatter exactly.
+        if (actual != null) {
+            Assert.assertEquals(text, expected, actual);
+        }
+    }
+
+    private static String randomTimestamp(Random random) {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format("%04d-%02d-%02dT%02d:%02d:%02d", random.nextInt(10000), 1 + random.nextInt(13),
+            1 + random.nextInt(31), random.nextInt(25), random.nextInt(61), random.nextInt(61)));
+
+        if (random.nextBoolean()) {
+            builder.append('.');
+
+            for (int digits = random.nextInt(11); digits > 0; digits--) {
+                builder.append(random.nextInt(10));
+            }
+        }
+
+        switch (random.nextInt(3)) {
+            case 0:
+                builder.append('Z');
+                break;
+            case 1:
+                builder.append(String.format("%s%02d:%02d", random.nextBoolean() ? "+" : "-", random.nextInt(20),
+                    random.nextInt(61)));
+                break;
+            default:
+                break;
+        }
+
+        return builder.toString();
+    }
+
+    private static String mutate(String text, Random random) {
+        StringBuilder builder = new StringBuilder(text);
+        int position = random.nextInt(builder.length());
+
+        switch (random.nextInt(3)) {
+            case 0:
+                builder.deleteCharAt(position);
+                break;
+            case 1:
+                builder.insert(position, DIGITS_AND_SEPARATORS.charAt(random.nextInt(DIGITS_AND_SEPARATORS.length())));
+                break;
+            default:
+                builder.setCharAt(position,
+                    DIGITS_AND_SEPARATORS.charAt(random.nextInt(DIGITS_AND_SEPARATORS.length())));
+                break;
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.azure.android.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CharacterReplacerTest {
+    @Test
+    public void replacesAsciiAndOtherCharacters() {
+        Map<Character, CharSequence> pairs = new HashMap<>();
+
+        pairs.put(' ', "%20");
+        pairs.put('/', "%2F");
+        pairs.put('\u00e9', "%C3%A9");
+        pairs.put('\u20ac', "%E2%82%AC");
+
+        CharacterReplacer replacer = new CharacterReplacer(pairs);
+
+        Assert.assertEquals("caf%C3%A9%20%2F%20%E2%82%AC5", replacer.replace("caf\u00e9 / \u20ac5").toString());
+        Assert.assertEquals("%20", replacer.replace(" ").toString());
+        Assert.assertEquals("a%20b", CoreUtils.replace("a b", pairs).toString());
+    }
+
+    @Test
+    public void returnsSameInstanceWithoutReplacements() {
+        Map<Character, CharSequence> pairs = new HashMap<>();
+
+        pairs.put('"', "\\\"");
+
+        String unchanged = "container/blob\u00e9.txt";
+
+        Assert.assertSame(unchanged, new CharacterReplacer(pairs).replace(unchanged));
+    }
+
+    @Test
+    public void nullKeyIsReturnedForEmptyInput() {
+        Map<Character, CharSequence> pairs = new HashMap<>();
+
+        pairs.put('a', "b");
+
+        Assert.assertNull(CoreUtils.replace("", pairs));
+        Assert.assertNull(CoreUtils.replace(null, pairs));
+
+        pairs.put(null, "empty");
+
+        Assert.assertEquals("empty", CoreUtils.replace("", pairs));
+    }
+
+    @Test
+    public void singleUseReplaceMatchesCompiledReplacer() {
+        Map<Character, CharSequence> pairs = new HashMap<>();
+
+        pairs.put(' ', "%20");
+        pairs.put('\u00e9', "%C3%A9");
+        pairs.put('q', null);
+
+        CharacterReplacer replacer = new CharacterReplacer(pairs);
+        String unchanged = "container/blob.txt";
+
+        for (String input : new String[] { "caf\u00e9 au lait", " leading", "trailing ", "quiz", unchanged }) {
+            Assert.assertEquals(replacer.replace(input).toString(), CoreUtils.replace(input, pairs).toString());
+        }
+
+        Assert.assertSame(unchanged, CoreUtils.replace(unchanged, pairs));
+    }
+
+    @Test
+    public void singleUseReplaceAcceptsMapsWithoutNullValues() {
+        Map<Character, CharSequence> pairs = new ConcurrentHashMap<>();
+
+        pairs.put(' ', "%20");
+
+        Assert.assertEquals("a%20b", CoreUtils.replace("a b", pairs).toString());
+    }
+}
@@ -0,0 +1,184 @@
+package com.azure.android.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpandableStringEnumTest {
+    @Test
+    public void knownValueIsReturned() {
+        Assert.assertSame(Color.RED, Color.fromString("Red"));
+        Assert.assertEquals("Red", Color.fromString("Red").toString());
+        Assert.assertNull(Color.fromString(null));
+    }
+
+    @Test
+    public void lookupIsCaseInsensitive() {
+        Assert.assertSame(Color.RED, Color.fromString("RED"));
+        Assert.assertSame(Color.RED, Color.fromString("red"));
+        Assert.assertEquals("Red", Color.fromString("rEd").toString());
+    }
+
+    @Test
+    public void newValueIsCanonical() {
+        Color blue = Color.fromString("Blue");
+
+        Assert.assertEquals("Blue", blue.toString());
+        Assert.assertSame(blue, Color.fromString("Blue"));
+        Assert.assertSame(blue, Color.fromString("BLUE"));
+        Assert.assertEquals(blue.hashCode(), Color.fromString("blue").hashCode());
+    }
+
+    @Test
+    public void concurrentParsesReturnOneInstance() throws Exception {
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Color>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                String name = i % 2 == 0 ? "Green" : "GREEN";
+
+                futures.add(executorService.submit((Callable<Color>) () -> {
+                    start.await();
+
+                    return Color.fromString(name);
+                }));
+            }
+
+            start.countDown();
+
+            Color green = futures.get(0).get();
+
+            for (Future<Color> future : futures) {
+                Assert.assertSame(green, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void valuesAreCachedUntilNewValueIsRegistered() {
+        Collection<Size> values = Size.values();
+
+        Assert.assertEquals(Arrays.asList(Size.LARGE, Size.SMALL), new ArrayList<>(values));
+        Assert.assertSame(values, Size.values());
+
+        Size medium = Size.fromString("Medium");
+        Collection<Size> updatedValues = Size.values();
+
+        Assert.assertNotSame(values, updatedValues);
+        Assert.assertEquals(Arrays.asList(Size.LARGE, medium, Size.SMALL), new ArrayList<>(updatedValues));
+        Assert.assertEquals(2, values.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void valuesAreUnmodifiable() {
+        Color.values().add(Color.fromString("Purple"));
+    }
+
+    @Test
+    public void valuesAndEqualityAreScopedToTheirType() {
+        Tone red = Tone.fromString("Red");
+
+        Assert.assertFalse(Color.values().contains(red));
+        Assert.assertFalse(Tone.values().contains(Color.RED));
+        Assert.assertTrue(Tone.values().contains(red));
+        Assert.assertNotEquals(Color.RED, red);
+        Assert.assertNotEquals(red, Color.RED);
+    }
+
+    @Test
+    public void registeredFactoryCreatesNewValues() {
+        int createdInstances = Shape.CREATED_INSTANCES.get();
+        Shape triangle = Shape.fromString("Triangle");
+
+        Assert.assertEquals("Triangle", triangle.toString());
+        Assert.assertSame(triangle, Shape.fromString("TRIANGLE"));
+        Assert.assertSame(Shape.CIRCLE, Shape.fromString("circle"));
+        Assert.assertEquals(createdInstances + 1, Shape.CREATED_INSTANCES.get());
+    }
+
+    @Test
+    public void inaccessibleConstructorWithoutFactoryYieldsNull() {
+        Assert.assertNull(Hidden.fromString("Value"));
+    }
+
+    public static final class Color extends ExpandableStringEnum<Color> {
+        public static final Color RED = fromString("Red");
+
+        public static Color fromString(String name) {
+            return fromString(name, Color.class);
+        }
+
+        public static Collection<Color> values() {
+            return values(Color.class);
+        }
+    }
+
+    public static final class Size extends ExpandableStringEnum<Size> {
+        public static final Size SMALL = fromString("Small");
+        public static final Size LARGE = fromString("Large");
+
+        public static Size fromString(String name) {
+            return fromString(name, Size.class);
+        }
+
+        public static Collection<Size> values() {
+            return values(Size.class);
+        }
+    }
+
+    public static final class Tone extends ExpandableStringEnum<Tone> {
+        public static Tone fromString(String name) {
+            return fromString(name, Tone.class);
+        }
+
+        public static Collection<Tone> values() {
+            return values(Tone.class);
+        }
+    }
+
+    public static final class Shape extends ExpandableStringEnum<Shape> {
+        static final AtomicInteger CREATED_INSTANCES = new AtomicInteger();
+
+        static {
+            registerFactory(Shape.class, () -> {
+                CREATED_INSTANCES.incrementAndGet();
+
+                return new Shape();
+            });
+        }
+
+        public static final Shape CIRCLE = fromString("Circle");
+
+        // Not accessible to ExpandableStringEnum, so values can only be created through the factory.
+        private Shape() {
+        }
+
+        public static Shape fromString(String name) {
+            return fromString(name, Shape.class);
+        }
+    }
+
+    public static final class Hidden extends ExpandableStringEnum<Hidden> {
+        private Hidden() {
+        }
+
+        public static Hidden fromString(String name) {
+            return fromString(name, Hidden.class);
+        }
+    }
+}
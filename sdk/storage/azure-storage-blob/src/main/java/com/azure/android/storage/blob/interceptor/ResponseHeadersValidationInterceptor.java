@@ -9,20 +9,30 @@ import com.azure.android.core.util.logging.ClientLogger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import okhttp3.Headers;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
 /**
  * Interceptor that validates that a collection of headers have consistent values between a request and a response.
+ * <p>
+ * The header names are deduplicated once on construction, and the request and response headers are each scanned a
+ * single time per validation. For high-volume traffic, validation can be sampled so only one in every N responses is
+ * checked.
  */
 public class ResponseHeadersValidationInterceptor implements Interceptor {
     private static final String CLIENT_ID_HEADER = "x-ms-client-id";
     private static final String ENCRYPTION_KEY_SHA256_HEADER = "x-ms-encryption-key-sha256";
 
     private final ClientLogger logger;
-    private final Collection<String> headerNames = new ArrayList<>();
+    private final String[] headerNames;
+    private final int validationInterval;
+    private final AtomicLong responseCount = new AtomicLong();
 
     /**
      * Constructor that adds two mandatory headers used by Storage and uses a default {@link ClientLogger}.
@@ -35,9 +45,7 @@ public class ResponseHeadersValidationInterceptor implements Interceptor {
      * Constructor that adds two mandatory headers used by Storage and uses a provided {@link ClientLogger}.
      */
     public ResponseHeadersValidationInterceptor(ClientLogger clientLogger) {
-        headerNames.add(CLIENT_ID_HEADER);
-        headerNames.add(ENCRYPTION_KEY_SHA256_HEADER);
-        logger = clientLogger;
+        this(Collections.emptyList(), clientLogger);
     }
 
     /**
@@ -53,10 +61,48 @@ public class ResponseHeadersValidationInterceptor implements Interceptor {
      * and uses a provided {@link ClientLogger}.
      */
     public ResponseHeadersValidationInterceptor(Collection<String> headerNames, ClientLogger clientLogger) {
-        headerNames.add(CLIENT_ID_HEADER);
-        headerNames.add(ENCRYPTION_KEY_SHA256_HEADER);
-        this.headerNames.addAll(headerNames);
-        logger = clientLogger;
+        this(headerNames, clientLogger, 1);
+    }
+
+    /**
+     * Constructor that accepts a list of header names to validate and only validates one in every
+     * {@code validationInterval} responses. Adds two mandatory Storage header names as well and uses a provided
+     * {@link ClientLogger}.
+     *
+     * @param headerNames        The names of the headers to validate. The collection is not modified.
+     * @param clientLogger       The logger used to report validation failures.
+     * @param validationInterval Validate one response out of every {@code validationInterval}, {@code 1} validates
+     *                           every response.
+     */
+    public ResponseHeadersValidationInterceptor(Collection<String> headerNames,
+                                                ClientLogger clientLogger,
+                                                int validationInterval) {
+        if (validationInterval < 1) {
+            throw new IllegalArgumentException("validationInterval must be at least 1.");
+        }
+
+        List<String> names = new ArrayList<>(headerNames.size() + 2);
+
+        addHeaderName(names, CLIENT_ID_HEADER);
+        addHeaderName(names, ENCRYPTION_KEY_SHA256_HEADER);
+
+        for (String headerName : headerNames) {
+            addHeaderName(names, headerName);
+        }
+
+        this.headerNames = names.toArray(new String[0]);
+        this.validationInterval = validationInterval;
+        this.logger = clientLogger;
+    }
+
+    private static void addHeaderName(List<String> names, String headerName) {
+        for (String name : names) {
+            if (name.equalsIgnoreCase(headerName)) {
+                return;
+            }
+        }
+
+        names.add(headerName);
     }
 
     @NonNull
@@ -65,14 +111,20 @@ public class ResponseHeadersValidationInterceptor implements Interceptor {
         Request request = chain.request();
         Response response = chain.proceed(request);
 
-        for (String headerName : headerNames) {
-            String responseHeaderValue = response.header(headerName);
-            String requestHeaderValue = request.header(headerName);
+        if (validationInterval > 1 && responseCount.getAndIncrement() % validationInterval != 0) {
+            return response;
+        }
+
+        final String[] requestHeaderValues = collectValues(request.headers());
+        final String[] responseHeaderValues = collectValues(response.headers());
+
+        for (int i = 0; i < headerNames.length; i++) {
+            String responseHeaderValue = responseHeaderValues[i];
+            String requestHeaderValue = requestHeaderValues[i];
 
             if (CoreUtils.isNullOrEmpty(responseHeaderValue) || !responseHeaderValue.equals(requestHeaderValue)) {
-                String errorMessage = String.format(
-                    "Unexpected header value. Expected response to echo '%s: %s'. Got value '%s'.",
-                    headerName, requestHeaderValue, responseHeaderValue);
+                String errorMessage = "Unexpected header value. Expected response to echo '" + headerNames[i] + ": "
+                    + requestHeaderValue + "'. Got value '" + responseHeaderValue + "'.";
 
                 logger.error(errorMessage);
 
@@ -82,4 +134,29 @@ public class ResponseHeadersValidationInterceptor implements Interceptor {
 
         return response;
     }
+
+    /**
+     * Collects the values of the validated headers in a single pass over the given headers. As with
+     * {@link Headers#get(String)}, the last value wins when a header is repeated.
+     *
+     * @param headers The headers to scan.
+     * @return The header values, indexed like {@link #headerNames}.
+     */
+    private String[] collectValues(Headers headers) {
+        final String[] values = new String[headerNames.length];
+
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            final String name = headers.name(i);
+
+            for (int j = 0; j < headerNames.length; j++) {
+                if (headerNames[j].equalsIgnoreCase(name)) {
+                    values[j] = headers.value(i);
+
+                    break;
+                }
+            }
+        }
+
+        return values;
+    }
 }
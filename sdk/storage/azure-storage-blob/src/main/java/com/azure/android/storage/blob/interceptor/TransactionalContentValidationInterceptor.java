@@ -0,0 +1,280 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.util.CoreUtils;
+import com.azure.android.storage.blob.internal.util.ContentHasher;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
+
+/**
+ * Interceptor that computes transactional content hashes for blob transfers while the content flows through it.
+ * <p>
+ * On upload, the request body is written once through a hashing sink and the resulting "Content-MD5" or
+ * "x-ms-content-crc64" header is added to the request, so the content is not read a second time only to be hashed.
+ * Since the header is sent before the body, the body is buffered while it is hashed. Only the bodies of blob uploads
+ * (Put Blob, Put Block, Append Block and Put Page) with a known length of at most {@code maxHashedBodySize} bytes are
+ * hashed. Larger uploads are sent as is, unless the caller supplies a precomputed hash header, which is never
+ * overwritten.
+ * <p>
+ * On download, the response body is hashed as it is consumed and validated against the hash header returned by the
+ * service once the body has been read to its end. A body closed before its end is not validated.
+ * <p>
+ * Add this interceptor as a network interceptor so hashes are computed over the bytes sent and received on the wire.
+ */
+public class TransactionalContentValidationInterceptor implements Interceptor {
+    private static final String CONTENT_MD5_HEADER = "Content-MD5";
+    private static final String CONTENT_CRC64_HEADER = "x-ms-content-crc64";
+    private static final String RANGE_HEADER = "Range";
+    private static final String MS_RANGE_HEADER = "x-ms-range";
+    private static final String RANGE_GET_CONTENT_MD5_HEADER = "x-ms-range-get-content-md5";
+    private static final String RANGE_GET_CONTENT_CRC64_HEADER = "x-ms-range-get-content-crc64";
+    private static final long DEFAULT_MAX_HASHED_BODY_SIZE = 4 * 1024 * 1024;
+
+    private final Algorithm algorithm;
+    private final long maxHashedBodySize;
+
+    /**
+     * Creates an interceptor that computes CRC64 hashes for uploaded content.
+     */
+    public TransactionalContentValidationInterceptor() {
+        this(Algorithm.CRC64);
+    }
+
+    /**
+     * Creates an interceptor that computes hashes for uploaded content using the given algorithm.
+     *
+     * @param algorithm The algorithm used to hash uploaded content.
+     */
+    public TransactionalContentValidationInterceptor(@NonNull Algorithm algorithm) {
+        this(algorithm, DEFAULT_MAX_HASHED_BODY_SIZE);
+    }
+
+    /**
+     * Creates an interceptor that computes hashes for uploaded content using the given algorithm.
+     *
+     * @param algorithm         The algorithm used to hash uploaded content.
+     * @param maxHashedBodySize The maximum size in bytes of the upload bodies hashed, which are buffered while being
+     *                          hashed. Defaults to 4 MiB.
+     */
+    public TransactionalContentValidationInterceptor(@NonNull Algorithm algorithm, long maxHashedBodySize) {
+        if (maxHashedBodySize < 0) {
+            throw new IllegalArgumentException("maxHashedBodySize must not be negative.");
+        }
+
+        this.algorithm = algorithm;
+        this.maxHashedBodySize = maxHashedBodySize;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody requestBody = request.body();
+
+        if (requestBody != null
+            && isBlobUpload(request)
+            && request.header(CONTENT_MD5_HEADER) == null
+            && request.header(CONTENT_CRC64_HEADER) == null) {
+            final long contentLength = requestBody.contentLength();
+
+            // Bodies of unknown length may only be writable once and cannot be bounded before being buffered.
+            if (contentLength > 0 && contentLength <= maxHashedBodySize) {
+                request = hashRequestBody(request, requestBody);
+            }
+        }
+
+        Response response = chain.proceed(request);
+
+        return validateResponseBody(request, response);
+    }
+
+    /**
+     * Checks whether a request uploads blob content: Put Blob, Put Block, Append Block or Put Page.
+     */
+    private static boolean isBlobUpload(Request request) {
+        if (!"PUT".equals(request.method())) {
+            return false;
+        }
+
+        final String comp = request.url().queryParameter("comp");
+
+        return comp == null || "block".equals(comp) || "appendblock".equals(comp) || "page".equals(comp);
+    }
+
+    private Request hashRequestBody(Request request, RequestBody requestBody) throws IOException {
+        final Buffer content = new Buffer();
+        final ContentHasher hasher = algorithm == Algorithm.MD5 ? ContentHasher.md5() : ContentHasher.crc64();
+        final BufferedSink hashingSink = Okio.buffer(new HashingSink(content, hasher));
+
+        requestBody.writeTo(hashingSink);
+        hashingSink.close();
+
+        final Request.Builder builder = request.newBuilder()
+            .method(request.method(), new BufferedRequestBody(requestBody.contentType(), content));
+
+        if (content.size() > 0) {
+            builder.header(algorithm == Algorithm.MD5 ? CONTENT_MD5_HEADER : CONTENT_CRC64_HEADER,
+                ByteString.of(hasher.digest()).base64());
+        }
+
+        return builder.build();
+    }
+
+    private static Response validateResponseBody(Request request, Response response) {
+        final ResponseBody responseBody = response.body();
+
+        if (responseBody == null || !response.isSuccessful() || !"GET".equals(request.method())) {
+            return response;
+        }
+
+        // For ranged downloads the service only returns a hash of the range when it was explicitly requested,
+        // otherwise the header holds the hash of the whole blob.
+        final boolean isRangeRequest = request.header(RANGE_HEADER) != null
+            || request.header(MS_RANGE_HEADER) != null;
+        final String crc64 = response.header(CONTENT_CRC64_HEADER);
+        final String md5 = response.header(CONTENT_MD5_HEADER);
+        final String headerName;
+        final String expected;
+        final ContentHasher hasher;
+
+        if (!CoreUtils.isNullOrEmpty(crc64)
+            && (!isRangeRequest || "true".equalsIgnoreCase(request.header(RANGE_GET_CONTENT_CRC64_HEADER)))) {
+            headerName = CONTENT_CRC64_HEADER;
+            expected = crc64;
+            hasher = ContentHasher.crc64();
+        } else if (!CoreUtils.isNullOrEmpty(md5)
+            && (!isRangeRequest || "true".equalsIgnoreCase(request.header(RANGE_GET_CONTENT_MD5_HEADER)))) {
+            headerName = CONTENT_MD5_HEADER;
+            expected = md5;
+            hasher = ContentHasher.md5();
+        } else {
+            return response;
+        }
+
+        final Source validatingSource =
+            new ValidatingSource(responseBody.source(), hasher, headerName, expected);
+
+        return response.newBuilder()
+            .body(ResponseBody.create(responseBody.contentType(), responseBody.contentLength(),
+                Okio.buffer(validatingSource)))
+            .build();
+    }
+
+    /**
+     * Algorithms supported for transactional content hashes.
+     */
+    public enum Algorithm {
+        /**
+         * Hash content with MD5, sent in the "Content-MD5" header.
+         */
+        MD5,
+
+        /**
+         * Hash content with the Azure Storage CRC64, sent in the "x-ms-content-crc64" header.
+         */
+        CRC64
+    }
+
+    /**
+     * Sink that hashes every byte written to it before forwarding it.
+     */
+    private static final class HashingSink extends ForwardingSink {
+        private final ContentHasher hasher;
+
+        HashingSink(Sink delegate, ContentHasher hasher) {
+            super(delegate);
+            this.hasher = hasher;
+        }
+
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            hasher.update(source, 0, byteCount);
+            super.write(source, byteCount);
+        }
+    }
+
+    /**
+     * Source that hashes every byte read from it and validates the hash once the source is exhausted. Closing the
+     * source before it is exhausted skips the validation, since the hash of the unread bytes is unknown.
+     */
+    private static final class ValidatingSource extends ForwardingSource {
+        private final ContentHasher hasher;
+        private final String headerName;
+        private final String expected;
+        private boolean validated;
+
+        ValidatingSource(Source delegate, ContentHasher hasher, String headerName, String expected) {
+            super(delegate);
+            this.hasher = hasher;
+            this.headerName = headerName;
+            this.expected = expected;
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            final long read = super.read(sink, byteCount);
+
+            if (read > 0) {
+                hasher.update(sink, sink.size() - read, read);
+            } else if (read == -1 && !validated) {
+                validated = true;
+
+                final String actual = ByteString.of(hasher.digest()).base64();
+
+                if (!actual.equals(expected)) {
+                    throw new IOException("Downloaded content does not match the '" + headerName
+                        + "' header. Expected '" + expected + "', computed '" + actual + "'.");
+                }
+            }
+
+            return read;
+        }
+    }
+
+    /**
+     * Request body replaying content that has already been buffered, so it can be written again on retries.
+     */
+    private static final class BufferedRequestBody extends RequestBody {
+        private final MediaType contentType;
+        private final Buffer content;
+
+        BufferedRequestBody(MediaType contentType, Buffer content) {
+            this.contentType = contentType;
+            this.content = content;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return content.size();
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            sink.writeAll(content.clone());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.internal.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okio.Buffer;
+
+/**
+ * Incrementally computes a transactional content hash (MD5 or Azure Storage CRC64) over bytes as they are transferred.
+ */
+public abstract class ContentHasher {
+    /**
+     * Creates a hasher that computes the value of the "Content-MD5" header.
+     *
+     * @return An MD5 content hasher.
+     */
+    public static ContentHasher md5() {
+        try {
+            return new Md5ContentHasher(MessageDigest.getInstance("MD5"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported on this platform.", e);
+        }
+    }
+
+    /**
+     * Creates a hasher that computes the value of the "x-ms-content-crc64" header.
+     *
+     * @return A CRC64 content hasher.
+     */
+    public static ContentHasher crc64() {
+        return new Crc64ContentHasher();
+    }
+
+    /**
+     * Adds a range of bytes to the hash.
+     *
+     * @param src    The bytes to hash.
+     * @param offset The index of the first byte of the range.
+     * @param length The number of bytes in the range.
+     */
+    public abstract void update(byte[] src, int offset, int length);
+
+    /**
+     * Gets the hash of all the bytes added so far.
+     *
+     * @return The hash bytes, in the representation expected by the service.
+     */
+    public abstract byte[] digest();
+
+    /**
+     * Adds a range of bytes held by a {@link Buffer} to the hash, reading the buffer's segments in place.
+     *
+     * @param buffer    The buffer holding the bytes to hash.
+     * @param offset    The index in the buffer of the first byte of the range.
+     * @param byteCount The number of bytes in the range.
+     */
+    public final void update(Buffer buffer, long offset, long byteCount) {
+        if (byteCount <= 0) {
+            return;
+        }
+
+        try (Buffer.UnsafeCursor cursor = buffer.readUnsafe()) {
+            long remaining = byteCount;
+
+            for (int available = cursor.seek(offset); remaining > 0 && available != -1; available = cursor.next()) {
+                int length = (int) Math.min(available, remaining);
+
+                update(cursor.data, cursor.start, length);
+
+                remaining -= length;
+            }
+        }
+    }
+
+    private static final class Md5ContentHasher extends ContentHasher {
+        private final MessageDigest messageDigest;
+
+        private Md5ContentHasher(MessageDigest messageDigest) {
+            this.messageDigest = messageDigest;
+        }
+
+        @Override
+        public void update(byte[] src, int offset, int length) {
+            messageDigest.update(src, offset, length);
+        }
+
+        @Override
+        public byte[] digest() {
+            return messageDigest.digest();
+        }
+    }
+
+    private static final class Crc64ContentHasher extends ContentHasher {
+        private long crc;
+
+        @Override
+        public void update(byte[] src, int offset, int length) {
+            crc = StorageCrc64Calculator.compute(src, offset, length, crc);
+        }
+
+        @Override
+        public byte[] digest() {
+            return StorageCrc64Calculator.toBytes(crc);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.internal.util;
+
+/**
+ * Computes the CRC64 checksum used by Azure Storage for the "x-ms-content-crc64" header.
+ * <p>
+ * The implementation is table driven and consumes eight bytes per iteration (slice-by-8), falling back to one byte per
+ * iteration for the unaligned tail of the input.
+ */
+public final class StorageCrc64Calculator {
+    /**
+     * The reflected polynomial used by Azure Storage.
+     */
+    private static final long POLY = 0x9A6C9329AC4BC9B5L;
+
+    /**
+     * Lookup tables for slice-by-8, {@code TABLES[k][i]} is the CRC of byte {@code i} followed by {@code k} zero
+     * bytes.
+     */
+    private static final long[][] TABLES = new long[8][256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            long crc = i;
+
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) == 1 ? (crc >>> 1) ^ POLY : crc >>> 1;
+            }
+
+            TABLES[0][i] = crc;
+        }
+
+        for (int i = 0; i < 256; i++) {
+            for (int k = 1; k < 8; k++) {
+                long previous = TABLES[k - 1][i];
+
+                TABLES[k][i] = (previous >>> 8) ^ TABLES[0][(int) (previous & 0xFF)];
+            }
+        }
+    }
+
+    private StorageCrc64Calculator() {
+    }
+
+    /**
+     * Computes the CRC64 of the given bytes.
+     *
+     * @param src The bytes to compute the checksum of.
+     * @return The CRC64 checksum.
+     */
+    public static long compute(byte[] src) {
+        return compute(src, 0, src.length, 0);
+    }
+
+    /**
+     * Continues computing a CRC64 checksum with a range of bytes.
+     * <p>
+     * Passing the result of a previous call as {@code crc} yields the same value as computing the checksum of both
+     * ranges at once, so content can be checksummed incrementally while it is being transferred.
+     *
+     * @param src    The bytes to compute the checksum of.
+     * @param offset The index of the first byte of the range.
+     * @param length The number of bytes in the range.
+     * @param crc    The checksum of the content preceding the range, {@code 0} for the start of the content.
+     * @return The CRC64 checksum of the content up to and including the range.
+     */
+    public static long compute(byte[] src, int offset, int length, long crc) {
+        final long[] t0 = TABLES[0];
+        final long[] t1 = TABLES[1];
+        final long[] t2 = TABLES[2];
+        final long[] t3 = TABLES[3];
+        final long[] t4 = TABLES[4];
+        final long[] t5 = TABLES[5];
+        final long[] t6 = TABLES[6];
+        final long[] t7 = TABLES[7];
+
+        int position = offset;
+        final int end = offset + length;
+        final int blockEnd = end - 7;
+
+        crc = ~crc;
+
+        while (position < blockEnd) {
+            crc ^= (src[position] & 0xFFL)
+                | (src[position + 1] & 0xFFL) << 8
+                | (src[position + 2] & 0xFFL) << 16
+                | (src[position + 3] & 0xFFL) << 24
+                | (src[position + 4] & 0xFFL) << 32
+                | (src[position + 5] & 0xFFL) << 40
+                | (src[position + 6] & 0xFFL) << 48
+                | (src[position + 7] & 0xFFL) << 56;
+
+            crc = t7[(int) (crc & 0xFF)]
+                ^ t6[(int) ((crc >>> 8) & 0xFF)]
+                ^ t5[(int) ((crc >>> 16) & 0xFF)]
+                ^ t4[(int) ((crc >>> 24) & 0xFF)]
+                ^ t3[(int) ((crc >>> 32) & 0xFF)]
+                ^ t2[(int) ((crc >>> 40) & 0xFF)]
+                ^ t1[(int) ((crc >>> 48) & 0xFF)]
+                ^ t0[(int) (crc >>> 56)];
+
+            position += 8;
+        }
+
+        while (position < end) {
+            crc = t0[(int) ((crc ^ src[position]) & 0xFF)] ^ (crc >>> 8);
+            position++;
+        }
+
+        return ~crc;
+    }
+
+    /**
+     * Converts a CRC64 checksum to the little-endian byte representation sent in the "x-ms-content-crc64" header.
+     *
+     * @param crc The checksum.
+     * @return The checksum bytes.
+     */
+    public static byte[] toBytes(long crc) {
+        byte[] bytes = new byte[8];
+
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (crc >>> (8 * i));
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,150 @@
+package com.azure.android.storage.blob.interceptor;
+
+import com.azure.android.core.http.exception.HttpResponseException;
+import com.azure.android.core.util.logging.ClientLogger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class ResponseHeadersValidationInterceptorTest {
+    private static final String CUSTOM_HEADER = "X-Custom-Header";
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private final RecordingLogger logger = new RecordingLogger();
+
+    @Test
+    public void echoedHeadersAreAccepted() throws IOException {
+        OkHttpClient httpClient = newHttpClient(1);
+
+        server.enqueue(echoingResponse("custom value").setHeader(CUSTOM_HEADER.toLowerCase(), "custom value"));
+
+        httpClient.newCall(newRequest()).execute().close();
+
+        Assert.assertTrue(logger.errors.isEmpty());
+    }
+
+    @Test
+    public void mismatchedHeaderIsReportedWithItsName() throws IOException {
+        OkHttpClient httpClient = newHttpClient(1);
+
+        server.enqueue(echoingResponse("other value"));
+
+        try {
+            httpClient.newCall(newRequest()).execute().close();
+
+            Assert.fail();
+        } catch (HttpResponseException e) {
+            Assert.assertEquals("Unexpected header value. Expected response to echo '" + CUSTOM_HEADER
+                + ": custom value'. Got value 'other value'.", e.getMessage());
+            Assert.assertEquals(Collections.singletonList(e.getMessage()), logger.errors);
+        }
+    }
+
+    @Test
+    public void onlySampledResponsesAreValidated() throws IOException {
+        OkHttpClient httpClient = newHttpClient(3);
+        int failures = 0;
+
+        for (int i = 0; i < 6; i++) {
+            server.enqueue(new MockResponse());
+
+            try {
+                httpClient.newCall(newRequest()).execute().close();
+            } catch (HttpResponseException e) {
+                failures++;
+            }
+        }
+
+        Assert.assertEquals(2, failures);
+        Assert.assertEquals(2, logger.errors.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validationIntervalMustBePositive() {
+        new ResponseHeadersValidationInterceptor(Collections.emptyList(), logger, 0);
+    }
+
+    private OkHttpClient newHttpClient(int validationInterval) {
+        // The header names are passed as an unmodifiable list, which the interceptor must not modify.
+        return new OkHttpClient.Builder()
+            .addInterceptor(new ResponseHeadersValidationInterceptor(
+                Collections.unmodifiableList(Collections.singletonList(CUSTOM_HEADER)), logger, validationInterval))
+            .build();
+    }
+
+    private Request newRequest() {
+        return new Request.Builder()
+            .url(server.url("/container/blob"))
+            .header("x-ms-client-id", "client id")
+            .header("x-ms-encryption-key-sha256", "key hash")
+            .header(CUSTOM_HEADER, "custom value")
+            .build();
+    }
+
+    private static MockResponse echoingResponse(String customHeaderValue) {
+        return new MockResponse()
+            .setHeader("x-ms-client-id", "client id")
+            .setHeader("x-ms-encryption-key-sha256", "key hash")
+            .setHeader(CUSTOM_HEADER, customHeaderValue);
+    }
+
+    private static final class RecordingLogger implements ClientLogger {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public int getLogLevel() {
+            return LOG_LEVEL_ERROR;
+        }
+
+        @Override
+        public void setLogLevel(int logLevel) {
+        }
+
+        @Override
+        public void debug(String message) {
+        }
+
+        @Override
+        public void debug(String message, Throwable throwable) {
+        }
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void info(String message, Throwable throwable) {
+        }
+
+        @Override
+        public void warning(String message) {
+        }
+
+        @Override
+        public void warning(String message, Throwable throwable) {
+        }
+
+        @Override
+        public void error(String message) {
+            errors.add(message);
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            errors.add(message);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.azure.android.storage.blob.interceptor;
+
+import com.azure.android.storage.blob.internal.util.StorageCrc64Calculator;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+
+public class TransactionalContentValidationInterceptorTest {
+    private static final long POLY = 0x9A6C9329AC4BC9B5L;
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void sliceBy8MatchesBitwiseCrc64() {
+        Random random = new Random(42);
+
+        for (int length = 0; length < 100; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+
+            Assert.assertEquals(bitwiseCrc64(bytes), StorageCrc64Calculator.compute(bytes));
+        }
+    }
+
+    @Test
+    public void incrementalCrc64MatchesSinglePass() {
+        byte[] bytes = new byte[1000];
+        new Random(7).nextBytes(bytes);
+
+        long crc = StorageCrc64Calculator.compute(bytes, 0, 13, 0);
+        crc = StorageCrc64Calculator.compute(bytes, 13, 500, crc);
+        crc = StorageCrc64Calculator.compute(bytes, 513, 487, crc);
+
+        Assert.assertEquals(StorageCrc64Calculator.compute(bytes), crc);
+    }
+
+    @Test
+    public void uploadAddsCrc64Header() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201));
+
+        byte[] content = new byte[64 * 1024 + 3];
+        new Random(1).nextBytes(content);
+
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addNetworkInterceptor(new TransactionalContentValidationInterceptor())
+            .build();
+        Request request = new Request.Builder()
+            .url(server.url("/container/blob"))
+            .put(RequestBody.create(MediaType.parse("application/octet-stream"), content))
+            .build();
+
+        httpClient.newCall(request).execute().close();
+
+        RecordedRequest recordedRequest = server.takeRequest();
+
+        Assert.assertEquals(ByteString.of(StorageCrc64Calculator.toBytes(bitwiseCrc64(content))).base64(),
+            recordedRequest.getHeader("x-ms-content-crc64"));
+        Assert.assertEquals(ByteString.of(content), recordedRequest.getBody().readByteString());
+    }
+
+    @Test
+    public void onlyHashesBoundedBlobUploads() throws Exception {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addNetworkInterceptor(new TransactionalContentValidationInterceptor(
+                TransactionalContentValidationInterceptor.Algorithm.MD5, 16))
+            .build();
+        MediaType mediaType = MediaType.parse("application/octet-stream");
+        String[] urls = { "/container/blob?comp=block&blockid=AAAA", "/container/blob?comp=metadata",
+            "/container/blob?comp=block&blockid=AAAB" };
+        String[] contents = { "small block", "small metadata", "block larger than the limit" };
+
+        for (int i = 0; i < urls.length; i++) {
+            server.enqueue(new MockResponse().setResponseCode(201));
+            httpClient.newCall(new Request.Builder()
+                .url(server.url(urls[i]))
+                .put(RequestBody.create(mediaType, contents[i]))
+                .build()).execute().close();
+        }
+
+        Assert.assertEquals(ByteString.encodeUtf8("small block").md5().base64(),
+            server.takeRequest().getHeader("Content-MD5"));
+        Assert.assertNull(server.takeRequest().getHeader("Content-MD5"));
+        Assert.assertNull(server.takeRequest().getHeader("Content-MD5"));
+    }
+
+    @Test
+    public void downloadValidatesContentMd5() throws Exception {
+        ByteString content = ByteString.encodeUtf8("blob content");
+
+        server.enqueue(new MockResponse()
+            .setHeader("Content-MD5", content.md5().base64())
+            .setBody(new Buffer().write(content)));
+
+        try (Response response = newCall()) {
+            Assert.assertEquals(content, response.body().source().readByteString());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void downloadRejectsMismatchedContentMd5() throws Exception {
+        server.enqueue(new MockResponse()
+            .setHeader("Content-MD5", ByteString.encodeUtf8("other content").md5().base64())
+            .setBody("blob content"));
+
+        try (Response response = newCall()) {
+            response.body().string();
+        }
+    }
+
+    private Response newCall() throws IOException {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addNetworkInterceptor(new TransactionalContentValidationInterceptor())
+            .build();
+
+        return httpClient.newCall(new Request.Builder().url(server.url("/container/blob")).build()).execute();
+    }
+
+    private static long bitwiseCrc64(byte[] bytes) {
+        long crc = ~0L;
+
+        for (byte b : bytes) {
+            crc ^= b & 0xFF;
+
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) == 1 ? (crc >>> 1) ^ POLY : crc >>> 1;
+            }
+        }
+
+        return ~crc;
+    }
+}